@@ -23,6 +23,7 @@ public class DiagramGenerationObserver {
     private static final String TASK_TYPE_TAG_VALUE_CURRENT = "current";
     private static final String TASK_TYPE_TAG_VALUE_PENDING = "pending";
     private static final String TASK_POOL_METER_NAME_PREFIX = OBSERVATION_PREFIX + "tasks.pool.";
+    private static final String SLD_TASK_POOL_METER_NAME_PREFIX = OBSERVATION_PREFIX + "sld.tasks.pool.";
 
     private final MeterRegistry meterRegistry;
 
@@ -31,11 +32,19 @@ public class DiagramGenerationObserver {
     }
 
     public void createThreadPoolMetric(ThreadPoolExecutor threadPoolExecutor) {
-        Gauge.builder(TASK_POOL_METER_NAME_PREFIX + TASK_TYPE_TAG_VALUE_CURRENT, threadPoolExecutor, ThreadPoolExecutor::getActiveCount)
+        createThreadPoolMetric(threadPoolExecutor, TASK_POOL_METER_NAME_PREFIX);
+    }
+
+    public void createSldThreadPoolMetric(ThreadPoolExecutor threadPoolExecutor) {
+        createThreadPoolMetric(threadPoolExecutor, SLD_TASK_POOL_METER_NAME_PREFIX);
+    }
+
+    private void createThreadPoolMetric(ThreadPoolExecutor threadPoolExecutor, String meterNamePrefix) {
+        Gauge.builder(meterNamePrefix + TASK_TYPE_TAG_VALUE_CURRENT, threadPoolExecutor, ThreadPoolExecutor::getActiveCount)
             .description("The number of active diagram generation tasks in the thread pool")
             .tag(TASK_TYPE_TAG_NAME, TASK_TYPE_TAG_VALUE_CURRENT)
             .register(meterRegistry);
-        Gauge.builder(TASK_POOL_METER_NAME_PREFIX + TASK_TYPE_TAG_VALUE_PENDING, threadPoolExecutor, executor -> executor.getQueue().size())
+        Gauge.builder(meterNamePrefix + TASK_TYPE_TAG_VALUE_PENDING, threadPoolExecutor, executor -> executor.getQueue().size())
             .description("The number of pending diagram generation tasks in the thread pool")
             .tag(TASK_TYPE_TAG_NAME, TASK_TYPE_TAG_VALUE_PENDING)
             .register(meterRegistry);
@@ -0,0 +1,85 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.sld.server;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.powsybl.sld.server.dto.nad.NadSceneGraph;
+import com.powsybl.sld.server.utils.GeographicalTileIndex;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Caches the geographical layouts of the networks, per network and variant, and the tiles cut from them, per zoom level.
+ * As the adjacency indexes, they expire after a while to take the changes of the network into account, and the tiles of a
+ * layout are dropped when it is built again.
+ *
+ * @author agent <agent at local>
+ */
+@Service
+public class GeographicalTileService {
+
+    // Minimum nominal voltage of the VLs shown at each zoom level, in kV, all the VLs being shown beyond
+    private static final double[] MIN_NOMINAL_VOLTAGE_BY_ZOOM = {300, 300, 300, 300, 300, 300, 180, 180, 120, 120, 50};
+
+    private record NetworkVariant(UUID networkUuid, String variantId) {
+    }
+
+    private record Tile(NetworkVariant networkVariant, int z, int x, int y) {
+    }
+
+    private final Cache<NetworkVariant, GeographicalTileIndex> tileIndexes;
+    private final Cache<Tile, NadSceneGraph> tiles;
+
+    public GeographicalTileService(@Value("${diagram-server.nad.tiles.layout-cache.max-size:5}") int maxCachedNetworks,
+                                   @Value("${diagram-server.nad.tiles.tile-cache.max-size:10000}") int maxCachedTiles,
+                                   @Value("${diagram-server.nad.tiles.expire-after-write:10m}") Duration expireAfterWrite) {
+        this.tileIndexes = Caffeine.newBuilder()
+            .maximumSize(maxCachedNetworks)
+            .expireAfterWrite(expireAfterWrite)
+            .build();
+        this.tiles = Caffeine.newBuilder()
+            .maximumSize(maxCachedTiles)
+            .expireAfterWrite(expireAfterWrite)
+            .build();
+    }
+
+    /**
+     * @param tileIndexSupplier builds the geographical layout of the network variant if it is not cached
+     */
+    public NadSceneGraph getTile(UUID networkUuid, String variantId, int z, int x, int y, Supplier<GeographicalTileIndex> tileIndexSupplier) {
+        NetworkVariant networkVariant = new NetworkVariant(networkUuid, variantId);
+        Tile tile = new Tile(networkVariant, z, x, y);
+        NadSceneGraph sceneGraph = tiles.getIfPresent(tile);
+        if (sceneGraph == null) {
+            // The layout is looked up outside of the tiles cache, as building it drops tiles
+            GeographicalTileIndex tileIndex = getTileIndex(networkVariant, tileIndexSupplier);
+            sceneGraph = tiles.get(tile, key -> tileIndex.getTile(z, x, y, getMinNominalVoltage(z)));
+        }
+        return sceneGraph;
+    }
+
+    private GeographicalTileIndex getTileIndex(NetworkVariant networkVariant, Supplier<GeographicalTileIndex> tileIndexSupplier) {
+        return tileIndexes.get(networkVariant, key -> {
+            tiles.asMap().keySet().removeIf(tile -> tile.networkVariant().equals(key));
+            return tileIndexSupplier.get();
+        });
+    }
+
+    static double getMinNominalVoltage(int z) {
+        return z < MIN_NOMINAL_VOLTAGE_BY_ZOOM.length ? MIN_NOMINAL_VOLTAGE_BY_ZOOM[z] : 0;
+    }
+
+    public void evict(UUID networkUuid) {
+        tileIndexes.asMap().keySet().removeIf(key -> key.networkUuid().equals(networkUuid));
+        tiles.asMap().keySet().removeIf(key -> key.networkVariant().networkUuid().equals(networkUuid));
+    }
+}
@@ -0,0 +1,90 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.sld.server;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.powsybl.sld.server.dto.nad.BoundingBox;
+import com.powsybl.sld.server.entities.nad.NadVoltageLevelConfiguredPositionEntity;
+import com.powsybl.sld.server.error.DiagramBusinessErrorCode;
+import com.powsybl.sld.server.error.DiagramBusinessException;
+import com.powsybl.sld.server.repository.NadVoltageLevelConfiguredPositionRepository;
+import com.powsybl.sld.server.utils.ConfiguredPositionsIndex;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Holds the configured NAD positions in immutable in-memory indexes, see {@link ConfiguredPositionsIndex}.
+ * An index holds the positions of one generation of a positions config, which never changes once active, so that concurrent
+ * NAD generations always see a complete set of positions. The active generation is read from the database on each resolution
+ * of an index, so that an upload is seen at once by all the server instances, and its index is loaded on first use. A NAD
+ * generation resolves the index once and keeps it. The indexes of the generations not used anymore are evicted after a while.
+ *
+ * @author agent <agent at local>
+ */
+@Service
+public class NadConfiguredPositionService {
+
+    private final NadVoltageLevelConfiguredPositionRepository nadVoltageLevelConfiguredPositionRepository;
+    private final NadResultCacheService nadResultCacheService;
+
+    // The default positions config before its first upload
+    private static final ConfiguredPositionsIndex EMPTY_INDEX = ConfiguredPositionsIndex.of(null, null, List.of());
+
+    private final Cache<UUID, ConfiguredPositionsIndex> positionsIndexByGenerationId;
+
+    public NadConfiguredPositionService(NadVoltageLevelConfiguredPositionRepository nadVoltageLevelConfiguredPositionRepository,
+                                        NadResultCacheService nadResultCacheService,
+                                        @Value("${diagram-server.nad.positions-configs-cache.max-size:20}") int maxCachedPositionsConfigs,
+                                        @Value("${diagram-server.nad.positions-configs-cache.expire-after-access:30m}") Duration expireAfterAccess) {
+        this.nadVoltageLevelConfiguredPositionRepository = nadVoltageLevelConfiguredPositionRepository;
+        this.nadResultCacheService = nadResultCacheService;
+        this.positionsIndexByGenerationId = Caffeine.newBuilder()
+            .maximumSize(maxCachedPositionsConfigs)
+            .expireAfterAccess(expireAfterAccess)
+            .build();
+    }
+
+    /**
+     * @return the ids of the voltage levels whose configured position is inside the bounding box
+     */
+    public List<String> getVoltageLevelIds(UUID positionsConfigId, BoundingBox boundingBox) {
+        return getIndex(positionsConfigId).positionGridIndex().findVoltageLevelIds(boundingBox);
+    }
+
+    /**
+     * Drops the indexes of the given positions config (null for the default one) and the NADs generated from them, to be called once
+     * its positions are replaced or deleted. The index of the new active generation is loaded on next use.
+     */
+    public void invalidate(UUID positionsConfigId) {
+        positionsIndexByGenerationId.asMap().values().removeIf(index -> Objects.equals(index.positionsConfigId(), positionsConfigId));
+        nadResultCacheService.invalidatePositionsConfig(positionsConfigId);
+    }
+
+    /**
+     * @return the index of the active generation of the given positions config, empty for the default positions config before its first upload
+     * @throws DiagramBusinessException if the given named positions config does not exist
+     */
+    public ConfiguredPositionsIndex getIndex(UUID positionsConfigId) {
+        Optional<UUID> activeGenerationId = positionsConfigId == null
+            ? nadVoltageLevelConfiguredPositionRepository.findActiveGenerationId()
+            : nadVoltageLevelConfiguredPositionRepository.findActiveGenerationId(positionsConfigId);
+        if (activeGenerationId.isEmpty() && positionsConfigId != null) {
+            throw new DiagramBusinessException(DiagramBusinessErrorCode.POSITIONS_CONFIG_NOT_FOUND, "Positions config " + positionsConfigId + " not found");
+        }
+        return activeGenerationId
+            .map(generationId -> positionsIndexByGenerationId.get(generationId, id -> ConfiguredPositionsIndex.of(positionsConfigId, id,
+                nadVoltageLevelConfiguredPositionRepository.findAllByGenerationId(id).stream().map(NadVoltageLevelConfiguredPositionEntity::toDto).toList())))
+            .orElse(EMPTY_INDEX);
+    }
+}
@@ -0,0 +1,231 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.sld.server;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.powsybl.sld.server.dto.nad.NadRequestInfos;
+import com.powsybl.sld.server.utils.NadPositionsGenerationMode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.*;
+import java.util.function.Supplier;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Caches the generated NADs, keyed by the network variant, a canonical hash of the request and a revision of the data the NAD
+ * is generated from, so that reopening the same diagram does not generate it again. The results are stored compressed and
+ * evicted by total compressed size. The SVG results and the binary scene graphs of a same request are cached separately.
+ * <p>
+ * The network store does not notify its changes: the revision is computed by the caller from the resolved VLs, the state of
+ * their equipments, the version of the NAD config and the active generation of the configured positions, so that a result is
+ * never served for another state of the network or of the configs. The results of the outdated revisions are left to expire,
+ * and the results of a NAD config, of a positions config or of a network can also be evicted explicitly.
+ *
+ * @author agent <agent at local>
+ */
+@Service
+public class NadResultCacheService {
+
+    private static final ObjectMapper CANONICAL_MAPPER = JsonMapper.builder()
+        .enable(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY)
+        .enable(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS)
+        .build();
+
+    /**
+     * @param positionsConfigUuid the positions config of the CONFIGURED generation mode, null for the default one
+     * @param binary              whether the result is the binary scene graph, whatever the requested output format
+     */
+    record Key(UUID networkUuid, String variantId, UUID nadConfigUuid, boolean configuredPositions, UUID positionsConfigUuid, String requestHash,
+               boolean binary, String revision) {
+    }
+
+    private final boolean enabled;
+    private final Cache<Key, byte[]> results;
+
+    public NadResultCacheService(@Value("${diagram-server.nad.result-cache.max-size:256MB}") DataSize maxSize,
+                                 @Value("${diagram-server.nad.result-cache.expire-after-write:10m}") Duration expireAfterWrite) {
+        this.enabled = maxSize.toBytes() > 0;
+        this.results = Caffeine.newBuilder()
+            .maximumWeight(maxSize.toBytes())
+            .weigher((Key key, byte[] result) -> result.length)
+            .expireAfterWrite(expireAfterWrite)
+            .build();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @param revision  revision of the data the NAD is generated from, see {@link #digest}
+     * @param generator generates the NAD when it is not cached
+     */
+    public String get(UUID networkUuid, String variantId, NadRequestInfos nadRequestInfos, String revision, Supplier<String> generator) {
+        if (!enabled) {
+            return generator.get();
+        }
+        Key key = createKey(networkUuid, variantId, nadRequestInfos, false, revision);
+        String result = getIfPresent(key);
+        if (result == null) {
+            // Not computed inside the cache, the generation being long
+            result = generator.get();
+            put(key, result);
+        }
+        return result;
+    }
+
+    /**
+     * Binary scene graph of the NAD, see {@link #get}.
+     */
+    public byte[] getBinary(UUID networkUuid, String variantId, NadRequestInfos nadRequestInfos, String revision, Supplier<byte[]> generator) {
+        if (!enabled) {
+            return generator.get();
+        }
+        Key key = createKey(networkUuid, variantId, nadRequestInfos, true, revision);
+        byte[] result = getBinaryIfPresent(key);
+        if (result == null) {
+            result = generator.get();
+            putBinary(key, result);
+        }
+        return result;
+    }
+
+    /**
+     * @return the cached NAD, null if it is not cached
+     */
+    public String getIfPresent(UUID networkUuid, String variantId, NadRequestInfos nadRequestInfos, String revision) {
+        return enabled ? getIfPresent(createKey(networkUuid, variantId, nadRequestInfos, false, revision)) : null;
+    }
+
+    String getIfPresent(Key key) {
+        byte[] result = getBinaryIfPresent(key);
+        return result != null ? new String(result, StandardCharsets.UTF_8) : null;
+    }
+
+    byte[] getBinaryIfPresent(Key key) {
+        byte[] compressedResult = results.getIfPresent(key);
+        return compressedResult != null ? decompress(compressedResult) : null;
+    }
+
+    public void put(UUID networkUuid, String variantId, NadRequestInfos nadRequestInfos, String revision, String result) {
+        if (enabled) {
+            put(createKey(networkUuid, variantId, nadRequestInfos, false, revision), result);
+        }
+    }
+
+    void put(Key key, String result) {
+        putBinary(key, result.getBytes(StandardCharsets.UTF_8));
+    }
+
+    void putBinary(Key key, byte[] result) {
+        results.put(key, compress(result));
+    }
+
+    static Key createKey(UUID networkUuid, String variantId, NadRequestInfos nadRequestInfos, boolean binary, String revision) {
+        boolean configuredPositions = nadRequestInfos.getPositions().isEmpty() && nadRequestInfos.getNadConfigUuid() == null
+            && nadRequestInfos.getNadPositionsGenerationMode() == NadPositionsGenerationMode.CONFIGURED;
+        return new Key(networkUuid, variantId, nadRequestInfos.getNadConfigUuid(), configuredPositions,
+            configuredPositions ? nadRequestInfos.getNadPositionsConfigUuid() : null, hash(nadRequestInfos), binary, revision);
+    }
+
+    /**
+     * Hash of the request serialized with sorted properties and map entries, and sorted string arrays, the string collections
+     * of the request being sets.
+     */
+    static String hash(NadRequestInfos nadRequestInfos) {
+        JsonNode canonicalRequest = canonicalize(CANONICAL_MAPPER.valueToTree(nadRequestInfos));
+        try {
+            return sha256(CANONICAL_MAPPER.writeValueAsBytes(canonicalRequest));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to hash the NAD request", e);
+        }
+    }
+
+    /**
+     * Revision of a description of the data a NAD is generated from, small enough to be part of the key.
+     */
+    public static String digest(CharSequence description) {
+        return sha256(description.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String sha256(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static JsonNode canonicalize(JsonNode node) {
+        if (node instanceof ObjectNode objectNode) {
+            List<String> fieldNames = new ArrayList<>(objectNode.size());
+            objectNode.fieldNames().forEachRemaining(fieldNames::add);
+            fieldNames.forEach(fieldName -> objectNode.set(fieldName, canonicalize(objectNode.get(fieldName))));
+        } else if (node instanceof ArrayNode arrayNode) {
+            List<JsonNode> elements = new ArrayList<>(arrayNode.size());
+            arrayNode.forEach(element -> elements.add(canonicalize(element)));
+            if (elements.stream().allMatch(JsonNode::isTextual)) {
+                elements.sort(Comparator.comparing(JsonNode::asText));
+            }
+            arrayNode.removeAll();
+            arrayNode.addAll(elements);
+        }
+        return node;
+    }
+
+    public void invalidateNadConfigs(Collection<UUID> nadConfigUuids) {
+        results.asMap().keySet().removeIf(key -> key.nadConfigUuid() != null && nadConfigUuids.contains(key.nadConfigUuid()));
+    }
+
+    /**
+     * @param positionsConfigUuid the changed positions config, null for the default one
+     */
+    public void invalidatePositionsConfig(UUID positionsConfigUuid) {
+        results.asMap().keySet().removeIf(key -> key.configuredPositions() && Objects.equals(key.positionsConfigUuid(), positionsConfigUuid));
+    }
+
+    public void evict(UUID networkUuid) {
+        results.asMap().keySet().removeIf(key -> key.networkUuid().equals(networkUuid));
+    }
+
+    private static byte[] compress(byte[] result) {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzipOutputStream = new GZIPOutputStream(outputStream)) {
+            gzipOutputStream.write(result);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return outputStream.toByteArray();
+    }
+
+    private static byte[] decompress(byte[] compressedResult) {
+        try (GZIPInputStream gzipInputStream = new GZIPInputStream(new ByteArrayInputStream(compressedResult))) {
+            return gzipInputStream.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -9,29 +9,39 @@ package com.powsybl.sld.server;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.util.RawValue;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.powsybl.commons.config.BaseVoltageConfig;
 import com.powsybl.commons.config.BaseVoltagesConfig;
+import com.powsybl.iidm.network.Bus;
+import com.powsybl.iidm.network.Connectable;
+import com.powsybl.iidm.network.Identifiable;
 import com.powsybl.iidm.network.Network;
 import com.powsybl.iidm.network.Substation;
+import com.powsybl.iidm.network.Terminal;
 import com.powsybl.iidm.network.VoltageLevel;
 import com.powsybl.iidm.network.extensions.SubstationPosition;
 import com.powsybl.iidm.network.extensions.SubstationPositionAdder;
 import com.powsybl.nad.NadParameters;
 import com.powsybl.nad.NetworkAreaDiagram;
+import com.powsybl.nad.build.iidm.NetworkGraphBuilder;
 import com.powsybl.nad.build.iidm.VoltageLevelFilter;
 import com.powsybl.nad.layout.*;
-import com.powsybl.nad.model.Point;
+import com.powsybl.nad.model.Graph;
+import com.powsybl.nad.svg.LabelProvider;
 import com.powsybl.nad.svg.StyleProvider;
 import com.powsybl.nad.svg.SvgParameters;
 import com.powsybl.network.store.client.NetworkStoreService;
 import com.powsybl.network.store.client.PreloadingStrategy;
 import com.powsybl.sld.server.dto.*;
+import com.powsybl.sld.server.dto.nad.BoundingBox;
 import com.powsybl.sld.server.dto.nad.NadConfigInfos;
+import com.powsybl.sld.server.dto.nad.NadCostEstimation;
 import com.powsybl.sld.server.dto.nad.NadGenerationContext;
 import com.powsybl.sld.server.dto.nad.NadRequestInfos;
+import com.powsybl.sld.server.dto.nad.NadSceneGraph;
 import com.powsybl.sld.server.dto.nad.NadVoltageLevelPositionInfos;
 import com.powsybl.sld.server.entities.nad.NadConfigEntity;
-import com.powsybl.sld.server.entities.nad.NadVoltageLevelConfiguredPositionEntity;
 import com.powsybl.sld.server.entities.nad.NadVoltageLevelPositionEntity;
 import com.powsybl.sld.server.error.DiagramBusinessException;
 import com.powsybl.sld.server.repository.NadConfigRepository;
@@ -47,14 +57,21 @@ import org.springframework.context.annotation.Lazy;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.server.ResponseStatusException;
 import org.supercsv.io.CsvMapReader;
 
 import java.io.*;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import static com.powsybl.sld.server.error.DiagramBusinessErrorCode.*;
@@ -68,14 +85,41 @@ class NetworkAreaDiagramService {
     @Value("${diagram-server.nad.max-voltage-levels}")
     private int maxVoltageLevels;
 
+    // Above the maximum number of VLs, render the highest voltage VLs instead of rejecting the request
+    @Value("${diagram-server.nad.max-voltage-levels-degraded-mode:false}")
+    private boolean maxVoltageLevelsDegradedMode;
+
+    @Value("${diagram-server.nad.layout.algorithm:BASIC}")
+    private NadLayoutAlgorithm defaultLayoutAlgorithm;
+
+    @Value("${diagram-server.nad.layout.max-iterations:1000}")
+    private int layoutMaxIterations;
+
+    @Value("${diagram-server.nad.layout.timeout:2s}")
+    private Duration layoutTimeout;
+
+    @Value("${diagram-server.nad.layout.timeout-per-voltage-level:1ms}")
+    private Duration layoutTimeoutPerVoltageLevel;
+
+    @Value("${diagram-server.nad.layout.max-timeout:30s}")
+    private Duration layoutMaxTimeout;
+
     private static final int DEFAULT_SCALING_FACTOR = 450000;
     private static final int MIN_SCALING_FACTOR = 50000;
     private static final int MAX_SCALING_FACTOR = 600000;
     private static final double RADIUS_FACTOR = 300;
+    // In degrees, about a kilometer
+    private static final double SINGLE_NEIGHBOUR_SHIFT = 0.01;
+    // Distance between connected VLs of the server side layout when no pair of connected VLs is positioned
+    private static final double DEFAULT_LAYOUT_SPRING_LENGTH = 100;
+    private static final int CSV_IMPORT_BATCH_SIZE = 1000;
+    private static final int MAX_CACHED_NAD_CONFIG_POSITION_INDEXES = 100;
+    private static final Duration NAD_CONFIG_POSITION_INDEX_EXPIRATION = Duration.ofMinutes(30);
 
     static final String SVG_TAG = "svg";
     static final String METADATA = "metadata";
     static final String ADDITIONAL_METADATA = "additionalMetadata";
+    static final String SCENE_GRAPH = "sceneGraph";
 
     @Autowired
     private VoltagesConfig voltagesConfig;
@@ -87,16 +131,43 @@ class NetworkAreaDiagramService {
 
     private final NadConfigRepository nadConfigRepository;
     private final NadVoltageLevelConfiguredPositionRepository nadVoltageLevelConfiguredPositionRepository;
+    private final NadConfiguredPositionService nadConfiguredPositionService;
+    private final VoltageLevelAdjacencyService voltageLevelAdjacencyService;
+    private final GeographicalTileService geographicalTileService;
+    private final NadResultCacheService nadResultCacheService;
     private final NetworkAreaDiagramService self;
 
     private final ObjectMapper objectMapper;
 
+    // The data derived from a NAD config is cached by version, so that an update is seen at once by all the server instances
+    private record NadConfigVersion(UUID nadConfigUuid, Long version) {
+    }
+
+    // Spatial indexes over the positions of the NAD configs, dropped once a config is updated or deleted
+    private final Cache<NadConfigVersion, PositionGridIndex> nadConfigPositionIndexes = Caffeine.newBuilder()
+        .maximumSize(MAX_CACHED_NAD_CONFIG_POSITION_INDEXES)
+        .expireAfterAccess(NAD_CONFIG_POSITION_INDEX_EXPIRATION)
+        .build();
+
+    // Fixed layout inputs of the NAD configs, shared between the generations and dropped along with the spatial indexes
+    private final Cache<NadConfigVersion, FixedLayoutPositions> nadConfigFixedLayoutPositions = Caffeine.newBuilder()
+        .maximumSize(MAX_CACHED_NAD_CONFIG_POSITION_INDEXES)
+        .expireAfterAccess(NAD_CONFIG_POSITION_INDEX_EXPIRATION)
+        .build();
+
+    // Fitted on the generations of this instance
+    private final NadCostModel nadCostModel = new NadCostModel();
+
     NetworkAreaDiagramService(NetworkStoreService networkStoreService,
                                      GeoDataService geoDataService,
                                      FilterService filterService,
                                      NetworkAreaExecutionService diagramExecutionService,
                                      NadConfigRepository nadConfigRepository,
                                      NadVoltageLevelConfiguredPositionRepository nadVoltageLevelConfiguredPositionRepository,
+                                     NadConfiguredPositionService nadConfiguredPositionService,
+                                     VoltageLevelAdjacencyService voltageLevelAdjacencyService,
+                                     GeographicalTileService geographicalTileService,
+                                     NadResultCacheService nadResultCacheService,
                                      @Lazy NetworkAreaDiagramService networkAreaDiagramService,
                                      ObjectMapper objectMapper) {
         this.networkStoreService = networkStoreService;
@@ -105,6 +176,10 @@ class NetworkAreaDiagramService {
         this.diagramExecutionService = diagramExecutionService;
         this.nadConfigRepository = nadConfigRepository;
         this.nadVoltageLevelConfiguredPositionRepository = nadVoltageLevelConfiguredPositionRepository;
+        this.nadConfiguredPositionService = nadConfiguredPositionService;
+        this.voltageLevelAdjacencyService = voltageLevelAdjacencyService;
+        this.geographicalTileService = geographicalTileService;
+        this.nadResultCacheService = nadResultCacheService;
         this.self = networkAreaDiagramService;
         this.objectMapper = objectMapper;
     }
@@ -128,7 +203,8 @@ class NetworkAreaDiagramService {
 
     @Transactional
     public void deleteNetworkAreaDiagramConfigs(List<UUID> configUuids) {
-        nadConfigRepository.deleteAllById(configUuids);
+        nadConfigRepository.deleteAllWithChildrenById(configUuids);
+        invalidateNadConfigCaches(configUuids);
     }
 
     @Transactional
@@ -143,11 +219,47 @@ class NetworkAreaDiagramService {
         return nadConfigRepository.save(duplicateEntity).getId();
     }
 
+    @Transactional
+    public Map<UUID, UUID> duplicateNetworkAreaDiagramConfigs(List<UUID> originNadConfigUuids) {
+        Map<UUID, UUID> newIdsByOriginId = new LinkedHashMap<>();
+        originNadConfigUuids.forEach(originUuid -> newIdsByOriginId.computeIfAbsent(originUuid, uuid -> UUID.randomUUID()));
+
+        int nbDuplicatedConfigs = nadConfigRepository.duplicateAll(newIdsByOriginId);
+        if (nbDuplicatedConfigs != newIdsByOriginId.size()) {
+            // Rolls back the copies already inserted
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Failed to duplicate NAD configs: " + (newIdsByOriginId.size() - nbDuplicatedConfigs) + " configuration(s) not found");
+        }
+        return newIdsByOriginId;
+    }
+
     @Transactional
     public void updateNetworkAreaDiagramConfig(UUID nadConfigUuid, NadConfigInfos nadConfigInfos) {
-        NadConfigEntity entity = nadConfigRepository.findWithVoltageLevelIdsById(nadConfigUuid)
+        NadConfigEntity entity = nadConfigRepository.findForUpdateById(nadConfigUuid)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Failed to update NAD config: no configuration found for UUID " + nadConfigUuid));
         updateNadConfig(entity, nadConfigInfos);
+        invalidateNadConfigCaches(List.of(nadConfigUuid));
+    }
+
+    /**
+     * Drops the data and the NADs derived from the previous versions of the NAD configs once the transaction is committed, so that
+     * a concurrent generation cannot cache it again from the previous version while the transaction is running. The other server
+     * instances see the new version and let their entries expire.
+     */
+    private void invalidateNadConfigCaches(Collection<UUID> nadConfigUuids) {
+        afterCommit(() -> {
+            nadConfigPositionIndexes.asMap().keySet().removeIf(key -> nadConfigUuids.contains(key.nadConfigUuid()));
+            nadConfigFixedLayoutPositions.asMap().keySet().removeIf(key -> nadConfigUuids.contains(key.nadConfigUuid()));
+            nadResultCacheService.invalidateNadConfigs(nadConfigUuids);
+        });
+    }
+
+    private static void afterCommit(Runnable action) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
     }
 
     private void updateNadConfig(@NonNull NadConfigEntity entity, @NonNull NadConfigInfos nadConfigInfos) {
@@ -202,6 +314,30 @@ class NetworkAreaDiagramService {
         )).toDto();
     }
 
+    /**
+     * @return the ids of the voltage levels of the NAD config positioned inside the bounding box
+     */
+    @Transactional(readOnly = true)
+    public List<String> getNetworkAreaDiagramConfigVoltageLevelIds(UUID nadConfigUuid, BoundingBox boundingBox) {
+        checkBoundingBox(boundingBox);
+        Long version = nadConfigRepository.findVersionById(nadConfigUuid).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND,
+            "Failed to retrieve NAD configuration: no configuration found for UUID " + nadConfigUuid));
+        return nadConfigPositionIndexes.get(new NadConfigVersion(nadConfigUuid, version),
+                key -> PositionGridIndex.build(getNetworkAreaDiagramConfig(nadConfigUuid).getPositions()))
+            .findVoltageLevelIds(boundingBox);
+    }
+
+    public List<String> getConfiguredPositionsVoltageLevelIds(UUID positionsConfigUuid, BoundingBox boundingBox) {
+        checkBoundingBox(boundingBox);
+        return nadConfiguredPositionService.getVoltageLevelIds(positionsConfigUuid, boundingBox);
+    }
+
+    private static void checkBoundingBox(BoundingBox boundingBox) {
+        if (!boundingBox.isValid()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid bounding box: " + boundingBox);
+        }
+    }
+
     private Set<String> getVoltageLevelIdsFromFilter(UUID networkUuid, String variantId, UUID filterUuid) {
         List<IdentifiableAttributes> filterContent = filterService.exportFilter(networkUuid, variantId, filterUuid);
         return filterContent.stream()
@@ -212,63 +348,510 @@ class NetworkAreaDiagramService {
     @Transactional
     public void deleteNetworkAreaDiagramConfig(UUID nadConfigUuid) {
         nadConfigRepository.deleteById(nadConfigUuid);
+        invalidateNadConfigCaches(List.of(nadConfigUuid));
     }
 
     public CompletableFuture<String> generateNetworkAreaDiagramSvgAsync(UUID networkUuid, String variantId, NadRequestInfos nadRequestInfos) {
         return diagramExecutionService.supplyAsync(() -> self.generateNetworkAreaDiagramSvg(networkUuid, variantId, nadRequestInfos));
     }
 
+    /**
+     * The final VLs are resolved before looking up the cached NAD, as its revision depends on them, so that the oversized requests
+     * are rejected first.
+     */
     @Transactional(readOnly = true)
     public String generateNetworkAreaDiagramSvg(UUID networkUuid, String variantId, NadRequestInfos nadRequestInfos) {
+        long startTime = System.nanoTime();
+        NadGenerationContext nadGenerationContext = resolveVoltageLevels(networkUuid, variantId,
+            DiagramUtils.getNetwork(networkUuid, variantId, networkStoreService, PreloadingStrategy.COLLECTION), nadRequestInfos);
+        reduceVoltageLevels(nadGenerationContext, nadRequestInfos);
+        return nadResultCacheService.get(networkUuid, variantId, nadRequestInfos, computeRevisionIfCached(nadGenerationContext), () -> {
+            layoutVoltageLevels(nadGenerationContext, nadRequestInfos);
+            buildGraphicalParameters(nadGenerationContext, nadRequestInfos);
+            return draw(nadGenerationContext, nadRequestInfos, startTime);
+        });
+    }
+
+    /**
+     * @return the revision of the NAD, null when the results are not cached as it would not be used
+     */
+    private String computeRevisionIfCached(NadGenerationContext nadGenerationContext) {
+        return nadResultCacheService.isEnabled() ? computeRevision(nadGenerationContext) : null;
+    }
+
+    /**
+     * Revision of the data the NAD is generated from besides the request: the final VLs and their neighbours, the state of
+     * their buses and equipments, the version of the NAD config and the active generation of the configured positions. The geo
+     * data is not part of it, the cached NADs expire to take its changes into account.
+     */
+    private String computeRevision(NadGenerationContext nadGenerationContext) {
+        StringBuilder description = new StringBuilder()
+            .append(nadGenerationContext.getNadConfigVersion()).append(';');
+        if (nadGenerationContext.getConfiguredPositionsIndex() != null) {
+            description.append(nadGenerationContext.getConfiguredPositionsIndex().generationId());
+        }
+        Network network = nadGenerationContext.getNetwork();
+        // The branches towards the neighbouring VLs are drawn too
+        getAdjacencyIndex(nadGenerationContext).getVoltageLevelIdsWithinDepth(nadGenerationContext.getVoltageLevelIds(), 1).stream()
+            .sorted()
+            .map(network::getVoltageLevel)
+            .filter(Objects::nonNull)
+            .forEach(voltageLevel -> {
+                description.append(';').append(voltageLevel.getId());
+                voltageLevel.getBusView().getBuses().forEach(bus -> description.append('|').append(bus.getId())
+                    .append(',').append(bus.getV()).append(',').append(bus.getAngle()));
+                voltageLevel.getConnectableStream()
+                    .sorted(Comparator.comparing(Identifiable::getId))
+                    .forEach(connectable -> describeState(description, connectable));
+            });
+        return NadResultCacheService.digest(description);
+    }
+
+    private static void describeState(StringBuilder description, Connectable<?> connectable) {
+        description.append('|').append(connectable.getId());
+        for (Terminal terminal : connectable.getTerminals()) {
+            Bus bus = terminal.getBusView().getBus();
+            description.append(',').append(terminal.isConnected()).append(',').append(bus != null ? bus.getId() : null)
+                .append(',').append(terminal.getP()).append(',').append(terminal.getQ());
+        }
+    }
+
+    private String draw(NadGenerationContext nadGenerationContext, NadRequestInfos nadRequestInfos, long startTime) {
+        String result = nadRequestInfos.getOutputFormat() == NadOutputFormat.SCENE_GRAPH
+            ? processSceneGraph(drawSceneGraph(nadGenerationContext), computeAdditionalMetadata(nadGenerationContext))
+            : processSvgAndMetadata(drawSvgAndBuildMetadata(nadGenerationContext));
+        recordCost(nadGenerationContext, startTime, result.length());
+        return result;
+    }
+
+    /**
+     * A NAD of a batch, prepared on the network shared by the batch and ready to be drawn.
+     */
+    record PreparedNetworkAreaDiagram(int index, NadRequestInfos nadRequestInfos, NadGenerationContext nadGenerationContext, String revision,
+                                      long preparationTime) {
+    }
+
+    /**
+     * Generates the NADs of several requests on the same network variant. The network is loaded once and the geo data of all
+     * the geographical NADs are fetched in a single call, then the NADs are drawn in parallel.
+     *
+     * @param resultConsumer receives the result or the error of each NAD as soon as it is generated, from the generation threads
+     * @return completed once all the NADs are generated
+     */
+    public CompletableFuture<Void> generateNetworkAreaDiagramsAsync(UUID networkUuid, String variantId, List<NadRequestInfos> nadRequestInfos,
+                                                                    Consumer<DiagramBatchResult> resultConsumer) {
+        return diagramExecutionService.supplyAsync(() -> self.prepareNetworkAreaDiagrams(networkUuid, variantId, nadRequestInfos, resultConsumer))
+            .thenCompose(preparedDiagrams -> CompletableFuture.allOf(preparedDiagrams.stream()
+                .map(preparedDiagram -> diagramExecutionService.supplyAsync(() -> draw(preparedDiagram.nadGenerationContext(), preparedDiagram.nadRequestInfos(),
+                        System.nanoTime() - preparedDiagram.preparationTime()))
+                    .handle((result, throwable) -> {
+                        if (throwable != null) {
+                            resultConsumer.accept(DiagramBatchResult.failure(preparedDiagram.index(), null, throwable));
+                        } else {
+                            nadResultCacheService.put(networkUuid, variantId, preparedDiagram.nadRequestInfos(), preparedDiagram.revision(), result);
+                            resultConsumer.accept(DiagramBatchResult.success(preparedDiagram.index(), null, result));
+                        }
+                        return null;
+                    }))
+                .toArray(CompletableFuture[]::new)));
+    }
+
+    /**
+     * Resolves the NADs of the batch one after the other on the shared network, then preloads everything the drawings read from
+     * the drawn VLs so that the parallel drawings do not modify the network. The cached NADs and the NADs failing to be resolved
+     * are given to the consumer right away.
+     */
+    @Transactional(readOnly = true)
+    public List<PreparedNetworkAreaDiagram> prepareNetworkAreaDiagrams(UUID networkUuid, String variantId, List<NadRequestInfos> nadRequestInfos,
+                                                                       Consumer<DiagramBatchResult> resultConsumer) {
+        // The collections read by the label and style providers are loaded at once
+        Network network = DiagramUtils.getNetwork(networkUuid, variantId, networkStoreService, PreloadingStrategy.ALL_COLLECTIONS_NEEDED_FOR_BUS_VIEW);
+        List<PreparedNetworkAreaDiagram> preparedDiagrams = new ArrayList<>();
+        for (int index = 0; index < nadRequestInfos.size(); index++) {
+            NadRequestInfos requestInfos = nadRequestInfos.get(index);
+            long startTime = System.nanoTime();
+            try {
+                NadGenerationContext nadGenerationContext = resolveVoltageLevels(networkUuid, variantId, network, requestInfos);
+                reduceVoltageLevels(nadGenerationContext, requestInfos);
+                String revision = computeRevisionIfCached(nadGenerationContext);
+                String cachedResult = nadResultCacheService.getIfPresent(networkUuid, variantId, requestInfos, revision);
+                if (cachedResult != null) {
+                    resultConsumer.accept(DiagramBatchResult.success(index, null, cachedResult));
+                    continue;
+                }
+                layoutVoltageLevels(nadGenerationContext, requestInfos);
+                preparedDiagrams.add(new PreparedNetworkAreaDiagram(index, requestInfos, nadGenerationContext, revision, System.nanoTime() - startTime));
+            } catch (RuntimeException e) {
+                resultConsumer.accept(DiagramBatchResult.failure(index, null, e));
+            }
+        }
+        if (preparedDiagrams.isEmpty()) {
+            return preparedDiagrams;
+        }
+
+        assignBatchGeoDataCoordinates(preparedDiagrams.stream()
+            .map(PreparedNetworkAreaDiagram::nadGenerationContext)
+            .filter(nadGenerationContext -> nadGenerationContext.getNadPositionsGenerationMode() == NadPositionsGenerationMode.GEOGRAPHICAL_COORDINATES)
+            .toList());
+
+        Set<String> drawnVoltageLevelIds = new HashSet<>();
+        Iterator<PreparedNetworkAreaDiagram> it = preparedDiagrams.iterator();
+        while (it.hasNext()) {
+            PreparedNetworkAreaDiagram preparedDiagram = it.next();
+            NadGenerationContext nadGenerationContext = preparedDiagram.nadGenerationContext();
+            try {
+                buildGraphicalParameters(nadGenerationContext, preparedDiagram.nadRequestInfos());
+                // The branches towards the neighbouring VLs are drawn too
+                drawnVoltageLevelIds.addAll(getAdjacencyIndex(nadGenerationContext).getVoltageLevelIdsWithinDepth(nadGenerationContext.getVoltageLevelIds(), 1));
+            } catch (RuntimeException e) {
+                resultConsumer.accept(DiagramBatchResult.failure(preparedDiagram.index(), null, e));
+                it.remove();
+            }
+        }
+        DiagramUtils.preloadForParallelReads(drawnVoltageLevelIds.stream().map(network::getVoltageLevel).filter(Objects::nonNull).toList());
+        return preparedDiagrams;
+    }
+
+    /**
+     * Fetches the geo data of the substations of all the geographical NADs of a batch in a single call.
+     */
+    private void assignBatchGeoDataCoordinates(List<NadGenerationContext> nadGenerationContexts) {
+        if (nadGenerationContexts.isEmpty()) {
+            return;
+        }
+        NadGenerationContext firstNadGenerationContext = nadGenerationContexts.getFirst();
+        Set<String> substationIds = new LinkedHashSet<>();
+        for (NadGenerationContext nadGenerationContext : nadGenerationContexts) {
+            VoltageLevelAdjacencyIndex adjacencyIndex = getAdjacencyIndex(nadGenerationContext);
+            substationIds.addAll(adjacencyIndex.getSubstationIds(adjacencyIndex.getVoltageLevelIdsWithinDepth(nadGenerationContext.getVoltageLevelIds(), 1)));
+        }
+        List<Substation> substations = substationIds.stream()
+            .map(firstNadGenerationContext.getNetwork()::getSubstation)
+            .toList();
+
+        // Watch out : assignGeoDataCoordinates also modifies the network
+        Map<String, Coordinate> substationGeoDataMap = assignGeoDataCoordinates(firstNadGenerationContext, substations);
+        placeSubstationsWithoutCoordinates(firstNadGenerationContext, substations);
+        nadGenerationContexts.forEach(nadGenerationContext -> nadGenerationContext.setSubstationGeoData(substationGeoDataMap));
+    }
+
+    public CompletableFuture<byte[]> generateNetworkAreaDiagramSceneGraphBinaryAsync(UUID networkUuid, String variantId, NadRequestInfos nadRequestInfos) {
+        return diagramExecutionService.supplyAsync(() -> self.generateNetworkAreaDiagramSceneGraphBinary(networkUuid, variantId, nadRequestInfos));
+    }
+
+    /**
+     * Scene graph of the NAD in the {@link NadSceneGraphBinaryFormat}, whatever the requested output format. It is cached apart
+     * from the SVG result of the same request.
+     */
+    @Transactional(readOnly = true)
+    public byte[] generateNetworkAreaDiagramSceneGraphBinary(UUID networkUuid, String variantId, NadRequestInfos nadRequestInfos) {
+        long startTime = System.nanoTime();
+        NadGenerationContext nadGenerationContext = resolveVoltageLevels(networkUuid, variantId,
+            DiagramUtils.getNetwork(networkUuid, variantId, networkStoreService, PreloadingStrategy.COLLECTION), nadRequestInfos);
+        reduceVoltageLevels(nadGenerationContext, nadRequestInfos);
+        return nadResultCacheService.getBinary(networkUuid, variantId, nadRequestInfos, computeRevisionIfCached(nadGenerationContext), () -> {
+            layoutVoltageLevels(nadGenerationContext, nadRequestInfos);
+            buildGraphicalParameters(nadGenerationContext, nadRequestInfos);
+            NadSceneGraph sceneGraph = drawSceneGraph(nadGenerationContext);
+            byte[] result;
+            try {
+                result = NadSceneGraphBinaryFormat.encode(sceneGraph, objectMapper.writeValueAsBytes(computeAdditionalMetadata(nadGenerationContext)));
+            } catch (JsonProcessingException e) {
+                throw new UncheckedIOException("Failed to write the additional metadata", e);
+            }
+            recordCost(nadGenerationContext, startTime, result.length);
+            return result;
+        });
+    }
+
+    /**
+     * Records the cost of a generation, to fit the model of {@link #estimateNetworkAreaDiagram}.
+     */
+    private void recordCost(NadGenerationContext nadGenerationContext, long startTime, long size) {
+        VoltageLevelAdjacencyIndex adjacencyIndex = nadGenerationContext.getAdjacencyIndex();
+        BitSet voltageLevels = adjacencyIndex.toBitSet(nadGenerationContext.getVoltageLevelIds());
+        nadCostModel.record(voltageLevels.cardinality(), adjacencyIndex.countEdges(voltageLevels),
+            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime), size);
+    }
+
+    public CompletableFuture<NadSceneGraph> getGeographicalTileAsync(UUID networkUuid, String variantId, int z, int x, int y) {
+        return diagramExecutionService.supplyAsync(() -> getGeographicalTile(networkUuid, variantId, z, x, y));
+    }
+
+    /**
+     * Tile of the geographical layout of the whole network, the higher the zoom level the more VLs are shown.
+     */
+    public NadSceneGraph getGeographicalTile(UUID networkUuid, String variantId, int z, int x, int y) {
+        if (!GeographicalTileIndex.isValidTile(z, x, y)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid tile: " + z + "/" + x + "/" + y);
+        }
+        return geographicalTileService.getTile(networkUuid, variantId, z, x, y, () -> buildGeographicalTileIndex(networkUuid, variantId));
+    }
+
+    private GeographicalTileIndex buildGeographicalTileIndex(UUID networkUuid, String variantId) {
+        NadGenerationContext nadGenerationContext = NadGenerationContext.builder()
+            .networkUuid(networkUuid)
+            .variantId(variantId)
+            .network(DiagramUtils.getNetwork(networkUuid, variantId, networkStoreService, PreloadingStrategy.COLLECTION))
+            .build();
+        List<Substation> substations = nadGenerationContext.getNetwork().getSubstationStream().toList();
+
+        // Watch out : assignGeoDataCoordinates also modifies the network
+        assignGeoDataCoordinates(nadGenerationContext, substations);
+        placeSubstationsWithoutCoordinates(nadGenerationContext, substations);
+
+        BaseVoltagesConfig baseVoltagesConfig = createBaseVoltagesConfig(voltagesConfig.getBaseVoltagesConfigInfos());
+        return GeographicalTileIndex.build(nadGenerationContext.getNetwork(),
+            nominalVoltage -> NadSceneGraphBuilder.getBaseVoltageClass(baseVoltagesConfig, nominalVoltage));
+    }
+
+    /**
+     * Estimates the cost of the generation of the NAD from its resolved VLs, without drawing it, so that the clients can warn
+     * or filter the VLs by nominal voltage before the generation. The clipping to the bounding box is not taken into account, as it
+     * needs the positions of the VLs.
+     */
+    @Transactional(readOnly = true)
+    public NadCostEstimation estimateNetworkAreaDiagram(UUID networkUuid, String variantId, NadRequestInfos nadRequestInfos) {
+        NadGenerationContext nadGenerationContext = resolveVoltageLevels(networkUuid, variantId,
+            DiagramUtils.getNetwork(networkUuid, variantId, networkStoreService, PreloadingStrategy.COLLECTION), nadRequestInfos);
+        applyNominalVoltageFilter(nadGenerationContext, nadRequestInfos);
+
+        VoltageLevelAdjacencyIndex adjacencyIndex = nadGenerationContext.getAdjacencyIndex();
+        BitSet voltageLevels = adjacencyIndex.toBitSet(nadGenerationContext.getVoltageLevelIds());
+        int nbVoltageLevels = voltageLevels.cardinality();
+        int nbBranches = adjacencyIndex.countEdges(voltageLevels);
+        boolean maxVoltageLevelsExceeded = nbVoltageLevels > maxVoltageLevels;
+        // The degraded mode only draws the highest voltage VLs
+        NadCostModel.Estimation estimation = maxVoltageLevelsExceeded && maxVoltageLevelsDegradedMode
+            ? nadCostModel.estimate(maxVoltageLevels, (int) ((long) nbBranches * maxVoltageLevels / nbVoltageLevels))
+            : nadCostModel.estimate(nbVoltageLevels, nbBranches);
+        return NadCostEstimation.builder()
+            .nbVoltageLevels(nbVoltageLevels)
+            .nbBranches(nbBranches)
+            .maxVoltageLevels(maxVoltageLevels)
+            .maxVoltageLevelsExceeded(maxVoltageLevelsExceeded)
+            .estimatedDurationMillis(estimation.durationMillis())
+            .estimatedSizeBytes(estimation.sizeBytes())
+            .build();
+    }
+
+    /**
+     * Resolves the VLs of the request from the NAD config, the filter, the lists and the expansions, the VLs not in the network
+     * being removed.
+     */
+    private NadGenerationContext resolveVoltageLevels(UUID networkUuid, String variantId, Network network, NadRequestInfos nadRequestInfos) {
         NadGenerationContext.NadGenerationContextBuilder nadGenerationContextBuilder = NadGenerationContext.builder()
             .networkUuid(networkUuid)
             .variantId(variantId)
-            .network(DiagramUtils.getNetwork(networkUuid, variantId, networkStoreService, PreloadingStrategy.COLLECTION));
+            .network(network);
 
         // Initial VLs
         NadGenerationContext nadGenerationContext = initVoltageLevelsAndPositions(nadGenerationContextBuilder, nadRequestInfos);
 
-        // Modify the initial VLs
+        Set<String> filterVoltageLevelIds = nadRequestInfos.getFilterUuid() != null
+            ? getVoltageLevelIdsFromFilter(networkUuid, variantId, nadRequestInfos.getFilterUuid())
+            : Set.of();
+
+        // The cached index is outdated when a requested VL unknown to it is in the network, or when a selected VL is no longer in the
+        // network, it is then rebuilt and the VLs selected again
+        List<Collection<String>> requestedVoltageLevelIds = List.of(nadGenerationContext.getVoltageLevelIds(), filterVoltageLevelIds,
+            nadRequestInfos.getVoltageLevelIds(), nadRequestInfos.getVoltageLevelToExpandIds(), nadRequestInfos.getVoltageLevelToExpandDepths().keySet());
+        VoltageLevelAdjacencyIndex adjacencyIndex = getAdjacencyIndex(nadGenerationContext);
+        BitSet voltageLevels = selectVoltageLevels(nadGenerationContext, filterVoltageLevelIds, nadRequestInfos, adjacencyIndex);
+        if (isOutdated(adjacencyIndex, network, requestedVoltageLevelIds, voltageLevels)) {
+            adjacencyIndex = voltageLevelAdjacencyService.rebuildIndex(networkUuid, variantId, network);
+            nadGenerationContext.setAdjacencyIndex(adjacencyIndex);
+            voltageLevels = selectVoltageLevels(nadGenerationContext, filterVoltageLevelIds, nadRequestInfos, adjacencyIndex);
+        }
+
+        nadGenerationContext.setVoltageLevelIds(adjacencyIndex.toVoltageLevelIds(voltageLevels));
+        return nadGenerationContext;
+    }
+
+    /**
+     * Modifies the initial VLs, as sets of the dense VL indices of the network. The VLs not in the index are removed along the way.
+     */
+    private BitSet selectVoltageLevels(NadGenerationContext nadGenerationContext, Set<String> filterVoltageLevelIds, NadRequestInfos nadRequestInfos,
+                                       VoltageLevelAdjacencyIndex adjacencyIndex) {
         // This order is important
+        BitSet voltageLevels = adjacencyIndex.toBitSet(nadGenerationContext.getVoltageLevelIds());
 
         // Add VLs from filter
-        if (nadRequestInfos.getFilterUuid() != null) {
-            nadGenerationContext.getVoltageLevelIds().addAll(getVoltageLevelIdsFromFilter(networkUuid, variantId, nadRequestInfos.getFilterUuid()));
-        }
+        voltageLevels.or(adjacencyIndex.toBitSet(filterVoltageLevelIds));
 
         // Add VLs from list
-        nadGenerationContext.getVoltageLevelIds().addAll(nadRequestInfos.getVoltageLevelIds());
+        voltageLevels.or(adjacencyIndex.toBitSet(nadRequestInfos.getVoltageLevelIds()));
 
         // Remove VLs from list
-        nadGenerationContext.getVoltageLevelIds().removeAll(nadRequestInfos.getVoltageLevelToOmitIds());
+        voltageLevels.andNot(adjacencyIndex.toBitSet(nadRequestInfos.getVoltageLevelToOmitIds()));
 
         // Add VLs from expansion
         // Expansion takes priority over remove
-        if (!nadRequestInfos.getVoltageLevelToExpandIds().isEmpty()) {
-            nadGenerationContext.getVoltageLevelIds().addAll(getExpandedVoltageLevelIds(nadRequestInfos.getVoltageLevelToExpandIds(), nadGenerationContext.getNetwork()));
+        if (!nadRequestInfos.getVoltageLevelToExpandIds().isEmpty() || !nadRequestInfos.getVoltageLevelToExpandDepths().isEmpty()) {
+            voltageLevels.or(getExpandedVoltageLevels(nadRequestInfos, adjacencyIndex));
+        }
+        return voltageLevels;
+    }
+
+    /**
+     * Only the network lookups that cannot be avoided are made: the requested VLs known to the index are not looked up, and the
+     * selected VLs are looked up once, as they are drawn.
+     */
+    private static boolean isOutdated(VoltageLevelAdjacencyIndex adjacencyIndex, Network network, List<Collection<String>> requestedVoltageLevelIds,
+                                      BitSet selectedVoltageLevels) {
+        boolean added = requestedVoltageLevelIds.stream()
+            .flatMap(Collection::stream)
+            .anyMatch(voltageLevelId -> adjacencyIndex.getIndex(voltageLevelId) < 0 && network.getVoltageLevel(voltageLevelId) != null);
+        if (added) {
+            return true;
+        }
+        for (int i = selectedVoltageLevels.nextSetBit(0); i >= 0; i = selectedVoltageLevels.nextSetBit(i + 1)) {
+            if (network.getVoltageLevel(adjacencyIndex.getVoltageLevelId(i)) == null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Reduces the resolved VLs to the final VLs of the generation, with their configured positions.
+     */
+    private void reduceVoltageLevels(NadGenerationContext nadGenerationContext, NadRequestInfos nadRequestInfos) {
+        // Hide the VLs under the requested nominal voltage
+        applyNominalVoltageFilter(nadGenerationContext, nadRequestInfos);
+
+        // Configured positions are only looked up once the final VLs are known
+        if (nadGenerationContext.getNadPositionsGenerationMode() == NadPositionsGenerationMode.CONFIGURED) {
+            nadGenerationContext.setPositions(getConfiguredPositions(nadGenerationContext));
+            nadGenerationContext.setFixedLayoutPositions(nadGenerationContext.getConfiguredPositionsIndex().fixedLayoutPositions());
         }
 
-        // Remove non existent VLs
-        removeNonExistentVLs(nadGenerationContext);
+        // Keep the visible VLs only, the geographical coordinates are not diagram coordinates
+        if (nadRequestInfos.getBoundingBox() != null && nadGenerationContext.getNadPositionsGenerationMode() != NadPositionsGenerationMode.GEOGRAPHICAL_COORDINATES) {
+            clipToBoundingBox(nadGenerationContext, nadRequestInfos.getBoundingBox());
+        }
 
         // Maximum number of VLs
         int nbVoltageLevels = nadGenerationContext.getVoltageLevelIds().size();
-        if (nbVoltageLevels > maxVoltageLevels) {
+        if (nbVoltageLevels > maxVoltageLevels && maxVoltageLevelsDegradedMode) {
+            keepHighestVoltageLevels(nadGenerationContext);
+        } else if (nbVoltageLevels > maxVoltageLevels) {
             throw new DiagramBusinessException(MAX_VOLTAGE_LEVELS_DISPLAYED, "You need to reduce the number of voltage levels to be displayed in the network area diagram", Map.of("nbVoltageLevels",
                     nbVoltageLevels, "maxVoltageLevels", maxVoltageLevels));
         }
 
-        // Build Powsybl parameters
+        // The VLs are final, the filter of the drawing is built once
+        updateVoltageLevelFilter(nadGenerationContext);
+    }
+
+    /**
+     * Positions the final VLs, except for the geographical layout.
+     */
+    private void layoutVoltageLevels(NadGenerationContext nadGenerationContext, NadRequestInfos nadRequestInfos) {
+        setLayoutBudget(nadGenerationContext, nadRequestInfos);
+
+        // Place the VLs without position on the server side, the NAD layout then only places the remaining nodes. The BASIC layout
+        // only being bounded in iterations, the requests bounded in time are placed on the server side too
+        if (nadGenerationContext.getNadPositionsGenerationMode() != NadPositionsGenerationMode.GEOGRAPHICAL_COORDINATES
+            && (Objects.requireNonNullElse(nadRequestInfos.getLayoutAlgorithm(), defaultLayoutAlgorithm) == NadLayoutAlgorithm.BARNES_HUT
+                || !nadRequestInfos.getSeedPositions().isEmpty() || nadRequestInfos.getLayoutTimeoutMillis() != null)) {
+            applyBarnesHutLayout(nadGenerationContext, nadRequestInfos.getSeedPositions());
+        }
+    }
+
+    private void buildGraphicalParameters(NadGenerationContext nadGenerationContext, NadRequestInfos nadRequestInfos) {
         List<BaseVoltageConfig> baseVoltagesConfigInfos = voltagesConfig.getBaseVoltagesConfigInfos();
         buildGraphicalParameters(nadGenerationContext, nadRequestInfos.getCurrentLimitViolationsInfos(), baseVoltagesConfigInfos, nadRequestInfos.getLanguage());
+    }
+
+    /**
+     * Keeps the VLs positioned inside the bounding box, and the ends of the branches crossing it so that these branches are still drawn.
+     * The VLs without position cannot be located and are removed. The branches are taken from the adjacency index, the legs of the
+     * three windings transformers being approximated by the segments between their VLs.
+     */
+    private void clipToBoundingBox(NadGenerationContext nadGenerationContext, BoundingBox boundingBox) {
+        checkBoundingBox(boundingBox);
+        Map<String, NadVoltageLevelPositionInfos> positionsByVoltageLevelId = nadGenerationContext.getPositions().stream()
+            .filter(position -> position.getXPosition() != null && position.getYPosition() != null)
+            .collect(Collectors.toMap(NadVoltageLevelPositionInfos::getVoltageLevelId, Function.identity(), (first, last) -> last));
+
+        Set<String> insideVoltageLevelIds = new HashSet<>();
+        for (String voltageLevelId : nadGenerationContext.getVoltageLevelIds()) {
+            NadVoltageLevelPositionInfos position = positionsByVoltageLevelId.get(voltageLevelId);
+            if (position != null && boundingBox.contains(position.getXPosition(), position.getYPosition())) {
+                insideVoltageLevelIds.add(voltageLevelId);
+            }
+        }
+
+        // The branches with both ends outside of the bounding box may still cross it, only the neighbours of the located outside
+        // VLs are looked at
+        VoltageLevelAdjacencyIndex adjacencyIndex = getAdjacencyIndex(nadGenerationContext);
+        BitSet outsideVoltageLevels = new BitSet(adjacencyIndex.size());
+        for (String voltageLevelId : nadGenerationContext.getVoltageLevelIds()) {
+            int index = adjacencyIndex.getIndex(voltageLevelId);
+            if (index >= 0 && !insideVoltageLevelIds.contains(voltageLevelId) && positionsByVoltageLevelId.containsKey(voltageLevelId)) {
+                outsideVoltageLevels.set(index);
+            }
+        }
+        Set<String> crossingVoltageLevelIds = new HashSet<>();
+        for (int i = outsideVoltageLevels.nextSetBit(0); i >= 0; i = outsideVoltageLevels.nextSetBit(i + 1)) {
+            NadVoltageLevelPositionInfos position1 = positionsByVoltageLevelId.get(adjacencyIndex.getVoltageLevelId(i));
+            for (int k = adjacencyIndex.getNeighbourStart(i); k < adjacencyIndex.getNeighbourEnd(i); k++) {
+                int j = adjacencyIndex.getNeighbour(k);
+                // Each pair of VLs is tested from its lowest end only
+                if (j <= i || !outsideVoltageLevels.get(j)) {
+                    continue;
+                }
+                NadVoltageLevelPositionInfos position2 = positionsByVoltageLevelId.get(adjacencyIndex.getVoltageLevelId(j));
+                if (boundingBox.intersectsSegment(position1.getXPosition(), position1.getYPosition(), position2.getXPosition(), position2.getYPosition())) {
+                    crossingVoltageLevelIds.add(adjacencyIndex.getVoltageLevelId(i));
+                    crossingVoltageLevelIds.add(adjacencyIndex.getVoltageLevelId(j));
+                }
+            }
+        }
+
+        insideVoltageLevelIds.addAll(crossingVoltageLevelIds);
+        nadGenerationContext.setVoltageLevelIds(insideVoltageLevelIds);
+    }
 
-        return processSvgAndMetadata(drawSvgAndBuildMetadata(nadGenerationContext));
+    /**
+     * Filters out the VLs under the requested minimum nominal voltage, if any. The hidden VLs are not aggregated into the kept ones,
+     * their branches are not drawn.
+     */
+    private void applyNominalVoltageFilter(NadGenerationContext nadGenerationContext, NadRequestInfos nadRequestInfos) {
+        Double minNominalVoltage = nadRequestInfos.getMinNominalVoltage();
+        if (minNominalVoltage == null) {
+            return;
+        }
+        Network network = nadGenerationContext.getNetwork();
+        List<VoltageLevel> voltageLevels = nadGenerationContext.getVoltageLevelIds().stream()
+            .map(network::getVoltageLevel)
+            .toList();
+        Set<String> keptVoltageLevelIds = voltageLevels.stream()
+            .filter(voltageLevel -> voltageLevel.getNominalV() >= minNominalVoltage)
+            .map(VoltageLevel::getId)
+            .collect(Collectors.toSet());
+        nadGenerationContext.getAdditionalMetadata().put("nbHiddenVoltageLevels", voltageLevels.size() - keptVoltageLevelIds.size());
+        nadGenerationContext.setVoltageLevelIds(keptVoltageLevelIds);
+    }
+
+    /**
+     * Keeps the maxVoltageLevels VLs of highest nominal voltage, the dropped VLs are reported in the additional metadata.
+     */
+    private void keepHighestVoltageLevels(NadGenerationContext nadGenerationContext) {
+        Network network = nadGenerationContext.getNetwork();
+        List<String> orderedVoltageLevelIds = nadGenerationContext.getVoltageLevelIds().stream()
+            .map(network::getVoltageLevel)
+            .sorted(Comparator.comparingDouble(VoltageLevel::getNominalV).reversed().thenComparing(VoltageLevel::getId))
+            .map(VoltageLevel::getId)
+            .toList();
+        List<String> droppedVoltageLevelIds = orderedVoltageLevelIds.subList(maxVoltageLevels, orderedVoltageLevelIds.size());
+        nadGenerationContext.getAdditionalMetadata().put("nbDroppedVoltageLevels", droppedVoltageLevelIds.size());
+        nadGenerationContext.getAdditionalMetadata().put("droppedVoltageLevels", droppedVoltageLevelIds);
+        nadGenerationContext.setVoltageLevelIds(new HashSet<>(orderedVoltageLevelIds.subList(0, maxVoltageLevels)));
     }
 
-    private void removeNonExistentVLs(NadGenerationContext nadGenerationContext) {
-        nadGenerationContext.setVoltageLevelIds(nadGenerationContext.getVoltageLevelIds().stream()
-            .filter(vl -> nadGenerationContext.getNetwork().getVoltageLevel(vl) != null)
-            .collect(Collectors.toSet()));
+    private void updateVoltageLevelFilter(NadGenerationContext nadGenerationContext) {
         nadGenerationContext.setVoltageLevelFilter(
             VoltageLevelFilter.createVoltageLevelsFilter(
                 nadGenerationContext.getNetwork(),
@@ -289,8 +872,14 @@ class NetworkAreaDiagramService {
             } else { // Init from list without positions
                 nadGenerationContextBuilder.voltageLevelIds(new HashSet<>(nadRequestInfos.getVoltageLevelIds()));
                 nadGenerationContextBuilder.nadPositionsGenerationMode(nadRequestInfos.getNadPositionsGenerationMode());
+                nadGenerationContextBuilder.nadPositionsConfigUuid(nadRequestInfos.getNadPositionsConfigUuid());
                 if (nadRequestInfos.getNadPositionsGenerationMode() == NadPositionsGenerationMode.CONFIGURED) {
-                    initFromConfiguredPositions(nadGenerationContextBuilder);
+                    // Resolved once, so that the whole generation uses the same active generation of the positions
+                    ConfiguredPositionsIndex configuredPositionsIndex = nadConfiguredPositionService.getIndex(nadRequestInfos.getNadPositionsConfigUuid());
+                    if (configuredPositionsIndex.isEmpty()) {
+                        throw new DiagramBusinessException(NO_CONFIGURED_POSITION, "No configured positions found!");
+                    }
+                    nadGenerationContextBuilder.configuredPositionsIndex(configuredPositionsIndex);
                 }
             }
         }
@@ -312,17 +901,16 @@ class NetworkAreaDiagramService {
                 .setCssLocation(SvgParameters.CssLocation.EXTERNAL_NO_IMPORT)
                 .setLanguageTag(language);
 
-        LayoutParameters layoutParameters = new LayoutParameters();
+        // Only the iterations of the NAD layout can be bounded
+        LayoutParameters layoutParameters = new LayoutParameters()
+                .setMaxSteps(nadGenerationContext.getLayoutMaxIterations());
         NadParameters nadParameters = new NadParameters();
         nadParameters.setSvgParameters(svgParameters);
         nadParameters.setLayoutParameters(layoutParameters);
         Map<String, String> limitViolationStyles = DiagramUtils.createLimitViolationStyles(currentLimitViolationInfos, StyleProvider.LINE_OVERLOADED_CLASS);
         nadParameters.setLabelProviderFactory(NadLabelProvider::new);
 
-        baseVoltagesConfigInfos.forEach(vl -> vl.setProfile(DiagramConstants.BASE_VOLTAGES_DEFAULT_PROFILE));
-        BaseVoltagesConfig baseVoltagesConfig = new BaseVoltagesConfig();
-        baseVoltagesConfig.setBaseVoltages(baseVoltagesConfigInfos);
-        baseVoltagesConfig.setDefaultProfile(DiagramConstants.BASE_VOLTAGES_DEFAULT_PROFILE);
+        BaseVoltagesConfig baseVoltagesConfig = createBaseVoltagesConfig(baseVoltagesConfigInfos);
 
         nadParameters.setStyleProviderFactory(n -> new NadLimitStyleProvider(
                 nadGenerationContext.getNetwork(),
@@ -340,49 +928,58 @@ class NetworkAreaDiagramService {
         nadGenerationContext.setNadParameters(nadParameters);
     }
 
+    private static BaseVoltagesConfig createBaseVoltagesConfig(List<BaseVoltageConfig> baseVoltagesConfigInfos) {
+        baseVoltagesConfigInfos.forEach(vl -> vl.setProfile(DiagramConstants.BASE_VOLTAGES_DEFAULT_PROFILE));
+        BaseVoltagesConfig baseVoltagesConfig = new BaseVoltagesConfig();
+        baseVoltagesConfig.setBaseVoltages(baseVoltagesConfigInfos);
+        baseVoltagesConfig.setDefaultProfile(DiagramConstants.BASE_VOLTAGES_DEFAULT_PROFILE);
+        return baseVoltagesConfig;
+    }
+
     private void initFromNadConfig(NadGenerationContext.NadGenerationContextBuilder nadGenerationContextBuilder, UUID nadConfigUuid) {
         NadConfigInfos nadConfigInfos = getNetworkAreaDiagramConfig(nadConfigUuid);
         nadGenerationContextBuilder.voltageLevelIds(new HashSet<>(nadConfigInfos.getVoltageLevelIds()));
         nadGenerationContextBuilder.positions(new ArrayList<>(nadConfigInfos.getPositions()));
+        nadGenerationContextBuilder.fixedLayoutPositions(nadConfigFixedLayoutPositions.get(new NadConfigVersion(nadConfigUuid, nadConfigInfos.getVersion()),
+            key -> FixedLayoutPositions.of(nadConfigInfos.getPositions())));
         nadGenerationContextBuilder.scalingFactor(nadConfigInfos.getScalingFactor());
+        nadGenerationContextBuilder.nadConfigVersion(nadConfigInfos.getVersion());
     }
 
-    private void initFromConfiguredPositions(NadGenerationContext.NadGenerationContextBuilder nadGenerationContextBuilder) {
-        List<NadVoltageLevelConfiguredPositionEntity> nadVoltageLevelPositionInfos = nadVoltageLevelConfiguredPositionRepository.findAll();
-        if (nadVoltageLevelPositionInfos.isEmpty()) {
-            throw new DiagramBusinessException(NO_CONFIGURED_POSITION, "No configured positions found!");
-        }
-        nadGenerationContextBuilder.positions(
-            nadVoltageLevelPositionInfos
-                .stream()
-                .map(NadVoltageLevelConfiguredPositionEntity::toDto)
-                .toList());
+    private List<NadVoltageLevelPositionInfos> getConfiguredPositions(NadGenerationContext nadGenerationContext) {
+        // The neighbouring VLs are included so that the half lines towards them keep their configured direction
+        Set<String> voltageLevelIds = getAdjacencyIndex(nadGenerationContext).getVoltageLevelIdsWithinDepth(nadGenerationContext.getVoltageLevelIds(), 1);
+        return nadGenerationContext.getConfiguredPositionsIndex().getPositions(voltageLevelIds);
     }
 
     private LayoutFactory prepareGeographicalLayoutFactory(NadGenerationContext nadGenerationContext) {
 
         // In order to draw half the lines that connect to the out of bound voltage levels, we have to know their coordinates.
         // To do so, we create a filter with a depth=1 that will include these out of bound voltage levels.
-        List<VoltageLevel> extendedVoltageLevelFilter = VoltageLevelFilter.createVoltageLevelsDepthFilter(
-                nadGenerationContext.getNetwork(),
-                new ArrayList<>(nadGenerationContext.getVoltageLevelIds()),
-                1).voltageLevels().stream().toList();
+        VoltageLevelAdjacencyIndex adjacencyIndex = getAdjacencyIndex(nadGenerationContext);
+        Set<String> extendedVoltageLevelIds = adjacencyIndex.getVoltageLevelIdsWithinDepth(nadGenerationContext.getVoltageLevelIds(), 1);
 
-        List<Substation> extendedSubstations = extendedVoltageLevelFilter.stream()
-                .map(VoltageLevel::getNullableSubstation)
-                .filter(Objects::nonNull)
+        List<Substation> extendedSubstations = adjacencyIndex.getSubstationIds(extendedVoltageLevelIds).stream()
+                .map(nadGenerationContext.getNetwork()::getSubstation)
                 .toList();
 
-        // Watch out : assignGeoDataCoordinates also modifies the network
-        Map<String, Coordinate> substationGeoDataMap = assignGeoDataCoordinates(nadGenerationContext, extendedSubstations);
+        Map<String, Coordinate> substationGeoDataMap;
+        if (nadGenerationContext.getSubstationGeoData() != null) {
+            // Already fetched and assigned to the network for a batch of generations
+            substationGeoDataMap = nadGenerationContext.getSubstationGeoData();
+        } else {
+            // Watch out : assignGeoDataCoordinates also modifies the network
+            substationGeoDataMap = assignGeoDataCoordinates(nadGenerationContext, extendedSubstations);
+            placeSubstationsWithoutCoordinates(nadGenerationContext, extendedSubstations);
+        }
 
         if (nadGenerationContext.getScalingFactor() == null || nadGenerationContext.getScalingFactor() <= 0) {
             // Let's calculate the scaling factor
-            List<String> substations = nadGenerationContext.getVoltageLevelFilter().voltageLevels().stream()
+            Set<String> substations = nadGenerationContext.getVoltageLevelFilter().voltageLevels().stream()
                             .map(VoltageLevel::getNullableSubstation)
                             .filter(Objects::nonNull)
                             .map(Substation::getId)
-                            .toList();
+                            .collect(Collectors.toSet());
 
             List<Coordinate> coordinatesForScaling = substationGeoDataMap.entrySet().stream()
                     .filter(entry -> substations.contains(entry.getKey()))
@@ -394,25 +991,183 @@ class NetworkAreaDiagramService {
         return new GeographicalLayoutFactory(nadGenerationContext.getNetwork(), nadGenerationContext.getScalingFactor(), RADIUS_FACTOR, BasicForceLayout::new);
     }
 
-    private LayoutFactory prepareFixedLayoutFactory(NadGenerationContext nadGenerationContext) {
-        Map<String, Point> positionsForFixedLayout = new HashMap<>();
-        Map<String, TextPosition> textNodesPositionsForFixedLayout = new HashMap<>();
+    /**
+     * Places the substations unknown to the geo data server at the centroid of their positioned neighbouring substations, weighted
+     * by the number of VLs connecting them, so that the force layout of the geographical layout has nothing or almost nothing to place.
+     * The placed substations are neighbours of the next ones, so the placement goes on until no substation can be placed.
+     * The substations with the same single positioned neighbour are spread on a small circle around it, in the order of their ids,
+     * to overlap neither the neighbour nor each other.
+     */
+    private void placeSubstationsWithoutCoordinates(NadGenerationContext nadGenerationContext, List<Substation> substations) {
+        VoltageLevelAdjacencyIndex adjacencyIndex = getAdjacencyIndex(nadGenerationContext);
+        List<Substation> substationsToPlace = substations.stream()
+            .filter(substation -> substation.getExtension(SubstationPosition.class) == null)
+            .collect(Collectors.toCollection(ArrayList::new));
+        boolean placed = true;
+        while (!substationsToPlace.isEmpty() && placed) {
+            placed = false;
+            Map<Substation, com.powsybl.iidm.network.extensions.Coordinate> centroids = new LinkedHashMap<>();
+            Map<String, List<Substation>> substationsBySingleNeighbour = new HashMap<>();
+            for (Substation substation : substationsToPlace) {
+                double sumLatitudes = 0;
+                double sumLongitudes = 0;
+                Set<String> neighbourSubstationIds = new HashSet<>();
+                int weight = 0;
+                for (VoltageLevel voltageLevel : substation.getVoltageLevels()) {
+                    int index = adjacencyIndex.getIndex(voltageLevel.getId());
+                    if (index < 0) {
+                        continue;
+                    }
+                    for (int i = adjacencyIndex.getNeighbourStart(index); i < adjacencyIndex.getNeighbourEnd(index); i++) {
+                        String neighbourSubstationId = adjacencyIndex.getSubstationId(adjacencyIndex.getNeighbour(i));
+                        Substation neighbourSubstation = neighbourSubstationId != null ? nadGenerationContext.getNetwork().getSubstation(neighbourSubstationId) : null;
+                        SubstationPosition position = neighbourSubstation != null ? neighbourSubstation.getExtension(SubstationPosition.class) : null;
+                        if (position != null && neighbourSubstation != substation) {
+                            sumLatitudes += position.getCoordinate().getLatitude();
+                            sumLongitudes += position.getCoordinate().getLongitude();
+                            neighbourSubstationIds.add(neighbourSubstationId);
+                            weight++;
+                        }
+                    }
+                }
+                if (weight > 0) {
+                    centroids.put(substation, new com.powsybl.iidm.network.extensions.Coordinate(sumLatitudes / weight, sumLongitudes / weight));
+                    if (neighbourSubstationIds.size() == 1) {
+                        substationsBySingleNeighbour.computeIfAbsent(neighbourSubstationIds.iterator().next(), id -> new ArrayList<>()).add(substation);
+                    }
+                }
+            }
+            substationsBySingleNeighbour.values().forEach(group -> {
+                group.sort(Comparator.comparing(Substation::getId));
+                for (int k = 0; k < group.size(); k++) {
+                    double angle = 2 * Math.PI * k / group.size();
+                    com.powsybl.iidm.network.extensions.Coordinate neighbour = centroids.get(group.get(k));
+                    centroids.put(group.get(k), new com.powsybl.iidm.network.extensions.Coordinate(
+                        neighbour.getLatitude() + SINGLE_NEIGHBOUR_SHIFT * Math.sin(angle), neighbour.getLongitude() + SINGLE_NEIGHBOUR_SHIFT * Math.cos(angle)));
+                }
+            });
+            // Placed after the pass, so that the result does not depend on the order of the substations
+            centroids.forEach((substation, coordinate) -> substation.newExtension(SubstationPositionAdder.class)
+                .withCoordinate(coordinate)
+                .add());
+            placed = !centroids.isEmpty();
+            substationsToPlace.removeAll(centroids.keySet());
+        }
+    }
 
-        nadGenerationContext.getPositions().forEach(info -> {
-            positionsForFixedLayout.put(
-                    info.getVoltageLevelId(),
-                    new Point(info.getXPosition(), info.getYPosition())
-            );
-            textNodesPositionsForFixedLayout.put(
-                    info.getVoltageLevelId(),
-                    new TextPosition(
-                            new Point(info.getXLabelPosition(), info.getYLabelPosition()),
-                            new Point(0, 0) // We do not display the edge connections
-                    )
-            );
-        });
+    /**
+     * The requested budget is bounded by the configured one. Unless requested, the time budget grows with the number of VLs.
+     */
+    private void setLayoutBudget(NadGenerationContext nadGenerationContext, NadRequestInfos nadRequestInfos) {
+        int maxIterations = nadRequestInfos.getLayoutMaxIterations() != null
+            ? Math.min(nadRequestInfos.getLayoutMaxIterations(), layoutMaxIterations)
+            : layoutMaxIterations;
+        Duration timeout = nadRequestInfos.getLayoutTimeoutMillis() != null
+            ? Duration.ofMillis(nadRequestInfos.getLayoutTimeoutMillis())
+            : layoutTimeout.plus(layoutTimeoutPerVoltageLevel.multipliedBy(nadGenerationContext.getVoltageLevelIds().size()));
+        if (maxIterations < 0 || timeout.isNegative()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "The layout budget must be positive");
+        }
+        nadGenerationContext.setLayoutMaxIterations(maxIterations);
+        nadGenerationContext.setLayoutTimeout(timeout.compareTo(layoutMaxTimeout) > 0 ? layoutMaxTimeout : timeout);
+    }
+
+    /**
+     * Positions the VLs without position with a Barnes-Hut force layout of the VL graph, the positioned VLs being fixed.
+     * The seeded VLs are warm started from their seeds, only moving slightly while the new VLs settle.
+     * The spring length is the median distance between the positioned connected VLs, so that the new VLs match the scale of the others.
+     */
+    private void applyBarnesHutLayout(NadGenerationContext nadGenerationContext, List<NadVoltageLevelPositionInfos> seedPositions) {
+        VoltageLevelAdjacencyIndex adjacencyIndex = getAdjacencyIndex(nadGenerationContext);
+        // Sized from the VLs to be drawn, not from the whole network
+        int[] voltageLevels = nadGenerationContext.getVoltageLevelIds().stream()
+            .mapToInt(adjacencyIndex::getIndex)
+            .filter(voltageLevel -> voltageLevel >= 0)
+            .sorted()
+            .distinct()
+            .toArray();
+        int nbNodes = voltageLevels.length;
+        Map<Integer, Integer> nodeByVoltageLevel = HashMap.newHashMap(nbNodes);
+        int maxNeighbours = 0;
+        for (int node = 0; node < nbNodes; node++) {
+            nodeByVoltageLevel.put(voltageLevels[node], node);
+            maxNeighbours += adjacencyIndex.getNeighbourEnd(voltageLevels[node]) - adjacencyIndex.getNeighbourStart(voltageLevels[node]);
+        }
+
+        double[] xs = new double[nbNodes];
+        double[] ys = new double[nbNodes];
+        Arrays.fill(xs, Double.NaN);
+        Arrays.fill(ys, Double.NaN);
+        BitSet fixedNodes = new BitSet(nbNodes);
+        for (NadVoltageLevelPositionInfos position : nadGenerationContext.getPositions()) {
+            int node = nodeByVoltageLevel.getOrDefault(adjacencyIndex.getIndex(position.getVoltageLevelId()), -1);
+            if (node >= 0 && position.getXPosition() != null && position.getYPosition() != null) {
+                xs[node] = position.getXPosition();
+                ys[node] = position.getYPosition();
+                fixedNodes.set(node);
+            }
+        }
+        if (fixedNodes.cardinality() == nbNodes) {
+            return;
+        }
+        BitSet seededNodes = new BitSet(nbNodes);
+        for (NadVoltageLevelPositionInfos seed : seedPositions) {
+            int node = nodeByVoltageLevel.getOrDefault(adjacencyIndex.getIndex(seed.getVoltageLevelId()), -1);
+            if (node >= 0 && !fixedNodes.get(node) && seed.getXPosition() != null && seed.getYPosition() != null) {
+                xs[node] = seed.getXPosition();
+                ys[node] = seed.getYPosition();
+                seededNodes.set(node);
+            }
+        }
+
+        // Graph of the VLs to be drawn
+        int[] neighbourStarts = new int[nbNodes + 1];
+        int[] neighbours = new int[maxNeighbours];
+        List<Double> placedEdgeLengths = new ArrayList<>();
+        int nbNeighbours = 0;
+        for (int node = 0; node < nbNodes; node++) {
+            neighbourStarts[node] = nbNeighbours;
+            for (int i = adjacencyIndex.getNeighbourStart(voltageLevels[node]); i < adjacencyIndex.getNeighbourEnd(voltageLevels[node]); i++) {
+                int neighbour = nodeByVoltageLevel.getOrDefault(adjacencyIndex.getNeighbour(i), -1);
+                if (neighbour >= 0) {
+                    neighbours[nbNeighbours++] = neighbour;
+                    if (node < neighbour && !Double.isNaN(xs[node]) && !Double.isNaN(xs[neighbour])) {
+                        placedEdgeLengths.add(Math.hypot(xs[node] - xs[neighbour], ys[node] - ys[neighbour]));
+                    }
+                }
+            }
+        }
+        neighbourStarts[nbNodes] = nbNeighbours;
+        double springLength = DEFAULT_LAYOUT_SPRING_LENGTH;
+        if (!placedEdgeLengths.isEmpty()) {
+            Collections.sort(placedEdgeLengths);
+            springLength = Math.max(placedEdgeLengths.get(placedEdgeLengths.size() / 2), 1);
+        }
 
-        return new FixedLayoutFactory(positionsForFixedLayout, textNodesPositionsForFixedLayout, BasicForceLayout::new);
+        BarnesHutForceLayout layout = new BarnesHutForceLayout(neighbourStarts, neighbours, springLength, ForkJoinPool.commonPool());
+        BarnesHutForceLayout.Result result = layout.layout(xs, ys, fixedNodes, seededNodes,
+            nadGenerationContext.getLayoutMaxIterations(), nadGenerationContext.getLayoutTimeout());
+        nadGenerationContext.getAdditionalMetadata().put("layoutIterations", result.nbIterations());
+        nadGenerationContext.getAdditionalMetadata().put("layoutConverged", result.converged());
+
+        List<NadVoltageLevelPositionInfos> positions = new ArrayList<>(nadGenerationContext.getPositions());
+        for (int node = fixedNodes.nextClearBit(0); node < nbNodes; node = fixedNodes.nextClearBit(node + 1)) {
+            // Without label position, the NAD layout places the label
+            positions.add(NadVoltageLevelPositionInfos.builder()
+                .voltageLevelId(adjacencyIndex.getVoltageLevelId(voltageLevels[node]))
+                .xPosition(result.xs()[node])
+                .yPosition(result.ys()[node])
+                .build());
+        }
+        nadGenerationContext.setPositions(positions);
+    }
+
+    private LayoutFactory prepareFixedLayoutFactory(NadGenerationContext nadGenerationContext) {
+        // The prepared positions are only copied when positions were added to them, by the server side layout
+        FixedLayoutPositions fixedLayoutPositions = nadGenerationContext.getFixedLayoutPositions() != null
+            ? nadGenerationContext.getFixedLayoutPositions().with(nadGenerationContext.getPositions())
+            : FixedLayoutPositions.of(nadGenerationContext.getPositions());
+        return new FixedLayoutFactory(fixedLayoutPositions.positions(), fixedLayoutPositions.textPositions(), BasicForceLayout::new);
     }
 
     private String processSvgAndMetadata(SvgAndMetadata svgAndMetadata) {
@@ -430,11 +1185,22 @@ class NetworkAreaDiagramService {
         }
     }
 
+    private String processSceneGraph(NadSceneGraph sceneGraph, Map<String, Object> additionalMetadata) {
+        try {
+            return objectMapper.writeValueAsString(
+                    objectMapper.createObjectNode()
+                            .putPOJO(SCENE_GRAPH, sceneGraph)
+                            .putPOJO(ADDITIONAL_METADATA, additionalMetadata));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException("Failed to parse JSON response", e);
+        }
+    }
+
     private int calculateScalingFactor(Collection<Coordinate> coordinates) {
         if (coordinates.isEmpty()) {
             return DEFAULT_SCALING_FACTOR;
         }
-        double density = calculateDensity(coordinates);
+        double density = GeographicalDensityEstimator.estimateDensity(coordinates);
         // The value 15700 was tested to give good results across various real-world cases.
         int result = (int) Math.round(15700 * density + MIN_SCALING_FACTOR);
         if (result > MAX_SCALING_FACTOR) {
@@ -446,41 +1212,23 @@ class NetworkAreaDiagramService {
         return result;
     }
 
-    private double calculateDensity(Collection<Coordinate> coordinates) {
-        double minLat = Double.MAX_VALUE;
-        double maxLat = Double.MIN_VALUE;
-        double minLon = Double.MAX_VALUE;
-        double maxLon = Double.MIN_VALUE;
-        double gridSize = 0.5;
-        for (Coordinate coordinate : coordinates) {
-            double lat = coordinate.getLat();
-            double lon = coordinate.getLon();
-            if (lat < minLat) {
-                minLat = lat;
-            }
-            if (lat > maxLat) {
-                maxLat = lat;
-            }
-            if (lon < minLon) {
-                minLon = lon;
-            }
-            if (lon > maxLon) {
-                maxLon = lon;
-            }
+    private BitSet getExpandedVoltageLevels(@NonNull NadRequestInfos nadRequestInfos, VoltageLevelAdjacencyIndex adjacencyIndex) {
+        Map<String, Integer> depthByVoltageLevelId = new HashMap<>(nadRequestInfos.getVoltageLevelToExpandDepths());
+        if (depthByVoltageLevelId.values().stream().anyMatch(depth -> depth == null || depth < 0)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "The voltage levels expansion depths must be positive");
         }
-        double width = Math.floor(maxLat / gridSize) - Math.floor(minLat / gridSize) + gridSize;
-        double height = Math.floor(maxLon / gridSize) - Math.floor(minLon / gridSize) + gridSize;
-        return coordinates.size() / (width * height);
+        nadRequestInfos.getVoltageLevelToExpandIds().forEach(voltageLevelId -> depthByVoltageLevelId.merge(voltageLevelId, 1, Math::max));
+
+        int maxExpandedVoltageLevels = Objects.requireNonNullElse(nadRequestInfos.getMaxExpandedVoltageLevels(), Integer.MAX_VALUE);
+        return adjacencyIndex.getVoltageLevelsWithinDepths(depthByVoltageLevelId, maxExpandedVoltageLevels);
     }
 
-    private Set<String> getExpandedVoltageLevelIds(@NonNull Set<String> voltageLevelIds, Network network) {
-        if (voltageLevelIds.isEmpty()) {
-            return voltageLevelIds;
+    private VoltageLevelAdjacencyIndex getAdjacencyIndex(NadGenerationContext nadGenerationContext) {
+        if (nadGenerationContext.getAdjacencyIndex() == null) {
+            nadGenerationContext.setAdjacencyIndex(voltageLevelAdjacencyService.getIndex(
+                nadGenerationContext.getNetworkUuid(), nadGenerationContext.getVariantId(), nadGenerationContext.getNetwork()));
         }
-        return VoltageLevelFilter.createVoltageLevelsDepthFilter(network, new ArrayList<>(voltageLevelIds), 1)
-                        .voltageLevels().stream()
-                        .map(VoltageLevel::getId)
-                        .collect(Collectors.toSet());
+        return nadGenerationContext.getAdjacencyIndex();
     }
 
     private SvgAndMetadata drawSvgAndBuildMetadata(NadGenerationContext nadGenerationContext) {
@@ -503,6 +1251,21 @@ class NetworkAreaDiagramService {
         }
     }
 
+    /**
+     * Builds, lays out and routes the graph of the NAD as the SVG drawing does, then builds the scene graph from it with the style and
+     * label providers of the SVG, without writing it.
+     */
+    private NadSceneGraph drawSceneGraph(NadGenerationContext nadGenerationContext) {
+        Network network = nadGenerationContext.getNetwork();
+        NadParameters nadParameters = nadGenerationContext.getNadParameters();
+        LabelProvider labelProvider = nadParameters.getLabelProviderFactory().create(network, nadParameters.getSvgParameters());
+        Graph graph = new NetworkGraphBuilder(network, nadGenerationContext.getVoltageLevelFilter(), labelProvider,
+            nadParameters.getLayoutParameters(), nadParameters.getIdProviderFactory().create()).buildGraph();
+        nadParameters.getLayoutFactory().create().run(graph, nadParameters.getLayoutParameters());
+        nadParameters.getEdgeRouting().run(graph, nadParameters.getSvgParameters());
+        return NadSceneGraphBuilder.build(graph, nadParameters.getStyleProviderFactory().create(network), labelProvider);
+    }
+
     /**
      * Updates the network with the substation's positions in an extension and return the coordinates for further processing.
      * Note : nadGenerationContext.network is modified by reference
@@ -541,60 +1304,88 @@ class NetworkAreaDiagramService {
         metadata.put("nbVoltageLevels", nadGenerationContext.getVoltageLevelFilter().getNbVoltageLevels());
         metadata.put("voltageLevels", voltageLevelsInfos);
         metadata.put("scalingFactor", nadGenerationContext.getScalingFactor());
+        metadata.putAll(nadGenerationContext.getAdditionalMetadata());
 
         return metadata;
     }
 
     @Transactional
     public void createNadPositionsConfigFromCsv(MultipartFile file) {
+        createNadPositionsConfigFromCsv(null, file);
+    }
+
+    /**
+     * Replaces the positions of the given positions config by the ones of the csv file, a null positions config uuid
+     * designates the default positions config.
+     */
+    @Transactional
+    public void createNadPositionsConfigFromCsv(UUID positionsConfigUuid, MultipartFile file) {
         if (!CsvFileValidator.hasCSVFormat(file)) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid CSV format for NAD configured positions");
         }
 
-        List<NadVoltageLevelPositionInfos> positions;
+        // The positions are written into a staging generation, invisible to the readers until it is activated
+        UUID generationId = nadVoltageLevelConfiguredPositionRepository.createStagingGeneration(positionsConfigUuid);
+        int nbPositions;
         try {
-            positions = getPositionsFromCsv(file);
-            if (positions.isEmpty()) {
-                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "No NAD configured positions found from the csv file");
-            }
+            nbPositions = importPositionsFromCsv(file, batch -> nadVoltageLevelConfiguredPositionRepository.insertAll(generationId, batch));
         } catch (IOException e) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "The csv file is invalid for NAD configured positions", e);
         }
+        if (nbPositions == 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "No NAD configured positions found from the csv file");
+        }
 
-        nadVoltageLevelConfiguredPositionRepository.deleteAll();
-        nadVoltageLevelConfiguredPositionRepository.saveAll(positions.stream().map(NadVoltageLevelPositionInfos::toConfiguredPositionEntity).toList());
+        nadVoltageLevelConfiguredPositionRepository.activateGeneration(positionsConfigUuid, generationId);
     }
 
-    private List<NadVoltageLevelPositionInfos> parsePositions(CsvMapReader mapReader) throws IOException {
-        String[] headers = CsvFileValidator.getHeaders(mapReader);
-        if (headers.length == 0) {
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "The csv file headers are invalid for NAD configured positions");
-        }
-        List<NadVoltageLevelPositionInfos> nadVoltageLevelPositionInfos = new ArrayList<>(mapReader.getRowNumber());
-        Map<String, String> row;
-        while ((row = mapReader.read(headers)) != null) {
-            String id = row.get(CsvFileValidator.VOLTAGE_LEVEL_ID);
-            double xPosition = Double.parseDouble(row.get(CsvFileValidator.X_POSITION));
-            double yPosition = Double.parseDouble(row.get(CsvFileValidator.Y_POSITION));
-            double xLabelPosition = Double.parseDouble(row.get(CsvFileValidator.X_LABEL_POSITION));
-            double yLabelPosition = Double.parseDouble(row.get(CsvFileValidator.Y_LABEL_POSITION));
-            NadVoltageLevelPositionInfos positionInfos = NadVoltageLevelPositionInfos.builder()
-                .voltageLevelId(id)
-                .xPosition(xPosition)
-                .yPosition(yPosition)
-                .xLabelPosition(xLabelPosition)
-                .yLabelPosition(yLabelPosition)
-                .build();
-            nadVoltageLevelPositionInfos.add(positionInfos);
+    @Transactional
+    public void deleteNadPositionsConfig(UUID positionsConfigUuid) {
+        if (nadVoltageLevelConfiguredPositionRepository.deletePositionsConfig(positionsConfigUuid) == 0) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Failed to delete NAD positions config: no positions config found for UUID " + positionsConfigUuid);
         }
-        return nadVoltageLevelPositionInfos;
     }
 
-    private List<NadVoltageLevelPositionInfos> getPositionsFromCsv(MultipartFile file) throws IOException {
+    /**
+     * Streams the positions of the csv file to the given consumer, in batches of at most CSV_IMPORT_BATCH_SIZE positions,
+     * so that the memory used does not depend on the file size.
+     *
+     * @return the number of imported positions
+     */
+    private int importPositionsFromCsv(MultipartFile file, Consumer<List<NadVoltageLevelPositionInfos>> batchConsumer) throws IOException {
         try (BOMInputStream bomInputStream = BOMInputStream.builder().setInputStream(file.getInputStream()).setByteOrderMarks(ByteOrderMark.UTF_8).get();
             BufferedReader fileReader = new BufferedReader(new InputStreamReader(bomInputStream, StandardCharsets.UTF_8));
             CsvMapReader mapReader = new CsvMapReader(fileReader, CsvFileValidator.CSV_PREFERENCE)) {
-            return parsePositions(mapReader);
+            String[] headers = CsvFileValidator.getHeaders(mapReader);
+            if (headers.length == 0) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "The csv file headers are invalid for NAD configured positions");
+            }
+            int nbPositions = 0;
+            List<NadVoltageLevelPositionInfos> batch = new ArrayList<>(CSV_IMPORT_BATCH_SIZE);
+            Map<String, String> row;
+            while ((row = mapReader.read(headers)) != null) {
+                batch.add(parsePosition(row));
+                if (batch.size() == CSV_IMPORT_BATCH_SIZE) {
+                    batchConsumer.accept(batch);
+                    nbPositions += batch.size();
+                    batch = new ArrayList<>(CSV_IMPORT_BATCH_SIZE);
+                }
+            }
+            if (!batch.isEmpty()) {
+                batchConsumer.accept(batch);
+                nbPositions += batch.size();
+            }
+            return nbPositions;
         }
     }
+
+    private static NadVoltageLevelPositionInfos parsePosition(Map<String, String> row) {
+        return NadVoltageLevelPositionInfos.builder()
+            .voltageLevelId(row.get(CsvFileValidator.VOLTAGE_LEVEL_ID))
+            .xPosition(Double.parseDouble(row.get(CsvFileValidator.X_POSITION)))
+            .yPosition(Double.parseDouble(row.get(CsvFileValidator.Y_POSITION)))
+            .xLabelPosition(Double.parseDouble(row.get(CsvFileValidator.X_LABEL_POSITION)))
+            .yLabelPosition(Double.parseDouble(row.get(CsvFileValidator.Y_LABEL_POSITION)))
+            .build();
+    }
 }
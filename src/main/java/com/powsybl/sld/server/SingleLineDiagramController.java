@@ -6,13 +6,17 @@
  */
 package com.powsybl.sld.server;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.util.RawValue;
+import com.powsybl.sld.server.dto.DiagramBatchResult;
+import com.powsybl.sld.server.dto.SldBatchRequestInfos;
 import com.powsybl.sld.server.dto.SldRequestInfos;
 import com.powsybl.sld.server.dto.SvgAndMetadata;
+import com.powsybl.sld.server.dto.nad.BoundingBox;
 import com.powsybl.sld.server.dto.nad.NadConfigInfos;
+import com.powsybl.sld.server.dto.nad.NadCostEstimation;
 import com.powsybl.sld.server.dto.nad.NadRequestInfos;
+import com.powsybl.sld.server.utils.GeographicalTileIndex;
+import com.powsybl.sld.server.utils.NadSceneGraphBinaryFormat;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -21,16 +25,21 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.annotation.ComponentScan;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
-import static com.powsybl.sld.server.NetworkAreaDiagramService.*;
 import static com.powsybl.ws.commons.LogUtils.sanitizeParam;
 
 /**
@@ -47,6 +56,7 @@ public class SingleLineDiagramController {
     private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
 
     static final String IMAGE_SVG_PLUS_XML = "image/svg+xml";
+    private static final MediaType NAD_SCENE_GRAPH_BINARY = MediaType.parseMediaType(NadSceneGraphBinaryFormat.MEDIA_TYPE);
 
     private final SingleLineDiagramService singleLineDiagramService;
 
@@ -91,17 +101,10 @@ public class SingleLineDiagramController {
             @Parameter(description = "Network UUID") @PathVariable("networkUuid") UUID networkUuid,
             @Parameter(description = "VoltageLevel ID") @PathVariable("voltageLevelId") String voltageLevelId,
             @Parameter(description = "Variant Id") @RequestParam(name = "variantId", required = false) String variantId,
-            @RequestBody SldRequestInfos sldRequestInfos) throws JsonProcessingException {
+            @RequestBody SldRequestInfos sldRequestInfos) {
         LOGGER.debug("getVoltageLevelCompleteSvg request received with parameter networkUuid = {}, voltageLevelID = {}", networkUuid, voltageLevelId != null ? sanitizeParam(voltageLevelId) : null);
         SvgAndMetadata svgAndMetadata = singleLineDiagramService.generateSvgAndMetadata(networkUuid, variantId, voltageLevelId, sldRequestInfos);
-        String svg = svgAndMetadata.getSvg();
-        String metadata = svgAndMetadata.getMetadata();
-        Object additionalMetadata = svgAndMetadata.getAdditionalMetadata();
-        return OBJECT_MAPPER.writeValueAsString(
-                OBJECT_MAPPER.createObjectNode()
-                        .put(SVG_TAG, svg)
-                        .putRawValue(METADATA, new RawValue(metadata))
-                        .putPOJO(ADDITIONAL_METADATA, additionalMetadata));
+        return SingleLineDiagramService.writeSvgAndMetadata(svgAndMetadata);
     }
 
     // substations
@@ -137,17 +140,27 @@ public class SingleLineDiagramController {
             @Parameter(description = "Network UUID") @PathVariable("networkUuid") UUID networkUuid,
             @Parameter(description = "Substation ID") @PathVariable("substationId") String substationId,
             @Parameter(description = "Variant Id") @RequestParam(name = "variantId", required = false) String variantId,
-            @RequestBody SldRequestInfos sldRequestInfos) throws JsonProcessingException {
+            @RequestBody SldRequestInfos sldRequestInfos) {
         LOGGER.debug("getSubstationFullSvg request received with parameter networkUuid = {}, substationID = {}", networkUuid, substationId != null ? sanitizeParam(substationId) : null);
         SvgAndMetadata svgAndMetadata = singleLineDiagramService.generateSvgAndMetadata(networkUuid, variantId, substationId, sldRequestInfos);
-        String svg = svgAndMetadata.getSvg();
-        String metadata = svgAndMetadata.getMetadata();
-        Object additionalMetadata = svgAndMetadata.getAdditionalMetadata();
-        return OBJECT_MAPPER.writeValueAsString(
-                OBJECT_MAPPER.createObjectNode()
-                        .put(SVG_TAG, svg)
-                        .putRawValue(METADATA, new RawValue(metadata))
-                        .putPOJO(ADDITIONAL_METADATA, additionalMetadata));
+        return SingleLineDiagramService.writeSvgAndMetadata(svgAndMetadata);
+    }
+
+    @PostMapping(value = "/batch/svg-and-metadata/{networkUuid}", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Get the svg and metadata of several voltage levels or substations of the same network", description = "The network is loaded once "
+        + "and the diagrams are generated in parallel. Each diagram is streamed as a JSON line as soon as it is generated, with its index in the request "
+        + "and its svg and metadata or its error")
+    @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "The svg and metadata of the diagrams, in the order of their generation")})
+    public ResponseEntity<ResponseBodyEmitter> generateFullSvgs(
+            @Parameter(description = "Network UUID") @PathVariable("networkUuid") UUID networkUuid,
+            @Parameter(description = "Variant Id") @RequestParam(name = "variantId", required = false) String variantId,
+            @RequestBody SldBatchRequestInfos sldBatchRequestInfos) {
+        LOGGER.debug("generateFullSvgs request received with parameter networkUuid = {}, {} diagrams", networkUuid, sldBatchRequestInfos.getEquipmentIds().size());
+        ResponseBodyEmitter emitter = new ResponseBodyEmitter();
+        singleLineDiagramService.generateSvgsAndMetadataAsync(networkUuid, variantId, sldBatchRequestInfos.getEquipmentIds(), sldBatchRequestInfos.getSldRequestInfos(),
+                result -> sendLine(emitter, result))
+            .whenComplete((result, throwable) -> complete(emitter, throwable));
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(emitter);
     }
 
     @GetMapping(value = "/svg-component-libraries")
@@ -160,17 +173,92 @@ public class SingleLineDiagramController {
     }
 
     // network area diagram
-    @PostMapping(value = "/network-area-diagram/{networkUuid}", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
-    @Operation(summary = "Get network area diagram image")
-    @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "The network area diagram svg")})
-    public CompletableFuture<String> generateNetworkAreaDiagramSvg(
+    @PostMapping(value = "/network-area-diagram/{networkUuid}", consumes = MediaType.APPLICATION_JSON_VALUE, produces = {MediaType.APPLICATION_JSON_VALUE, NadSceneGraphBinaryFormat.MEDIA_TYPE})
+    @Operation(summary = "Get network area diagram image", description = "The scene graph of the diagram is returned in a compact binary format when "
+        + NadSceneGraphBinaryFormat.MEDIA_TYPE + " is accepted")
+    @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "The network area diagram svg, or its scene graph")})
+    public CompletableFuture<ResponseEntity<Object>> generateNetworkAreaDiagramSvg(
             @Parameter(description = "Network UUID") @PathVariable("networkUuid") UUID networkUuid,
             @Parameter(description = "Variant Id") @RequestParam(name = "variantId", required = false) String variantId,
+            @RequestHeader(name = HttpHeaders.ACCEPT, required = false) String accept,
             @RequestBody NadRequestInfos nadRequestInfos) {
         if (LOGGER.isDebugEnabled()) {
             LOGGER.debug("generateNetworkAreaDiagramSvg request received with parameter networkUuid = {}, body = {}", networkUuid, sanitizeParam(nadRequestInfos.toString()));
         }
-        return networkAreaDiagramService.generateNetworkAreaDiagramSvgAsync(networkUuid, variantId, nadRequestInfos);
+        if (accepts(accept, NAD_SCENE_GRAPH_BINARY)) {
+            return networkAreaDiagramService.generateNetworkAreaDiagramSceneGraphBinaryAsync(networkUuid, variantId, nadRequestInfos)
+                .thenApply(sceneGraph -> ResponseEntity.ok().contentType(NAD_SCENE_GRAPH_BINARY).<Object>body(sceneGraph));
+        }
+        return networkAreaDiagramService.generateNetworkAreaDiagramSvgAsync(networkUuid, variantId, nadRequestInfos)
+            .thenApply(svg -> ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).<Object>body(svg));
+    }
+
+    @PostMapping(value = "/network-area-diagram/{networkUuid}/batch", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Get several network area diagrams of the same network", description = "The network is loaded once and the diagrams are generated in parallel. "
+        + "Each diagram is streamed as a JSON line as soon as it is generated, with its index in the request and its result or its error")
+    @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "The network area diagrams, in the order of their generation")})
+    public ResponseEntity<ResponseBodyEmitter> generateNetworkAreaDiagrams(
+            @Parameter(description = "Network UUID") @PathVariable("networkUuid") UUID networkUuid,
+            @Parameter(description = "Variant Id") @RequestParam(name = "variantId", required = false) String variantId,
+            @RequestBody List<NadRequestInfos> nadRequestInfos) {
+        LOGGER.debug("generateNetworkAreaDiagrams request received with parameter networkUuid = {}, {} diagrams", networkUuid, nadRequestInfos.size());
+        ResponseBodyEmitter emitter = new ResponseBodyEmitter();
+        networkAreaDiagramService.generateNetworkAreaDiagramsAsync(networkUuid, variantId, nadRequestInfos, result -> sendLine(emitter, result))
+            .whenComplete((result, throwable) -> complete(emitter, throwable));
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(emitter);
+    }
+
+    private static void sendLine(ResponseBodyEmitter emitter, DiagramBatchResult result) {
+        try {
+            emitter.send(OBJECT_MAPPER.writeValueAsString(result) + "\n", MediaType.APPLICATION_NDJSON);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void complete(ResponseBodyEmitter emitter, Throwable throwable) {
+        if (throwable == null) {
+            emitter.complete();
+        } else {
+            emitter.completeWithError(throwable instanceof CompletionException && throwable.getCause() != null ? throwable.getCause() : throwable);
+        }
+    }
+
+    @PostMapping(value = "/network-area-diagram/{networkUuid}/cost-estimation", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Estimate the cost of a network area diagram", description = "The voltage levels of the request are resolved, without drawing the diagram")
+    @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "The number of voltage levels and branches of the diagram, and its estimated generation duration and size")})
+    public ResponseEntity<NadCostEstimation> estimateNetworkAreaDiagram(
+            @Parameter(description = "Network UUID") @PathVariable("networkUuid") UUID networkUuid,
+            @Parameter(description = "Variant Id") @RequestParam(name = "variantId", required = false) String variantId,
+            @RequestBody NadRequestInfos nadRequestInfos) {
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("estimateNetworkAreaDiagram request received with parameter networkUuid = {}, body = {}", networkUuid, sanitizeParam(nadRequestInfos.toString()));
+        }
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(networkAreaDiagramService.estimateNetworkAreaDiagram(networkUuid, variantId, nadRequestInfos));
+    }
+
+    @GetMapping(value = "/network-area-diagram/{networkUuid}/tiles/{z}/{x}/{y}", produces = {MediaType.APPLICATION_JSON_VALUE, NadSceneGraphBinaryFormat.MEDIA_TYPE})
+    @Operation(summary = "Get a tile of the geographical network area diagram of the whole network", description = "The tile is a scene graph in tile coordinates, "
+        + "from 0 to " + GeographicalTileIndex.EXTENT + ", returned in a compact binary format when " + NadSceneGraphBinaryFormat.MEDIA_TYPE + " is accepted")
+    @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "The tile scene graph"),
+        @ApiResponse(responseCode = "400", description = "The tile coordinates are invalid")})
+    public CompletableFuture<ResponseEntity<Object>> getNetworkAreaDiagramTile(
+            @Parameter(description = "Network UUID") @PathVariable("networkUuid") UUID networkUuid,
+            @Parameter(description = "Zoom level") @PathVariable("z") int z,
+            @Parameter(description = "Tile column") @PathVariable("x") int x,
+            @Parameter(description = "Tile row") @PathVariable("y") int y,
+            @Parameter(description = "Variant Id") @RequestParam(name = "variantId", required = false) String variantId,
+            @RequestHeader(name = HttpHeaders.ACCEPT, required = false) String accept) {
+        LOGGER.debug("getNetworkAreaDiagramTile request received with parameter networkUuid = {}, tile = {}/{}/{}", networkUuid, z, x, y);
+        boolean binary = accepts(accept, NAD_SCENE_GRAPH_BINARY);
+        return networkAreaDiagramService.getGeographicalTileAsync(networkUuid, variantId, z, x, y)
+            .thenApply(tile -> binary
+                ? ResponseEntity.ok().contentType(NAD_SCENE_GRAPH_BINARY).<Object>body(NadSceneGraphBinaryFormat.encode(tile, new byte[0]))
+                : ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).<Object>body(tile));
+    }
+
+    private static boolean accepts(String accept, MediaType mediaType) {
+        return accept != null && MediaType.parseMediaTypes(accept).stream().anyMatch(mediaType::equalsTypeAndSubtype);
     }
 
     @PostMapping(value = "/network-area-diagram/config", consumes = MediaType.APPLICATION_JSON_VALUE)
@@ -202,6 +290,16 @@ public class SingleLineDiagramController {
         return ResponseEntity.ok().body(networkAreaDiagramService.duplicateNetworkAreaDiagramConfig(duplicateFrom));
     }
 
+    @PostMapping(value = "/network-area-diagram/configs/duplicate", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Duplicate multiple network area diagram configs")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "The network area diagram configs have been duplicated, the new UUIDs are returned by origin UUID"),
+        @ApiResponse(responseCode = "404", description = "At least one network area diagram config was not found"),
+    })
+    public ResponseEntity<Map<UUID, UUID>> duplicateNetworkAreaDiagramConfigs(@RequestBody List<UUID> originNadConfigUuids) {
+        return ResponseEntity.ok().body(networkAreaDiagramService.duplicateNetworkAreaDiagramConfigs(originNadConfigUuids));
+    }
+
     @PutMapping(value = "/network-area-diagram/config/{nadConfigUuid}", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
     @Operation(summary = "Update a network area diagram config")
     @ApiResponses(value = {
@@ -215,6 +313,42 @@ public class SingleLineDiagramController {
         return ResponseEntity.ok().build();
     }
 
+    @GetMapping(value = "/network-area-diagram/config/{nadConfigUuid}/voltage-levels", produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Get the ids of the voltage levels of a network area diagram config positioned inside a bounding box")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "The voltage levels ids"),
+        @ApiResponse(responseCode = "400", description = "The bounding box is invalid"),
+        @ApiResponse(responseCode = "404", description = "The network area diagram config was not found"),
+    })
+    public ResponseEntity<List<String>> getNetworkAreaDiagramConfigVoltageLevelIds(
+            @Parameter(description = "Network Area Diagram config UUID") @PathVariable("nadConfigUuid") UUID nadConfigUuid,
+            @Parameter(description = "Bounding box min x") @RequestParam(name = "minX") double minX,
+            @Parameter(description = "Bounding box min y") @RequestParam(name = "minY") double minY,
+            @Parameter(description = "Bounding box max x") @RequestParam(name = "maxX") double maxX,
+            @Parameter(description = "Bounding box max y") @RequestParam(name = "maxY") double maxY,
+            @Parameter(description = "Margin added around the bounding box") @RequestParam(name = "margin", defaultValue = "0") double margin) {
+        BoundingBox boundingBox = new BoundingBox(minX, minY, maxX, maxY).withMargin(margin);
+        return ResponseEntity.ok().body(networkAreaDiagramService.getNetworkAreaDiagramConfigVoltageLevelIds(nadConfigUuid, boundingBox));
+    }
+
+    @GetMapping(value = "/network-area-diagram/configured-positions/voltage-levels", produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Get the ids of the voltage levels whose configured position is inside a bounding box")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "The voltage levels ids"),
+        @ApiResponse(responseCode = "400", description = "The bounding box is invalid"),
+        @ApiResponse(responseCode = "404", description = "The positions config was not found"),
+    })
+    public ResponseEntity<List<String>> getConfiguredPositionsVoltageLevelIds(
+            @Parameter(description = "Positions config UUID, the default positions config if absent") @RequestParam(name = "positionsConfigUuid", required = false) UUID positionsConfigUuid,
+            @Parameter(description = "Bounding box min x") @RequestParam(name = "minX") double minX,
+            @Parameter(description = "Bounding box min y") @RequestParam(name = "minY") double minY,
+            @Parameter(description = "Bounding box max x") @RequestParam(name = "maxX") double maxX,
+            @Parameter(description = "Bounding box max y") @RequestParam(name = "maxY") double maxY,
+            @Parameter(description = "Margin added around the bounding box") @RequestParam(name = "margin", defaultValue = "0") double margin) {
+        BoundingBox boundingBox = new BoundingBox(minX, minY, maxX, maxY).withMargin(margin);
+        return ResponseEntity.ok().body(networkAreaDiagramService.getConfiguredPositionsVoltageLevelIds(positionsConfigUuid, boundingBox));
+    }
+
     @DeleteMapping(value = "/network-area-diagram/config/{nadConfigUuid}")
     @Operation(summary = "Delete a network area diagram config")
     @ApiResponse(responseCode = "200", description = "The network area diagram config has been deleted")
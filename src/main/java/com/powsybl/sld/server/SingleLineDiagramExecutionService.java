@@ -0,0 +1,46 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.sld.server;
+
+import io.micrometer.context.ContextExecutorService;
+import io.micrometer.context.ContextSnapshotFactory;
+import jakarta.annotation.PreDestroy;
+import lombok.NonNull;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+
+/**
+ * Bounded pool of the generations of the batches of SLDs, the single SLDs being generated on the request threads.
+ *
+ * @author agent <agent at local>
+ */
+@Service
+public class SingleLineDiagramExecutionService {
+
+    private final ExecutorService executorService;
+
+    public SingleLineDiagramExecutionService(@Value("${max-concurrent-sld-generations:4}") int maxConcurrentSldGenerations,
+                                             @NonNull DiagramGenerationObserver diagramGenerationObserver) {
+        ThreadPoolExecutor threadPoolExecutor = (ThreadPoolExecutor) Executors.newFixedThreadPool(maxConcurrentSldGenerations);
+        diagramGenerationObserver.createSldThreadPoolMetric(threadPoolExecutor);
+        ContextSnapshotFactory snapshotFactory = ContextSnapshotFactory.builder().build();
+        executorService = ContextExecutorService.wrap(threadPoolExecutor,
+            snapshotFactory::captureAll);
+    }
+
+    @PreDestroy
+    private void preDestroy() {
+        executorService.shutdown();
+    }
+
+    public <U> CompletableFuture<U> supplyAsync(Supplier<U> supplier) {
+        return CompletableFuture.supplyAsync(supplier, executorService);
+    }
+}
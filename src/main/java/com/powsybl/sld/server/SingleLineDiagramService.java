@@ -6,13 +6,18 @@
  */
 package com.powsybl.sld.server;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.RawValue;
 import com.powsybl.commons.config.BaseVoltageConfig;
 import com.powsybl.commons.config.BaseVoltagesConfig;
+import com.powsybl.iidm.network.Branch;
 import com.powsybl.iidm.network.Identifiable;
 import com.powsybl.iidm.network.Network;
 import com.powsybl.iidm.network.Substation;
 import com.powsybl.iidm.network.VoltageLevel;
 import com.powsybl.network.store.client.NetworkStoreService;
+import com.powsybl.network.store.client.PreloadingStrategy;
 import com.powsybl.sld.SingleLineDiagram;
 import com.powsybl.sld.SldParameters;
 import com.powsybl.sld.layout.HorizontalSubstationLayoutFactory;
@@ -38,10 +43,16 @@ import java.io.IOException;
 import java.io.StringWriter;
 import java.io.UncheckedIOException;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import static com.powsybl.iidm.network.IdentifiableType.SUBSTATION;
 import static com.powsybl.iidm.network.IdentifiableType.VOLTAGE_LEVEL;
+import static com.powsybl.sld.server.NetworkAreaDiagramService.ADDITIONAL_METADATA;
+import static com.powsybl.sld.server.NetworkAreaDiagramService.METADATA;
+import static com.powsybl.sld.server.NetworkAreaDiagramService.SVG_TAG;
 import static com.powsybl.sld.server.error.DiagramBusinessErrorCode.EQUIPMENT_NOT_FOUND;
 import static com.powsybl.sld.server.error.DiagramBusinessErrorCode.INVALID_DISPLAY_MODE;
 import static com.powsybl.sld.server.error.DiagramBusinessErrorCode.INVALID_EQUIPMENT_TYPE;
@@ -65,12 +76,17 @@ class SingleLineDiagramService {
     private static final SvgParameters SVG_PARAMETERS = new SvgParameters()
             .setCssLocation(SvgParameters.CssLocation.EXTERNAL_NO_IMPORT);
 
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
     @Autowired
     private NetworkStoreService networkStoreService;
 
     @Autowired
     private VoltagesConfig voltagesConfig;
 
+    @Autowired
+    private SingleLineDiagramExecutionService sldExecutionService;
+
     public static Network getNetwork(UUID networkUuid, String variantId, NetworkStoreService networkStoreService) {
         return DiagramUtils.getNetwork(networkUuid, variantId, networkStoreService, null);
     }
@@ -86,16 +102,117 @@ class SingleLineDiagramService {
 
     SvgAndMetadata generateSvgAndMetadata(UUID networkUuid, String variantId, String id, SldRequestInfos sldRequestInfos) {
         Network network = getNetwork(networkUuid, variantId, networkStoreService);
+        checkEquipmentExists(network, id);
+        return generateSvgAndMetadata(network, id, sldRequestInfos, createGenerationResources(sldRequestInfos));
+    }
+
+    /**
+     * Generates the SLDs of several voltage levels or substations of the same network variant in parallel, on a single load of
+     * the network and with the component library and the styles resolved once.
+     *
+     * @param resultConsumer receives the result or the error of each SLD as soon as it is generated, from the generation threads
+     * @return completed once all the SLDs are generated
+     */
+    CompletableFuture<Void> generateSvgsAndMetadataAsync(UUID networkUuid, String variantId, List<String> ids, SldRequestInfos sldRequestInfos,
+                                                         Consumer<DiagramBatchResult> resultConsumer) {
+        return sldExecutionService.supplyAsync(() -> {
+            // The collections read by the label and style providers are loaded at once
+            Network network = DiagramUtils.getNetwork(networkUuid, variantId, networkStoreService, PreloadingStrategy.ALL_COLLECTIONS_NEEDED_FOR_BUS_VIEW);
+            SldGenerationResources resources = createGenerationResources(sldRequestInfos);
+            // The unknown equipments are reported before the parallel generations
+            List<Integer> indexes = new ArrayList<>();
+            for (int index = 0; index < ids.size(); index++) {
+                try {
+                    checkEquipmentExists(network, ids.get(index));
+                    indexes.add(index);
+                } catch (DiagramBusinessException e) {
+                    resultConsumer.accept(DiagramBatchResult.failure(index, ids.get(index), e));
+                }
+            }
+            preloadForParallelReads(network, indexes.stream().map(ids::get).toList());
+            return CompletableFuture.allOf(indexes.stream()
+                .map(index -> sldExecutionService.supplyAsync(() -> writeSvgAndMetadata(generateSvgAndMetadata(network, ids.get(index), sldRequestInfos, resources)))
+                    .handle((result, throwable) -> {
+                        resultConsumer.accept(throwable != null
+                            ? DiagramBatchResult.failure(index, ids.get(index), throwable)
+                            : DiagramBatchResult.success(index, ids.get(index), result));
+                        return null;
+                    }))
+                .toArray(CompletableFuture[]::new));
+        }).thenCompose(Function.identity());
+    }
+
+    /**
+     * The network is not safe for concurrent use, and the label and style providers read the switch states, the limits and the
+     * extensions of the drawn voltage levels and of the other ends of their branches, shown by the feeders. These are all loaded
+     * beforehand, see {@link DiagramUtils#preloadForParallelReads}, so that the parallel generations do not modify the network.
+     */
+    private static void preloadForParallelReads(Network network, List<String> ids) {
+        Set<VoltageLevel> voltageLevels = new HashSet<>();
+        for (String id : ids) {
+            VoltageLevel voltageLevel = network.getVoltageLevel(id);
+            if (voltageLevel != null) {
+                voltageLevels.add(voltageLevel);
+            } else {
+                network.getSubstation(id).getVoltageLevelStream().forEach(voltageLevels::add);
+            }
+        }
+        List.copyOf(voltageLevels).forEach(voltageLevel -> voltageLevel.getConnectableStream(Branch.class).forEach(branch -> {
+            voltageLevels.add(branch.getTerminal1().getVoltageLevel());
+            voltageLevels.add(branch.getTerminal2().getVoltageLevel());
+        }));
+        DiagramUtils.preloadForParallelReads(voltageLevels);
+    }
+
+    /**
+     * Same JSON as the svg-and-metadata endpoints.
+     */
+    static String writeSvgAndMetadata(SvgAndMetadata svgAndMetadata) {
+        try {
+            return OBJECT_MAPPER.writeValueAsString(
+                OBJECT_MAPPER.createObjectNode()
+                    .put(SVG_TAG, svgAndMetadata.getSvg())
+                    .putRawValue(METADATA, new RawValue(svgAndMetadata.getMetadata()))
+                    .putPOJO(ADDITIONAL_METADATA, svgAndMetadata.getAdditionalMetadata()));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void checkEquipmentExists(Network network, String id) {
         if (network.getVoltageLevel(id) == null && network.getSubstation(id) == null) {
             throw new DiagramBusinessException(EQUIPMENT_NOT_FOUND, String.format(Locale.US, "Voltage level or substation %s not found", id), Map.of("id", id));
         }
+    }
+
+    /**
+     * The component library and the styles of the request, shared by the SLDs of a batch.
+     */
+    private record SldGenerationResources(SldComponentLibrary componentLibrary, SubstationLayoutFactory substationLayoutFactory,
+                                          BaseVoltagesConfig baseVoltagesConfig, Map<String, String> limitViolationStyles) {
+    }
+
+    private SldGenerationResources createGenerationResources(SldRequestInfos sldRequestInfos) {
+        SldComponentLibrary compLibrary = SldComponentLibrary.find(sldRequestInfos.getComponentLibrary())
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Component library '" + sldRequestInfos.getComponentLibrary() + "' not found"));
+
+        List<BaseVoltageConfig> baseVoltagesConfigInfos = voltagesConfig.getBaseVoltagesConfigInfos();
+        if (baseVoltagesConfigInfos == null) {
+            baseVoltagesConfigInfos = Collections.emptyList();
+        }
+        baseVoltagesConfigInfos.forEach(vl -> vl.setProfile(DiagramConstants.BASE_VOLTAGES_DEFAULT_PROFILE));
+        BaseVoltagesConfig baseVoltagesConfig = new BaseVoltagesConfig();
+        baseVoltagesConfig.setBaseVoltages(baseVoltagesConfigInfos);
+        baseVoltagesConfig.setDefaultProfile(DiagramConstants.BASE_VOLTAGES_DEFAULT_PROFILE);
 
+        return new SldGenerationResources(compLibrary, getSubstationLayoutFactory(sldRequestInfos.getSubstationLayout()), baseVoltagesConfig,
+            DiagramUtils.createLimitViolationStyles(sldRequestInfos.getCurrentLimitViolationsInfos(), OVERLOAD_STYLE_CLASS));
+    }
+
+    private SvgAndMetadata generateSvgAndMetadata(Network network, String id, SldRequestInfos sldRequestInfos, SldGenerationResources resources) {
         try (var svgWriter = new StringWriter();
              var metadataWriter = new StringWriter()) {
 
-            SldComponentLibrary compLibrary = SldComponentLibrary.find(sldRequestInfos.getComponentLibrary())
-                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Component library '" + sldRequestInfos.getComponentLibrary() + "' not found"));
-
             SvgParameters svgParameters = new SvgParameters(SVG_PARAMETERS);
             svgParameters.setLabelCentered(sldRequestInfos.isCenterLabel());
             svgParameters.setLabelDiagonal(sldRequestInfos.isDiagonalLabel());
@@ -125,36 +242,22 @@ class SingleLineDiagramService {
             }
 
             var voltageLevelLayoutFactory = CustomVoltageLevelLayoutFactoryCreator.newCustomVoltageLevelLayoutFactoryCreator();
-            var substationLayoutFactory = getSubstationLayoutFactory(sldRequestInfos.getSubstationLayout());
 
             sldParameters.setSvgParameters(svgParameters);
-            sldParameters.setSubstationLayoutFactory(substationLayoutFactory);
+            sldParameters.setSubstationLayoutFactory(resources.substationLayoutFactory());
             sldParameters.setVoltageLevelLayoutFactoryCreator(voltageLevelLayoutFactory);
             sldParameters.setLayoutParameters(layoutParameters);
 
-            Map<String, String> limitViolationStyles = DiagramUtils.createLimitViolationStyles(sldRequestInfos.getCurrentLimitViolationsInfos(), OVERLOAD_STYLE_CLASS);
+            sldParameters.setStyleProviderFactory((net, parameters) -> new StyleProvidersList(
+                sldRequestInfos.isTopologicalColoring()
+                    ? new TopologicalStyleProvider(resources.baseVoltagesConfig(), network, parameters)
+                    : new NominalVoltageStyleProvider(resources.baseVoltagesConfig()),
+                new HighlightLineStateStyleProvider(network),
+                new SldSLimitStyleProvider(network, resources.limitViolationStyles()),
+                new BusLegendStyleProvider()
+            ));
 
-            sldParameters.setStyleProviderFactory((net, parameters) -> {
-                List<BaseVoltageConfig> baseVoltagesConfigInfos = voltagesConfig.getBaseVoltagesConfigInfos();
-                if (baseVoltagesConfigInfos == null) {
-                    baseVoltagesConfigInfos = Collections.emptyList();
-                }
-                baseVoltagesConfigInfos.forEach(vl -> vl.setProfile(DiagramConstants.BASE_VOLTAGES_DEFAULT_PROFILE));
-                BaseVoltagesConfig baseVoltagesConfig = new BaseVoltagesConfig();
-                baseVoltagesConfig.setBaseVoltages(baseVoltagesConfigInfos);
-                baseVoltagesConfig.setDefaultProfile(DiagramConstants.BASE_VOLTAGES_DEFAULT_PROFILE);
-
-                return new StyleProvidersList(
-                    sldRequestInfos.isTopologicalColoring()
-                        ? new TopologicalStyleProvider(baseVoltagesConfig, network, parameters)
-                        : new NominalVoltageStyleProvider(baseVoltagesConfig),
-                    new HighlightLineStateStyleProvider(network),
-                    new SldSLimitStyleProvider(network, limitViolationStyles),
-                    new BusLegendStyleProvider()
-                );
-            });
-
-            sldParameters.setComponentLibrary(compLibrary);
+            sldParameters.setComponentLibrary(resources.componentLibrary());
 
             SingleLineDiagram.draw(network, id, svgWriter, metadataWriter, sldParameters);
 
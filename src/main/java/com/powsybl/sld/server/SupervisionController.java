@@ -7,17 +7,17 @@
 package com.powsybl.sld.server;
 
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.web.bind.annotation.PostMapping;
-import org.springframework.web.bind.annotation.RequestMapping;
-import org.springframework.web.bind.annotation.RequestParam;
-import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.util.UUID;
+
 /**
  * @author Radouane Khouadri <redouane.khouadri_externe at rte-france.com>
  */
@@ -28,8 +28,24 @@ public class SupervisionController {
 
     private final NetworkAreaDiagramService networkAreaDiagramService;
 
-    public SupervisionController(NetworkAreaDiagramService networkAreaDiagramService) {
+    private final NadConfiguredPositionService nadConfiguredPositionService;
+
+    private final NadResultCacheService nadResultCacheService;
+
+    private final VoltageLevelAdjacencyService voltageLevelAdjacencyService;
+
+    private final GeographicalTileService geographicalTileService;
+
+    public SupervisionController(NetworkAreaDiagramService networkAreaDiagramService,
+                                 NadConfiguredPositionService nadConfiguredPositionService,
+                                 NadResultCacheService nadResultCacheService,
+                                 VoltageLevelAdjacencyService voltageLevelAdjacencyService,
+                                 GeographicalTileService geographicalTileService) {
         this.networkAreaDiagramService = networkAreaDiagramService;
+        this.nadConfiguredPositionService = nadConfiguredPositionService;
+        this.nadResultCacheService = nadResultCacheService;
+        this.voltageLevelAdjacencyService = voltageLevelAdjacencyService;
+        this.geographicalTileService = geographicalTileService;
     }
 
     @PostMapping(value = "/network-area-diagram/config/positions", consumes = MediaType.MULTIPART_FORM_DATA_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
@@ -38,6 +54,52 @@ public class SupervisionController {
     })
     public ResponseEntity<Void> createNadPositionsConfigFromCsv(@RequestParam("file") MultipartFile file) {
         networkAreaDiagramService.createNadPositionsConfigFromCsv(file);
+        // The new positions are committed, drop the index of the previous ones and the NADs generated from them
+        nadConfiguredPositionService.invalidate(null);
+        return ResponseEntity.ok().build();
+    }
+
+    @PostMapping(value = "/network-area-diagram/positions-configs", consumes = MediaType.MULTIPART_FORM_DATA_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Create a named positions config from the given CSV file, to be selected by the NAD generations with its UUID")
+    @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "The positions config has been successfully created")
+    })
+    public ResponseEntity<UUID> createNamedNadPositionsConfigFromCsv(@RequestParam("file") MultipartFile file) {
+        UUID positionsConfigUuid = UUID.randomUUID();
+        networkAreaDiagramService.createNadPositionsConfigFromCsv(positionsConfigUuid, file);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(positionsConfigUuid);
+    }
+
+    @PutMapping(value = "/network-area-diagram/positions-configs/{positionsConfigUuid}", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @Operation(summary = "Replace the positions of a named positions config by the ones of the given CSV file")
+    @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "The positions config has been successfully replaced")
+    })
+    public ResponseEntity<Void> replaceNamedNadPositionsConfigFromCsv(
+            @Parameter(description = "Positions config UUID") @PathVariable("positionsConfigUuid") UUID positionsConfigUuid,
+            @RequestParam("file") MultipartFile file) {
+        networkAreaDiagramService.createNadPositionsConfigFromCsv(positionsConfigUuid, file);
+        nadConfiguredPositionService.invalidate(positionsConfigUuid);
+        return ResponseEntity.ok().build();
+    }
+
+    @DeleteMapping(value = "/network-area-diagram/positions-configs/{positionsConfigUuid}")
+    @Operation(summary = "Delete a named positions config")
+    @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "The positions config has been successfully deleted"),
+        @ApiResponse(responseCode = "404", description = "The positions config was not found")
+    })
+    public ResponseEntity<Void> deleteNamedNadPositionsConfig(@Parameter(description = "Positions config UUID") @PathVariable("positionsConfigUuid") UUID positionsConfigUuid) {
+        networkAreaDiagramService.deleteNadPositionsConfig(positionsConfigUuid);
+        nadConfiguredPositionService.invalidate(positionsConfigUuid);
+        return ResponseEntity.ok().build();
+    }
+
+    @DeleteMapping(value = "/network-area-diagram/networks/{networkUuid}/caches")
+    @Operation(summary = "Drop the generated NADs and the cached data of a network, to be called once the network is modified")
+    @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "The cached data of the network has been dropped")
+    })
+    public ResponseEntity<Void> evictNetworkCaches(@Parameter(description = "Network UUID") @PathVariable("networkUuid") UUID networkUuid) {
+        nadResultCacheService.evict(networkUuid);
+        voltageLevelAdjacencyService.evict(networkUuid);
+        geographicalTileService.evict(networkUuid);
         return ResponseEntity.ok().build();
     }
 }
@@ -0,0 +1,61 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.sld.server;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.powsybl.iidm.network.Network;
+import com.powsybl.sld.server.utils.VoltageLevelAdjacencyIndex;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Caches the voltage level adjacency of the networks, per network and variant as the equipments may differ between variants.
+ * The network store does not notify the topology changes: the cached indexes expire, can be evicted explicitly, and are rebuilt
+ * by the callers finding out that they are outdated.
+ *
+ * @author agent <agent at local>
+ */
+@Service
+public class VoltageLevelAdjacencyService {
+
+    private record NetworkVariant(UUID networkUuid, String variantId) {
+    }
+
+    private final Cache<NetworkVariant, VoltageLevelAdjacencyIndex> adjacencyIndexes;
+
+    public VoltageLevelAdjacencyService(@Value("${diagram-server.nad.adjacency-cache.max-size:10}") int maxCachedNetworks,
+                                        @Value("${diagram-server.nad.adjacency-cache.expire-after-write:10m}") Duration expireAfterWrite) {
+        this.adjacencyIndexes = Caffeine.newBuilder()
+            .maximumSize(maxCachedNetworks)
+            .expireAfterWrite(expireAfterWrite)
+            .build();
+    }
+
+    /**
+     * @param network the network loaded for the given network uuid and variant, used to build the index if it is not cached
+     */
+    public VoltageLevelAdjacencyIndex getIndex(UUID networkUuid, String variantId, Network network) {
+        return adjacencyIndexes.get(new NetworkVariant(networkUuid, variantId), key -> VoltageLevelAdjacencyIndex.build(network));
+    }
+
+    /**
+     * Replaces the cached index, to be called when the network is known to have changed.
+     */
+    public VoltageLevelAdjacencyIndex rebuildIndex(UUID networkUuid, String variantId, Network network) {
+        VoltageLevelAdjacencyIndex adjacencyIndex = VoltageLevelAdjacencyIndex.build(network);
+        adjacencyIndexes.put(new NetworkVariant(networkUuid, variantId), adjacencyIndex);
+        return adjacencyIndex;
+    }
+
+    public void evict(UUID networkUuid) {
+        adjacencyIndexes.asMap().keySet().removeIf(key -> key.networkUuid().equals(networkUuid));
+    }
+}
@@ -0,0 +1,72 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.sld.server.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import com.powsybl.sld.server.error.DiagramBusinessException;
+import com.powsybl.sld.server.error.DiagramExceptionHandler;
+import lombok.*;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Result of one diagram of a batch, streamed as soon as it is generated. A failed diagram is reported with its error, without
+ * failing the other diagrams of the batch.
+ *
+ * @author agent <agent at local>
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Getter
+@Setter
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class DiagramBatchResult {
+
+    // Position of the diagram in the batch
+    private int index;
+    // Requested equipment, for the SLDs
+    private String id;
+    // Same JSON as the generation of the diagram alone
+    @JsonRawValue
+    private String result;
+    private Error error;
+
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Getter
+    @Setter
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class Error {
+        private int status;
+        private String businessErrorCode;
+        private String message;
+        private Map<String, Object> businessErrorValues;
+    }
+
+    public static DiagramBatchResult success(int index, String id, String result) {
+        return DiagramBatchResult.builder().index(index).id(id).result(result).build();
+    }
+
+    public static DiagramBatchResult failure(int index, String id, Throwable throwable) {
+        Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null ? throwable.getCause() : throwable;
+        Error error;
+        if (cause instanceof DiagramBusinessException e) {
+            error = new Error(DiagramExceptionHandler.getStatus(e.getBusinessErrorCode()).value(), e.getBusinessErrorCode().value(), e.getMessage(),
+                e.getBusinessErrorValues().isEmpty() ? null : e.getBusinessErrorValues());
+        } else if (cause instanceof ResponseStatusException e) {
+            error = new Error(e.getStatusCode().value(), null, e.getReason(), null);
+        } else {
+            error = new Error(HttpStatus.INTERNAL_SERVER_ERROR.value(), null, cause.getMessage(), null);
+        }
+        return DiagramBatchResult.builder().index(index).id(id).error(error).build();
+    }
+}
@@ -0,0 +1,69 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.sld.server.dto.nad;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.*;
+
+/**
+ * Axis-aligned rectangle in diagram coordinates, bounds included.
+ *
+ * @author agent <agent at local>
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Getter
+@Setter
+@ToString
+public class BoundingBox {
+    private double minX;
+    private double minY;
+    private double maxX;
+    private double maxY;
+
+    @JsonIgnore
+    public boolean isValid() {
+        return minX <= maxX && minY <= maxY;
+    }
+
+    public BoundingBox withMargin(double margin) {
+        return new BoundingBox(minX - margin, minY - margin, maxX + margin, maxY + margin);
+    }
+
+    public boolean contains(double x, double y) {
+        return x >= minX && x <= maxX && y >= minY && y <= maxY;
+    }
+
+    /**
+     * @return true if the segment from (x1, y1) to (x2, y2) has at least one point inside the bounding box
+     */
+    public boolean intersectsSegment(double x1, double y1, double x2, double y2) {
+        // Liang-Barsky clipping: the segment is clipped against each side in turn, the parameter range left tells whether a part remains
+        double dx = x2 - x1;
+        double dy = y2 - y1;
+        double[] p = {-dx, dx, -dy, dy};
+        double[] q = {x1 - minX, maxX - x1, y1 - minY, maxY - y1};
+        double tMin = 0;
+        double tMax = 1;
+        for (int i = 0; i < 4; i++) {
+            if (p[i] == 0) {
+                if (q[i] < 0) {
+                    return false;
+                }
+            } else {
+                double t = q[i] / p[i];
+                if (p[i] < 0) {
+                    tMin = Math.max(tMin, t);
+                } else {
+                    tMax = Math.min(tMax, t);
+                }
+            }
+        }
+        return tMin <= tMax;
+    }
+}
@@ -24,6 +24,8 @@ public class NadConfigInfos {
     @Builder.Default
     private Set<String> voltageLevelIds = new HashSet<>();
     private Integer scalingFactor;
+    // Read only, set by the server on each update
+    private Long version;
     @Builder.Default
     private List<NadVoltageLevelPositionInfos> positions = new ArrayList<>();
 
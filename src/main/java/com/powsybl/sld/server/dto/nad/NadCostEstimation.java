@@ -0,0 +1,31 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.sld.server.dto.nad;
+
+import lombok.*;
+
+/**
+ * Estimated cost of a NAD request, computed from its resolved VLs without drawing it.
+ *
+ * @author agent <agent at local>
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Getter
+@Setter
+public class NadCostEstimation {
+
+    private int nbVoltageLevels;
+    // Pairs of adjacent VLs drawn, the parallel branches counting once
+    private int nbBranches;
+    private int maxVoltageLevels;
+    // The generation fails above the maximum number of VLs, unless the degraded mode keeps the highest voltage VLs
+    private boolean maxVoltageLevelsExceeded;
+    private long estimatedDurationMillis;
+    private long estimatedSizeBytes;
+}
@@ -9,9 +9,14 @@ package com.powsybl.sld.server.dto.nad;
 import com.powsybl.iidm.network.Network;
 import com.powsybl.nad.NadParameters;
 import com.powsybl.nad.build.iidm.VoltageLevelFilter;
+import com.powsybl.sld.server.dto.Coordinate;
+import com.powsybl.sld.server.utils.ConfiguredPositionsIndex;
+import com.powsybl.sld.server.utils.FixedLayoutPositions;
 import com.powsybl.sld.server.utils.NadPositionsGenerationMode;
+import com.powsybl.sld.server.utils.VoltageLevelAdjacencyIndex;
 import lombok.*;
 
+import java.time.Duration;
 import java.util.*;
 
 /**
@@ -29,6 +34,11 @@ public class NadGenerationContext {
     private String variantId;
     private NadPositionsGenerationMode nadPositionsGenerationMode;
     private Integer scalingFactor;
+    // Version of the NAD config the VLs and positions come from, if any
+    private Long nadConfigVersion;
+    private UUID nadPositionsConfigUuid;
+    private int layoutMaxIterations;
+    private Duration layoutTimeout;
 
     @Builder.Default
     private List<NadVoltageLevelPositionInfos> positions = new ArrayList<>();
@@ -36,7 +46,23 @@ public class NadGenerationContext {
     @Builder.Default
     private Set<String> voltageLevelIds = new HashSet<>();
 
+    // Prepared fixed layout inputs of the positions of a NAD config or of a configured positions set, shared with other generations
+    private FixedLayoutPositions fixedLayoutPositions;
+
+    // Configured positions of the CONFIGURED generation mode, resolved once for the generation
+    private ConfiguredPositionsIndex configuredPositionsIndex;
+
     private VoltageLevelFilter voltageLevelFilter;
 
     private NadParameters nadParameters;
+
+    // Only fetched when neighbours are looked up
+    private VoltageLevelAdjacencyIndex adjacencyIndex;
+
+    // Geo data of the substations, fetched once for a batch of generations and already assigned to the network
+    private Map<String, Coordinate> substationGeoData;
+
+    // Information gathered along the generation, added to the additional metadata
+    @Builder.Default
+    private Map<String, Object> additionalMetadata = new HashMap<>();
 }
@@ -7,6 +7,8 @@
 package com.powsybl.sld.server.dto.nad;
 
 import com.powsybl.sld.server.dto.CurrentLimitViolationInfos;
+import com.powsybl.sld.server.utils.NadLayoutAlgorithm;
+import com.powsybl.sld.server.utils.NadOutputFormat;
 import com.powsybl.sld.server.utils.NadPositionsGenerationMode;
 import lombok.*;
 
@@ -24,13 +26,32 @@ public class NadRequestInfos {
     private Set<String> voltageLevelIds = new HashSet<>();
     @Builder.Default
     private Set<String> voltageLevelToExpandIds = new HashSet<>();
+    // Expansion depth by VL id, the VLs of voltageLevelToExpandIds being expanded at depth 1
+    @Builder.Default
+    private Map<String, Integer> voltageLevelToExpandDepths = new HashMap<>();
+    // Maximum number of VLs resulting from the expansion, the expanded VLs being always kept
+    private Integer maxExpandedVoltageLevels;
     @Builder.Default
     private Set<String> voltageLevelToOmitIds = new HashSet<>();
     @Builder.Default
     private List<NadVoltageLevelPositionInfos> positions = new ArrayList<>();
     private NadPositionsGenerationMode nadPositionsGenerationMode;
     private UUID nadPositionsConfigUuid;
+    // Viewport in diagram coordinates, only the voltage levels positioned inside it and the edges crossing it are rendered
+    private BoundingBox boundingBox;
+    // Only the VLs of at least this nominal voltage are displayed when set, in kV
+    private Double minNominalVoltage;
+    // Algorithm placing the VLs without position, the server configuration is used when not set
+    private NadLayoutAlgorithm layoutAlgorithm;
+    // Positions of a previous diagram, unlike the positions the VLs start from them but may move. They imply the BARNES_HUT layout
+    @Builder.Default
+    private List<NadVoltageLevelPositionInfos> seedPositions = new ArrayList<>();
+    // Layout budget, bounded by the server configuration which is used when not set. A time budget implies the BARNES_HUT layout
+    private Integer layoutMaxIterations;
+    private Long layoutTimeoutMillis;
     private List<CurrentLimitViolationInfos> currentLimitViolationsInfos;
     @Builder.Default
     private String language = "en";
+    @Builder.Default
+    private NadOutputFormat outputFormat = NadOutputFormat.SVG;
 }
@@ -0,0 +1,89 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.sld.server.dto.nad;
+
+import lombok.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Laid out NAD for the clients drawing it themselves. The style classes are given once in {@link #styleClasses} and referred
+ * to by their index, as the nodes are referred to by the edges and labels. The edges follow the routing of the SVG, so that the
+ * parallel edges do not overlap.
+ *
+ * @author agent <agent at local>
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Getter
+@Setter
+public class NadSceneGraph {
+
+    @Builder.Default
+    private List<String> styleClasses = new ArrayList<>();
+    @Builder.Default
+    private List<Node> nodes = new ArrayList<>();
+    @Builder.Default
+    private List<Edge> edges = new ArrayList<>();
+    @Builder.Default
+    private List<Label> labels = new ArrayList<>();
+
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Getter
+    @Setter
+    public static class Node {
+        // Id of the equipment, a VL for the VL nodes
+        private String id;
+        private double x;
+        private double y;
+        private int[] classes;
+    }
+
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Getter
+    @Setter
+    public static class Edge {
+        private String id;
+        private String type;
+        private int node1;
+        private int node2;
+        private int[] classes;
+        // Labels of the edge info in the middle of the edge, empty if none
+        private String[] info;
+        // From node1 and from node2 to the middle of the edge, a single side from node1 for the legs of the three windings transformers
+        private List<Side> sides;
+    }
+
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Getter
+    @Setter
+    public static class Side {
+        // Polyline as x1, y1, x2, y2...
+        private double[] points;
+        private int[] classes;
+        // Labels of the edge info of the side, empty if none
+        private String[] info;
+    }
+
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Getter
+    @Setter
+    public static class Label {
+        private int node;
+        // Top left anchor of the label
+        private double x;
+        private double y;
+        // Lines of the label
+        private String[] text;
+    }
+}
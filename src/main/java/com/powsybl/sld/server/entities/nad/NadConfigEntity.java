@@ -48,6 +48,11 @@ public class NadConfigEntity extends AbstractManuallyAssignedIdentifierEntity<UU
     @Column(name = "scalingFactor")
     private Integer scalingFactor;
 
+    // Incremented on each update, so that the data derived from a NAD config can be cached by version
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     @OneToMany(cascade = CascadeType.ALL)
     @JoinColumn(name = "nad_config_id")
     @Builder.Default
@@ -58,6 +63,7 @@ public class NadConfigEntity extends AbstractManuallyAssignedIdentifierEntity<UU
         nadConfigInfosBuilder.id(this.id)
                 .voltageLevelIds(this.voltageLevelIds)
                 .scalingFactor(this.scalingFactor)
+                .version(this.version)
                 .build();
         nadConfigInfosBuilder.positions(this.positions.stream().map(NadVoltageLevelPositionEntity::toDto).toList());
         return nadConfigInfosBuilder.build();
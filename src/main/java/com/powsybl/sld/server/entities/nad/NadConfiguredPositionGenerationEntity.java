@@ -0,0 +1,47 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.sld.server.entities.nad;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.UUID;
+
+/**
+ * A generation groups the configured positions imported by one CSV upload into a positions config.
+ * Only the positions of the active generation of each positions config are visible to the NAD generations.
+ *
+ * @author agent <agent at local>
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@Entity
+@Table(name = "nadConfiguredPositionGeneration", indexes = {
+    @Index(name = "nadConfiguredPositionGeneration_positionsConfig_index", columnList = "positions_config_id")
+})
+public class NadConfiguredPositionGenerationEntity {
+
+    @Id
+    @Column(name = "id")
+    private UUID id;
+
+    // null for the default positions config
+    @Column(name = "positionsConfigId")
+    private UUID positionsConfigId;
+
+    @Column(name = "active", nullable = false)
+    private boolean active;
+}
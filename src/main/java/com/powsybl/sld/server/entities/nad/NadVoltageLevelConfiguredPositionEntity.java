@@ -6,21 +6,32 @@
  */
 package com.powsybl.sld.server.entities.nad;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
+import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.experimental.SuperBuilder;
 
+import java.util.UUID;
+
 /**
  * @author Slimane Amar <slimane.amar at rte-france.com>
  */
+@NoArgsConstructor
 @AllArgsConstructor
 @Getter
 @Setter
 @SuperBuilder
 @Entity
-@Table(name = "nadVoltageLevelConfiguredPosition")
+@Table(name = "nadVoltageLevelConfiguredPosition", indexes = {
+    @Index(name = "nadVoltageLevelConfiguredPosition_generation_index", columnList = "generation_id")
+})
 public class NadVoltageLevelConfiguredPositionEntity extends AbstractNadVoltageLevelPositionEntity {
+
+    @Column(name = "generation_id")
+    private UUID generationId;
 }
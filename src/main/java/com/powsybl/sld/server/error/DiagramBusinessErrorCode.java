@@ -18,7 +18,8 @@ public enum DiagramBusinessErrorCode implements BusinessErrorCode {
     MAX_VOLTAGE_LEVELS_DISPLAYED("diagram.maxVoltageLevelDisplayed"),
     EQUIPMENT_NOT_FOUND("diagram.equipmentNotFound"),
     NO_CONFIGURED_POSITION("diagram.noConfiguredPosition"),
-    NO_VOLTAGE_LEVEL_FOUND("diagram.noVoltageLevelFound");
+    NO_VOLTAGE_LEVEL_FOUND("diagram.noVoltageLevelFound"),
+    POSITIONS_CONFIG_NOT_FOUND("diagram.positionsConfigNotFound");
 
     private final String code;
 
@@ -34,10 +34,17 @@ public class DiagramExceptionHandler extends AbstractBusinessExceptionHandler<Di
 
     @Override
     protected HttpStatus mapStatus(DiagramBusinessErrorCode businessErrorCode) {
+        return getStatus(businessErrorCode);
+    }
+
+    /**
+     * Also gives the status of the errors of the diagrams of a batch, reported along with the other diagrams.
+     */
+    public static HttpStatus getStatus(DiagramBusinessErrorCode businessErrorCode) {
         return switch (businessErrorCode) {
             case NO_CONFIGURED_POSITION, NO_VOLTAGE_LEVEL_FOUND, MAX_VOLTAGE_LEVELS_DISPLAYED,
                  INVALID_DISPLAY_MODE, INVALID_SUBSTATION_LAYOUT, INVALID_EQUIPMENT_TYPE -> HttpStatus.BAD_REQUEST;
-            case EQUIPMENT_NOT_FOUND -> HttpStatus.NOT_FOUND;
+            case EQUIPMENT_NOT_FOUND, POSITIONS_CONFIG_NOT_FOUND -> HttpStatus.NOT_FOUND;
         };
     }
 
@@ -7,8 +7,12 @@
 package com.powsybl.sld.server.repository;
 
 import com.powsybl.sld.server.entities.nad.NadConfigEntity;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -18,7 +22,15 @@ import java.util.UUID;
  * @author Charly Boutier <charly.boutier at rte-france.com>
  */
 @Repository
-public interface NadConfigRepository extends JpaRepository<NadConfigEntity, UUID> {
+public interface NadConfigRepository extends JpaRepository<NadConfigEntity, UUID>, NadConfigRepositoryCustom {
     @EntityGraph(attributePaths = {"voltageLevelIds"}, type = EntityGraph.EntityGraphType.LOAD)
     Optional<NadConfigEntity> findWithVoltageLevelIdsById(UUID id);
+
+    // The version is incremented at commit even when only the positions change, as they are other entities
+    @Lock(LockModeType.OPTIMISTIC_FORCE_INCREMENT)
+    @EntityGraph(attributePaths = {"voltageLevelIds"}, type = EntityGraph.EntityGraphType.LOAD)
+    Optional<NadConfigEntity> findForUpdateById(UUID id);
+
+    @Query("SELECT c.version FROM NadConfigEntity c WHERE c.id = :id")
+    Optional<Long> findVersionById(@Param("id") UUID id);
 }
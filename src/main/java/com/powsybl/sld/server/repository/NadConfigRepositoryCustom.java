@@ -0,0 +1,35 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.sld.server.repository;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Set-based operations on NAD configs, executed directly in SQL without loading the entity graph.
+ *
+ * @author agent <agent at local>
+ */
+public interface NadConfigRepositoryCustom {
+
+    /**
+     * Copies the given configs, their voltage level ids and their positions with INSERT ... SELECT statements.
+     *
+     * @param newIdsByOriginId the id of the copy to create, for each origin config id
+     * @return the number of copied configs
+     */
+    int duplicateAll(Map<UUID, UUID> newIdsByOriginId);
+
+    /**
+     * Deletes the given configs with their voltage level ids and positions, with one DELETE statement per table.
+     * Unknown ids are ignored.
+     *
+     * @return the number of deleted configs
+     */
+    int deleteAllWithChildrenById(Collection<UUID> ids);
+}
@@ -0,0 +1,96 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.sld.server.repository;
+
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Implementation of {@link NadConfigRepositoryCustom}, picked up by Spring Data as a fragment of {@link NadConfigRepository}.
+ *
+ * @author agent <agent at local>
+ */
+public class NadConfigRepositoryCustomImpl implements NadConfigRepositoryCustom {
+
+    private static final String MAPPING_PARAM = "mapping";
+    private static final String IDS_PARAM = "ids";
+
+    // The mapping (origin id, copy id) is bound as a list of tuples, expanded by NamedParameterJdbcTemplate into a VALUES list
+    private static final String DUPLICATE_CONFIGS = """
+        INSERT INTO nad_config (id, scaling_factor)
+        SELECT m.new_id, c.scaling_factor
+        FROM nad_config c JOIN (VALUES :mapping) AS m(old_id, new_id) ON c.id = m.old_id
+        """;
+
+    private static final String DUPLICATE_VOLTAGE_LEVELS = """
+        INSERT INTO nad_config_voltage_level (nad_config_entity_id, voltage_level_ids)
+        SELECT m.new_id, v.voltage_level_ids
+        FROM nad_config_voltage_level v JOIN (VALUES :mapping) AS m(old_id, new_id) ON v.nad_config_entity_id = m.old_id
+        """;
+
+    private static final String DUPLICATE_POSITIONS = """
+        INSERT INTO nad_voltage_level_position (id, nad_config_id, voltage_level_id, x_position, y_position, x_label_position, y_label_position)
+        SELECT %s, m.new_id, p.voltage_level_id, p.x_position, p.y_position, p.x_label_position, p.y_label_position
+        FROM nad_voltage_level_position p JOIN (VALUES :mapping) AS m(old_id, new_id) ON p.nad_config_id = m.old_id
+        """;
+
+    private static final String DELETE_POSITIONS = "DELETE FROM nad_voltage_level_position WHERE nad_config_id IN (:ids)";
+    private static final String DELETE_VOLTAGE_LEVELS = "DELETE FROM nad_config_voltage_level WHERE nad_config_entity_id IN (:ids)";
+    private static final String DELETE_CONFIGS = "DELETE FROM nad_config WHERE id IN (:ids)";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    private String randomUuidFunction;
+
+    public NadConfigRepositoryCustomImpl(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public int duplicateAll(Map<UUID, UUID> newIdsByOriginId) {
+        if (newIdsByOriginId.isEmpty()) {
+            return 0;
+        }
+        List<Object[]> mapping = newIdsByOriginId.entrySet().stream()
+            .map(entry -> new Object[] {entry.getKey(), entry.getValue()})
+            .toList();
+        MapSqlParameterSource parameters = new MapSqlParameterSource(MAPPING_PARAM, mapping);
+
+        int nbDuplicatedConfigs = jdbcTemplate.update(DUPLICATE_CONFIGS, parameters);
+        jdbcTemplate.update(DUPLICATE_VOLTAGE_LEVELS, parameters);
+        jdbcTemplate.update(DUPLICATE_POSITIONS.formatted(getRandomUuidFunction()), parameters);
+        return nbDuplicatedConfigs;
+    }
+
+    @Override
+    public int deleteAllWithChildrenById(Collection<UUID> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        MapSqlParameterSource parameters = new MapSqlParameterSource(IDS_PARAM, ids);
+        // Children first because of the foreign keys towards nad_config
+        jdbcTemplate.update(DELETE_POSITIONS, parameters);
+        jdbcTemplate.update(DELETE_VOLTAGE_LEVELS, parameters);
+        return jdbcTemplate.update(DELETE_CONFIGS, parameters);
+    }
+
+    // Position ids are generated by the database, the function name depends on the vendor (H2 in tests, PostgreSQL otherwise)
+    private String getRandomUuidFunction() {
+        if (randomUuidFunction == null) {
+            String databaseProductName = jdbcTemplate.getJdbcTemplate().execute((ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+            randomUuidFunction = Objects.equals(databaseProductName, "H2") ? "RANDOM_UUID()" : "gen_random_uuid()";
+        }
+        return randomUuidFunction;
+    }
+}
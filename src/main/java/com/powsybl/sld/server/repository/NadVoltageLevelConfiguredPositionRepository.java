@@ -8,13 +8,25 @@ package com.powsybl.sld.server.repository;
 
 import com.powsybl.sld.server.entities.nad.NadVoltageLevelConfiguredPositionEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 /**
  * @author Slimane Amar <slimane.amar at rte-france.com>
  */
 @Repository
-public interface NadVoltageLevelConfiguredPositionRepository extends JpaRepository<NadVoltageLevelConfiguredPositionEntity, UUID> {
+public interface NadVoltageLevelConfiguredPositionRepository extends JpaRepository<NadVoltageLevelConfiguredPositionEntity, UUID>, NadVoltageLevelConfiguredPositionRepositoryCustom {
+
+    @Query("SELECT g.id FROM NadConfiguredPositionGenerationEntity g WHERE g.active = true AND g.positionsConfigId IS NULL")
+    Optional<UUID> findActiveGenerationId();
+
+    @Query("SELECT g.id FROM NadConfiguredPositionGenerationEntity g WHERE g.active = true AND g.positionsConfigId = :positionsConfigId")
+    Optional<UUID> findActiveGenerationId(@Param("positionsConfigId") UUID positionsConfigId);
+
+    List<NadVoltageLevelConfiguredPositionEntity> findAllByGenerationId(UUID generationId);
 }
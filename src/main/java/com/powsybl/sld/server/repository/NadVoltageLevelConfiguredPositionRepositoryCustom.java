@@ -0,0 +1,41 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.sld.server.repository;
+
+import com.powsybl.sld.server.dto.nad.NadVoltageLevelPositionInfos;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Bulk import of configured positions: the positions are written with JDBC batches into a staging generation,
+ * which replaces the active one in a single statement once the import is complete.
+ * Each positions config has its own generations, a null positions config id designates the default positions config.
+ *
+ * @author agent <agent at local>
+ */
+public interface NadVoltageLevelConfiguredPositionRepositoryCustom {
+
+    /**
+     * @return the id of a new, inactive, generation of the given positions config
+     */
+    UUID createStagingGeneration(UUID positionsConfigId);
+
+    void insertAll(UUID generationId, List<NadVoltageLevelPositionInfos> positions);
+
+    /**
+     * Makes the given generation the active one of the given positions config and removes the positions of its other generations.
+     */
+    void activateGeneration(UUID positionsConfigId, UUID generationId);
+
+    /**
+     * Removes all the generations and positions of the given positions config.
+     *
+     * @return the number of removed generations
+     */
+    int deletePositionsConfig(UUID positionsConfigId);
+}
@@ -0,0 +1,110 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.sld.server.repository;
+
+import com.powsybl.sld.server.dto.nad.NadVoltageLevelPositionInfos;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Implementation of {@link NadVoltageLevelConfiguredPositionRepositoryCustom}, picked up by Spring Data as a fragment
+ * of {@link NadVoltageLevelConfiguredPositionRepository}.
+ *
+ * @author agent <agent at local>
+ */
+public class NadVoltageLevelConfiguredPositionRepositoryCustomImpl implements NadVoltageLevelConfiguredPositionRepositoryCustom {
+
+    private static final String GENERATION_ID_PARAM = "generationId";
+    private static final String POSITIONS_CONFIG_ID_PARAM = "positionsConfigId";
+
+    private static final String INSERT_DEFAULT_GENERATION = "INSERT INTO nad_configured_position_generation (id, active) VALUES (:generationId, false)";
+    private static final String INSERT_GENERATION = "INSERT INTO nad_configured_position_generation (id, positions_config_id, active) VALUES (:generationId, :positionsConfigId, false)";
+
+    private static final String INSERT_POSITION = """
+        INSERT INTO nad_voltage_level_configured_position (id, generation_id, voltage_level_id, x_position, y_position, x_label_position, y_label_position)
+        VALUES (?, ?, ?, ?, ?, ?, ?)
+        """;
+
+    // A null parameter cannot be typed by every driver, so the default positions config gets its own condition instead of IS NOT DISTINCT FROM
+    private static final String DEFAULT_POSITIONS_CONFIG_CONDITION = "positions_config_id IS NULL";
+    private static final String POSITIONS_CONFIG_CONDITION = "positions_config_id = :positionsConfigId";
+
+    // Single statement, so that there is always exactly one active generation per positions config
+    private static final String ACTIVATE_GENERATION = "UPDATE nad_configured_position_generation SET active = (id = :generationId) WHERE %s";
+    private static final String DELETE_OTHER_GENERATIONS_POSITIONS = """
+        DELETE FROM nad_voltage_level_configured_position
+        WHERE generation_id IN (SELECT id FROM nad_configured_position_generation WHERE %s AND id <> :generationId)
+        """;
+    // Positions imported before the generations were introduced belong to the default positions config
+    private static final String DELETE_LEGACY_POSITIONS = "DELETE FROM nad_voltage_level_configured_position WHERE generation_id IS NULL";
+    private static final String DELETE_OTHER_GENERATIONS = "DELETE FROM nad_configured_position_generation WHERE %s AND id <> :generationId";
+
+    private static final String DELETE_POSITIONS_CONFIG_POSITIONS = """
+        DELETE FROM nad_voltage_level_configured_position
+        WHERE generation_id IN (SELECT id FROM nad_configured_position_generation WHERE %s)
+        """;
+    private static final String DELETE_POSITIONS_CONFIG_GENERATIONS = "DELETE FROM nad_configured_position_generation WHERE %s";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public NadVoltageLevelConfiguredPositionRepositoryCustomImpl(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    private static String getPositionsConfigCondition(UUID positionsConfigId) {
+        return positionsConfigId == null ? DEFAULT_POSITIONS_CONFIG_CONDITION : POSITIONS_CONFIG_CONDITION;
+    }
+
+    @Override
+    public UUID createStagingGeneration(UUID positionsConfigId) {
+        UUID generationId = UUID.randomUUID();
+        MapSqlParameterSource parameters = new MapSqlParameterSource(GENERATION_ID_PARAM, generationId)
+            .addValue(POSITIONS_CONFIG_ID_PARAM, positionsConfigId);
+        jdbcTemplate.update(positionsConfigId == null ? INSERT_DEFAULT_GENERATION : INSERT_GENERATION, parameters);
+        return generationId;
+    }
+
+    @Override
+    public void insertAll(UUID generationId, List<NadVoltageLevelPositionInfos> positions) {
+        jdbcTemplate.getJdbcTemplate().batchUpdate(INSERT_POSITION, positions, positions.size(), (preparedStatement, position) -> {
+            preparedStatement.setObject(1, UUID.randomUUID());
+            preparedStatement.setObject(2, generationId);
+            preparedStatement.setString(3, position.getVoltageLevelId());
+            preparedStatement.setObject(4, position.getXPosition());
+            preparedStatement.setObject(5, position.getYPosition());
+            preparedStatement.setObject(6, position.getXLabelPosition());
+            preparedStatement.setObject(7, position.getYLabelPosition());
+        });
+    }
+
+    @Override
+    public void activateGeneration(UUID positionsConfigId, UUID generationId) {
+        String positionsConfigCondition = getPositionsConfigCondition(positionsConfigId);
+        MapSqlParameterSource parameters = new MapSqlParameterSource(GENERATION_ID_PARAM, generationId)
+            .addValue(POSITIONS_CONFIG_ID_PARAM, positionsConfigId);
+        jdbcTemplate.update(ACTIVATE_GENERATION.formatted(positionsConfigCondition), parameters);
+        jdbcTemplate.update(DELETE_OTHER_GENERATIONS_POSITIONS.formatted(positionsConfigCondition), parameters);
+        if (positionsConfigId == null) {
+            jdbcTemplate.update(DELETE_LEGACY_POSITIONS, parameters);
+        }
+        jdbcTemplate.update(DELETE_OTHER_GENERATIONS.formatted(positionsConfigCondition), parameters);
+    }
+
+    @Override
+    public int deletePositionsConfig(UUID positionsConfigId) {
+        String positionsConfigCondition = getPositionsConfigCondition(positionsConfigId);
+        MapSqlParameterSource parameters = new MapSqlParameterSource(POSITIONS_CONFIG_ID_PARAM, positionsConfigId);
+        jdbcTemplate.update(DELETE_POSITIONS_CONFIG_POSITIONS.formatted(positionsConfigCondition), parameters);
+        if (positionsConfigId == null) {
+            jdbcTemplate.update(DELETE_LEGACY_POSITIONS, parameters);
+        }
+        return jdbcTemplate.update(DELETE_POSITIONS_CONFIG_GENERATIONS.formatted(positionsConfigCondition), parameters);
+    }
+}
@@ -0,0 +1,411 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.sld.server.utils;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Spring-electrical force layout of an undirected graph, with the repulsion between all the nodes approximated
+ * with a Barnes-Hut quadtree in O(n log n) per iteration instead of O(n^2). The forces on the nodes are computed
+ * in parallel with a fork-join pool.
+ * <p>
+ * The step size is adapted as in Y. Hu, "Efficient and high quality force-directed graph drawing": it grows while
+ * the energy decreases and shrinks otherwise, the layout being converged when the nodes barely move.
+ * <p>
+ * The fixed nodes keep their positions and only push and pull the other ones. The nodes are numbered from 0 to
+ * {@code nbNodes - 1}, the neighbours of node {@code i} spanning {@code [neighbourStarts[i], neighbourStarts[i + 1])}
+ * of {@code neighbours}.
+ *
+ * @author agent <agent at local>
+ */
+public final class BarnesHutForceLayout {
+
+    public record Result(double[] xs, double[] ys, int nbIterations, boolean converged) {
+    }
+
+    // Approximation criterion: a quadtree cell is seen as a single body when its size over its distance is below THETA
+    private static final double THETA = 0.8;
+    private static final double REPULSION = 0.2;
+    // Pulls the nodes towards the center of all the nodes so that the disconnected nodes do not drift away
+    private static final double GRAVITY = 0.05;
+    private static final double STEP_RATIO = 0.9;
+    private static final int STEPS_BEFORE_GROWING = 5;
+    // Initial step of the relaxation of a warm start, which only shrinks so that the seeded nodes move less than the spring length
+    private static final double WARM_START_STEP_RATIO = 0.1;
+    // Converged when the nodes move on average less than this fraction of the spring length
+    private static final double TOLERANCE = 0.01;
+    private static final int MAX_TREE_DEPTH = 48;
+    private static final int NODES_PER_TASK = 512;
+    private static final long RANDOM_SEED = 42;
+
+    private final int nbNodes;
+    private final int[] neighbourStarts;
+    private final int[] neighbours;
+    private final double springLength;
+    private final ForkJoinPool pool;
+
+    public BarnesHutForceLayout(int[] neighbourStarts, int[] neighbours, double springLength, ForkJoinPool pool) {
+        this.nbNodes = neighbourStarts.length - 1;
+        this.neighbourStarts = Objects.requireNonNull(neighbourStarts);
+        this.neighbours = Objects.requireNonNull(neighbours);
+        this.springLength = springLength;
+        this.pool = Objects.requireNonNull(pool);
+    }
+
+    /**
+     * @param xs the initial abscissas, {@link Double#NaN} for the nodes to be placed
+     * @param ys the initial ordinates, {@link Double#NaN} for the nodes to be placed
+     * @param fixedNodes the nodes keeping their initial positions, which must be given
+     */
+    public Result layout(double[] xs, double[] ys, BitSet fixedNodes, int maxIterations) {
+        return layout(xs, ys, fixedNodes, new BitSet(), maxIterations, null);
+    }
+
+    public Result layout(double[] xs, double[] ys, BitSet fixedNodes, BitSet seededNodes, int maxIterations) {
+        return layout(xs, ys, fixedNodes, seededNodes, maxIterations, null);
+    }
+
+    /**
+     * Warm start from a previous layout: the nodes to be placed are first settled with the seeded nodes kept at their seeds,
+     * then all the nodes which are not fixed are relaxed with a small and shrinking step so that the seeded nodes only move slightly.
+     * <p>
+     * The layout stops when the iterations or the time are exhausted, with the positions reached so far.
+     * @param seededNodes the nodes starting from their initial positions, which must be given. Without seeded nodes, the layout is a cold start
+     * @param timeout the maximum duration of the layout, unlimited if null
+     */
+    public Result layout(double[] xs, double[] ys, BitSet fixedNodes, BitSet seededNodes, int maxIterations, Duration timeout) {
+        long start = System.nanoTime();
+        long timeoutNanos = timeout != null ? timeout.toNanos() : Long.MAX_VALUE;
+        if (seededNodes.isEmpty()) {
+            return run(xs, ys, fixedNodes, springLength, true, maxIterations, start, timeoutNanos);
+        }
+        BitSet pinnedNodes = (BitSet) fixedNodes.clone();
+        pinnedNodes.or(seededNodes);
+        Result settled = run(xs, ys, pinnedNodes, springLength, true, maxIterations, start, timeoutNanos);
+        Result relaxed = run(settled.xs(), settled.ys(), fixedNodes, WARM_START_STEP_RATIO * springLength, false,
+            maxIterations - settled.nbIterations(), start, timeoutNanos);
+        return new Result(relaxed.xs(), relaxed.ys(), settled.nbIterations() + relaxed.nbIterations(), relaxed.converged());
+    }
+
+    private Result run(double[] xs, double[] ys, BitSet fixedNodes, double initialStep, boolean growingStep, int maxIterations,
+                       long start, long timeoutNanos) {
+        double[] x = Arrays.copyOf(xs, nbNodes);
+        double[] y = Arrays.copyOf(ys, nbNodes);
+        placeMissingNodes(x, y);
+        BitSet free = new BitSet(nbNodes);
+        free.set(0, nbNodes);
+        free.andNot(fixedNodes);
+        int[] freeNodes = free.stream().toArray();
+        if (freeNodes.length == 0) {
+            return new Result(x, y, 0, true);
+        }
+
+        double[] fx = new double[nbNodes];
+        double[] fy = new double[nbNodes];
+        double step = initialStep;
+        double previousEnergy = Double.POSITIVE_INFINITY;
+        int progress = 0;
+        int iteration = 0;
+        boolean converged = false;
+        while (iteration < maxIterations && !converged && System.nanoTime() - start < timeoutNanos) {
+            QuadTree tree = QuadTree.build(x, y);
+            double[] center = {Arrays.stream(x).average().orElse(0), Arrays.stream(y).average().orElse(0)};
+            pool.invoke(new ForcesTask(freeNodes, 0, freeNodes.length, tree, x, y, fx, fy, center));
+
+            double energy = 0;
+            double displacement = 0;
+            for (int node : freeNodes) {
+                double force = Math.hypot(fx[node], fy[node]);
+                if (force > 0) {
+                    // The nodes in balance barely move whatever the step
+                    double move = Math.min(step, force);
+                    x[node] += move * fx[node] / force;
+                    y[node] += move * fy[node] / force;
+                    displacement += move;
+                }
+                energy += force * force;
+            }
+            iteration++;
+            converged = displacement < TOLERANCE * springLength * freeNodes.length;
+
+            if (growingStep && energy < previousEnergy) {
+                progress++;
+                if (progress >= STEPS_BEFORE_GROWING) {
+                    progress = 0;
+                    step /= STEP_RATIO;
+                }
+            } else {
+                progress = 0;
+                step *= STEP_RATIO;
+            }
+            previousEnergy = energy;
+        }
+        return new Result(x, y, iteration, converged);
+    }
+
+    /**
+     * Places the nodes without position around their placed neighbours, breadth first from the placed nodes, and the
+     * others at random around the center of the placed nodes.
+     */
+    private void placeMissingNodes(double[] x, double[] y) {
+        Random random = new Random(RANDOM_SEED);
+        Deque<Integer> queue = new ArrayDeque<>();
+        double centerX = 0;
+        double centerY = 0;
+        int nbPlaced = 0;
+        for (int node = 0; node < nbNodes; node++) {
+            if (isPlaced(x, y, node)) {
+                queue.add(node);
+                centerX += x[node];
+                centerY += y[node];
+                nbPlaced++;
+            }
+        }
+        if (nbPlaced > 0) {
+            centerX /= nbPlaced;
+            centerY /= nbPlaced;
+        }
+
+        while (!queue.isEmpty()) {
+            int node = queue.poll();
+            for (int i = neighbourStarts[node]; i < neighbourStarts[node + 1]; i++) {
+                int neighbour = neighbours[i];
+                if (!isPlaced(x, y, neighbour)) {
+                    double angle = random.nextDouble() * 2 * Math.PI;
+                    x[neighbour] = x[node] + springLength * Math.cos(angle);
+                    y[neighbour] = y[node] + springLength * Math.sin(angle);
+                    queue.add(neighbour);
+                }
+            }
+        }
+
+        double radius = springLength * Math.sqrt(nbNodes);
+        for (int node = 0; node < nbNodes; node++) {
+            if (!isPlaced(x, y, node)) {
+                double angle = random.nextDouble() * 2 * Math.PI;
+                double distance = radius * Math.sqrt(random.nextDouble());
+                x[node] = centerX + distance * Math.cos(angle);
+                y[node] = centerY + distance * Math.sin(angle);
+            }
+        }
+    }
+
+    private static boolean isPlaced(double[] x, double[] y, int node) {
+        return !Double.isNaN(x[node]) && !Double.isNaN(y[node]);
+    }
+
+    private final class ForcesTask extends RecursiveAction {
+
+        private final int[] nodes;
+        private final int from;
+        private final int to;
+        private final QuadTree tree;
+        private final double[] x;
+        private final double[] y;
+        private final double[] fx;
+        private final double[] fy;
+        private final double[] center;
+
+        private ForcesTask(int[] nodes, int from, int to, QuadTree tree, double[] x, double[] y, double[] fx, double[] fy, double[] center) {
+            this.nodes = nodes;
+            this.from = from;
+            this.to = to;
+            this.tree = tree;
+            this.x = x;
+            this.y = y;
+            this.fx = fx;
+            this.fy = fy;
+            this.center = center;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > NODES_PER_TASK) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new ForcesTask(nodes, from, middle, tree, x, y, fx, fy, center),
+                    new ForcesTask(nodes, middle, to, tree, x, y, fx, fy, center));
+                return;
+            }
+            double repulsion = REPULSION * springLength * springLength;
+            int[] stack = new int[3 * MAX_TREE_DEPTH + 4];
+            for (int i = from; i < to; i++) {
+                int node = nodes[i];
+                double[] force = tree.repulsion(x[node], y[node], repulsion, stack);
+                double forceX = force[0];
+                double forceY = force[1];
+                for (int j = neighbourStarts[node]; j < neighbourStarts[node + 1]; j++) {
+                    int neighbour = neighbours[j];
+                    double dx = x[neighbour] - x[node];
+                    double dy = y[neighbour] - y[node];
+                    double distance = Math.hypot(dx, dy);
+                    forceX += dx * distance / springLength;
+                    forceY += dy * distance / springLength;
+                }
+                forceX += GRAVITY * (center[0] - x[node]);
+                forceY += GRAVITY * (center[1] - y[node]);
+                fx[node] = forceX;
+                fy[node] = forceY;
+            }
+        }
+    }
+
+    /**
+     * Quadtree over the node positions, in flat arrays. Each cell stores the number of nodes it contains and their
+     * center of mass, the nodes closer than the maximum depth allows being merged in the same leaf.
+     */
+    private static final class QuadTree {
+
+        private static final int NO_CHILD = -1;
+
+        private int nbCells;
+        private int[] firstChilds;
+        private int[] bodies;
+        private double[] masses;
+        private double[] massXs;
+        private double[] massYs;
+        private double[] centerXs;
+        private double[] centerYs;
+        private double[] halfSizes;
+
+        private QuadTree(int capacity) {
+            firstChilds = new int[capacity];
+            bodies = new int[capacity];
+            masses = new double[capacity];
+            massXs = new double[capacity];
+            massYs = new double[capacity];
+            centerXs = new double[capacity];
+            centerYs = new double[capacity];
+            halfSizes = new double[capacity];
+        }
+
+        static QuadTree build(double[] x, double[] y) {
+            double minX = Double.POSITIVE_INFINITY;
+            double minY = Double.POSITIVE_INFINITY;
+            double maxX = Double.NEGATIVE_INFINITY;
+            double maxY = Double.NEGATIVE_INFINITY;
+            for (int node = 0; node < x.length; node++) {
+                minX = Math.min(minX, x[node]);
+                minY = Math.min(minY, y[node]);
+                maxX = Math.max(maxX, x[node]);
+                maxY = Math.max(maxY, y[node]);
+            }
+            QuadTree tree = new QuadTree(Math.max(16, 2 * x.length));
+            double halfSize = Math.max(Math.max(maxX - minX, maxY - minY) / 2, 1);
+            tree.newCell((minX + maxX) / 2, (minY + maxY) / 2, halfSize);
+            for (int node = 0; node < x.length; node++) {
+                tree.insert(node, x[node], y[node], x, y);
+            }
+            return tree;
+        }
+
+        private int newCell(double centerX, double centerY, double halfSize) {
+            if (nbCells == firstChilds.length) {
+                int capacity = 2 * nbCells;
+                firstChilds = Arrays.copyOf(firstChilds, capacity);
+                bodies = Arrays.copyOf(bodies, capacity);
+                masses = Arrays.copyOf(masses, capacity);
+                massXs = Arrays.copyOf(massXs, capacity);
+                massYs = Arrays.copyOf(massYs, capacity);
+                centerXs = Arrays.copyOf(centerXs, capacity);
+                centerYs = Arrays.copyOf(centerYs, capacity);
+                halfSizes = Arrays.copyOf(halfSizes, capacity);
+            }
+            int cell = nbCells++;
+            firstChilds[cell] = NO_CHILD;
+            bodies[cell] = -1;
+            masses[cell] = 0;
+            massXs[cell] = 0;
+            massYs[cell] = 0;
+            centerXs[cell] = centerX;
+            centerYs[cell] = centerY;
+            halfSizes[cell] = halfSize;
+            return cell;
+        }
+
+        private void insert(int node, double nodeX, double nodeY, double[] x, double[] y) {
+            int cell = 0;
+            for (int depth = 0; ; depth++) {
+                // The center of mass is kept as a weighted sum until the whole tree is built
+                masses[cell]++;
+                massXs[cell] += nodeX;
+                massYs[cell] += nodeY;
+                if (firstChilds[cell] == NO_CHILD) {
+                    if (bodies[cell] < 0) {
+                        bodies[cell] = node;
+                        return;
+                    }
+                    if (depth >= MAX_TREE_DEPTH) {
+                        // Merged with the nodes at the same place
+                        return;
+                    }
+                    split(cell, x, y);
+                }
+                cell = firstChilds[cell] + quadrant(cell, nodeX, nodeY);
+            }
+        }
+
+        private void split(int cell, double[] x, double[] y) {
+            double quarterSize = halfSizes[cell] / 2;
+            int firstChild = newCell(centerXs[cell] - quarterSize, centerYs[cell] - quarterSize, quarterSize);
+            newCell(centerXs[cell] + quarterSize, centerYs[cell] - quarterSize, quarterSize);
+            newCell(centerXs[cell] - quarterSize, centerYs[cell] + quarterSize, quarterSize);
+            newCell(centerXs[cell] + quarterSize, centerYs[cell] + quarterSize, quarterSize);
+            firstChilds[cell] = firstChild;
+
+            // Moves down the single body of the former leaf
+            int body = bodies[cell];
+            bodies[cell] = -1;
+            int child = firstChild + quadrant(cell, x[body], y[body]);
+            masses[child] = 1;
+            massXs[child] = x[body];
+            massYs[child] = y[body];
+            bodies[child] = body;
+        }
+
+        private int quadrant(int cell, double nodeX, double nodeY) {
+            return (nodeX >= centerXs[cell] ? 1 : 0) + (nodeY >= centerYs[cell] ? 2 : 0);
+        }
+
+        /**
+         * @return the repulsion force on a node at the given position from all the nodes of the tree
+         */
+        double[] repulsion(double nodeX, double nodeY, double repulsion, int[] stack) {
+            double forceX = 0;
+            double forceY = 0;
+            int top = 0;
+            stack[top++] = 0;
+            while (top > 0) {
+                int cell = stack[--top];
+                double mass = masses[cell];
+                if (mass == 0) {
+                    continue;
+                }
+                double dx = nodeX - massXs[cell] / mass;
+                double dy = nodeY - massYs[cell] / mass;
+                double distanceSquare = dx * dx + dy * dy;
+                boolean farEnough = 4 * halfSizes[cell] * halfSizes[cell] < THETA * THETA * distanceSquare;
+                if (firstChilds[cell] == NO_CHILD || farEnough) {
+                    if (distanceSquare > 0) {
+                        // Magnitude repulsion * mass / distance, along the unit vector (dx, dy) / distance
+                        double factor = repulsion * mass / distanceSquare;
+                        forceX += dx * factor;
+                        forceY += dy * factor;
+                    }
+                } else {
+                    int firstChild = firstChilds[cell];
+                    for (int child = firstChild; child < firstChild + 4; child++) {
+                        stack[top++] = child;
+                    }
+                }
+            }
+            return new double[] {forceX, forceY};
+        }
+    }
+}
@@ -0,0 +1,53 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.sld.server.utils;
+
+import com.powsybl.sld.server.dto.nad.NadVoltageLevelPositionInfos;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Immutable positions of one generation of a positions config, by voltage level id, along with a spatial index for the viewport
+ * queries and the inputs of the fixed layout. A generation never changes once active, so that an index can be shared by
+ * concurrent NAD generations.
+ *
+ * @param positionsConfigId the positions config, null for the default one
+ * @param generationId      the generation of the positions, null for the default positions config before its first upload
+ *
+ * @author agent <agent at local>
+ */
+public record ConfiguredPositionsIndex(UUID positionsConfigId, UUID generationId, Map<String, NadVoltageLevelPositionInfos> positionsByVoltageLevelId,
+                                       PositionGridIndex positionGridIndex, FixedLayoutPositions fixedLayoutPositions) {
+
+    public static ConfiguredPositionsIndex of(UUID positionsConfigId, UUID generationId, Collection<NadVoltageLevelPositionInfos> positions) {
+        Map<String, NadVoltageLevelPositionInfos> positionsByVoltageLevelId = positions.stream()
+            // If a voltage level appears several times in the uploaded file, the last position wins
+            .collect(Collectors.toUnmodifiableMap(NadVoltageLevelPositionInfos::getVoltageLevelId, Function.identity(), (first, last) -> last));
+        return new ConfiguredPositionsIndex(positionsConfigId, generationId, positionsByVoltageLevelId,
+            PositionGridIndex.build(positionsByVoltageLevelId.values()), FixedLayoutPositions.of(positionsByVoltageLevelId.values()));
+    }
+
+    public boolean isEmpty() {
+        return positionsByVoltageLevelId.isEmpty();
+    }
+
+    /**
+     * @return the positions of the given voltage levels, the voltage levels without position being skipped
+     */
+    public List<NadVoltageLevelPositionInfos> getPositions(Collection<String> voltageLevelIds) {
+        List<NadVoltageLevelPositionInfos> positions = new ArrayList<>(voltageLevelIds.size());
+        for (String voltageLevelId : voltageLevelIds) {
+            NadVoltageLevelPositionInfos position = positionsByVoltageLevelId.get(voltageLevelId);
+            if (position != null) {
+                positions.add(position);
+            }
+        }
+        return positions;
+    }
+}
@@ -7,7 +7,18 @@
 package com.powsybl.sld.server.utils;
 
 import com.powsybl.commons.PowsyblException;
+import com.powsybl.iidm.network.Branch;
+import com.powsybl.iidm.network.Bus;
+import com.powsybl.iidm.network.Connectable;
+import com.powsybl.iidm.network.FlowsLimitsHolder;
+import com.powsybl.iidm.network.HvdcConverterStation;
 import com.powsybl.iidm.network.Network;
+import com.powsybl.iidm.network.Substation;
+import com.powsybl.iidm.network.Switch;
+import com.powsybl.iidm.network.Terminal;
+import com.powsybl.iidm.network.ThreeWindingsTransformer;
+import com.powsybl.iidm.network.TopologyKind;
+import com.powsybl.iidm.network.VoltageLevel;
 import com.powsybl.network.store.client.NetworkStoreService;
 import com.powsybl.network.store.client.PreloadingStrategy;
 import com.powsybl.sld.server.dto.CurrentLimitViolationInfos;
@@ -36,6 +47,54 @@ public final class DiagramUtils {
         }
     }
 
+    /**
+     * The network is not safe for concurrent use and lazily loads its equipments, buses, switches, extensions and operational limits,
+     * all read by the label and style providers of the diagrams, and computes its bus views and components on first use. Loads
+     * and computes them for the given voltage levels, so that the parallel generations of a batch do not modify the network while
+     * drawing them. The network should be loaded with the
+     * {@link PreloadingStrategy#ALL_COLLECTIONS_NEEDED_FOR_BUS_VIEW} strategy, so that its equipments come in a single call.
+     */
+    public static void preloadForParallelReads(Collection<VoltageLevel> voltageLevels) {
+        for (VoltageLevel voltageLevel : voltageLevels) {
+            voltageLevel.getExtensions();
+            voltageLevel.getSubstation().ifPresent(Substation::getExtensions);
+            voltageLevel.getBusView().getBuses().forEach(DiagramUtils::preloadBus);
+            voltageLevel.getBusBreakerView().getBuses().forEach(DiagramUtils::preloadBus);
+            if (voltageLevel.getTopologyKind() == TopologyKind.NODE_BREAKER) {
+                voltageLevel.getNodeBreakerView().getSwitches().forEach(Switch::isOpen);
+            } else {
+                voltageLevel.getBusBreakerView().getSwitches().forEach(Switch::isOpen);
+            }
+            voltageLevel.getConnectables().forEach(DiagramUtils::preloadConnectable);
+        }
+    }
+
+    private static void preloadBus(Bus bus) {
+        bus.getV();
+        bus.getAngle();
+        // The components are computed on the whole network on first use
+        bus.getConnectedComponent();
+        bus.getSynchronousComponent();
+    }
+
+    private static void preloadConnectable(Connectable<?> connectable) {
+        connectable.getExtensions();
+        for (Terminal terminal : connectable.getTerminals()) {
+            terminal.getBusView().getBus();
+            terminal.getBusBreakerView().getBus();
+        }
+        if (connectable instanceof Branch<?> branch) {
+            branch.getOperationalLimitsGroups1();
+            branch.getOperationalLimitsGroups2();
+        } else if (connectable instanceof ThreeWindingsTransformer transformer) {
+            transformer.getLegStream().forEach(FlowsLimitsHolder::getOperationalLimitsGroups);
+        } else if (connectable instanceof FlowsLimitsHolder flowsLimitsHolder) {
+            flowsLimitsHolder.getOperationalLimitsGroups();
+        } else if (connectable instanceof HvdcConverterStation<?> converterStation) {
+            converterStation.getHvdcLine();
+        }
+    }
+
     /**
      * Creates a map of equipment ID to CSS style class for limit violations.
      *
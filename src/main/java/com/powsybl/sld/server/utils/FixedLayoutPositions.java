@@ -0,0 +1,84 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.sld.server.utils;
+
+import com.powsybl.nad.layout.TextPosition;
+import com.powsybl.nad.model.Point;
+import com.powsybl.sld.server.dto.nad.NadVoltageLevelPositionInfos;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Inputs of the FixedLayoutFactory prepared from NAD positions. The maps are unmodifiable so that the prepared positions of
+ * a NAD config or of a configured positions set can be shared by concurrent NAD generations.
+ * The positions without coordinates are left to the layout, as well as the labels without coordinates.
+ *
+ * @author agent <agent at local>
+ */
+public record FixedLayoutPositions(Map<String, Point> positions, Map<String, TextPosition> textPositions) {
+
+    public static FixedLayoutPositions of(Collection<NadVoltageLevelPositionInfos> positionInfos) {
+        Map<String, Point> positions = HashMap.newHashMap(positionInfos.size());
+        Map<String, TextPosition> textPositions = HashMap.newHashMap(positionInfos.size());
+        positionInfos.forEach(info -> put(positions, textPositions, info));
+        return new FixedLayoutPositions(Collections.unmodifiableMap(positions), Collections.unmodifiableMap(textPositions));
+    }
+
+    /**
+     * @return these positions if they already hold the given ones with the same coordinates, otherwise a copy where the given
+     * positions replace the prepared ones
+     */
+    public FixedLayoutPositions with(Collection<NadVoltageLevelPositionInfos> positionInfos) {
+        List<NadVoltageLevelPositionInfos> changedPositionInfos = positionInfos.stream().filter(this::isChanged).toList();
+        if (changedPositionInfos.isEmpty()) {
+            return this;
+        }
+        Map<String, Point> completedPositions = new HashMap<>(positions);
+        Map<String, TextPosition> completedTextPositions = new HashMap<>(textPositions);
+        changedPositionInfos.forEach(info -> put(completedPositions, completedTextPositions, info));
+        return new FixedLayoutPositions(Collections.unmodifiableMap(completedPositions), Collections.unmodifiableMap(completedTextPositions));
+    }
+
+    private boolean isChanged(NadVoltageLevelPositionInfos info) {
+        if (info.getXPosition() == null || info.getYPosition() == null) {
+            return false;
+        }
+        Point position = positions.get(info.getVoltageLevelId());
+        if (position == null || Double.compare(position.getX(), info.getXPosition()) != 0 || Double.compare(position.getY(), info.getYPosition()) != 0) {
+            return true;
+        }
+        TextPosition textPosition = textPositions.get(info.getVoltageLevelId());
+        if (info.getXLabelPosition() == null || info.getYLabelPosition() == null) {
+            return textPosition != null;
+        }
+        return textPosition == null
+            || Double.compare(textPosition.topLeftPosition().getX(), info.getXLabelPosition()) != 0
+            || Double.compare(textPosition.topLeftPosition().getY(), info.getYLabelPosition()) != 0;
+    }
+
+    private static void put(Map<String, Point> positions, Map<String, TextPosition> textPositions, NadVoltageLevelPositionInfos info) {
+        if (info.getXPosition() == null || info.getYPosition() == null) {
+            return;
+        }
+        positions.put(info.getVoltageLevelId(), new Point(info.getXPosition(), info.getYPosition()));
+        if (info.getXLabelPosition() != null && info.getYLabelPosition() != null) {
+            textPositions.put(
+                info.getVoltageLevelId(),
+                new TextPosition(
+                    new Point(info.getXLabelPosition(), info.getYLabelPosition()),
+                    new Point(0, 0) // We do not display the edge connections
+                )
+            );
+        } else {
+            textPositions.remove(info.getVoltageLevelId());
+        }
+    }
+}
@@ -0,0 +1,57 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.sld.server.utils;
+
+import com.powsybl.sld.server.dto.Coordinate;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Estimates the density of substations from their geographical coordinates with a histogram over a grid of
+ * {@link #CELL_SIZE} degrees, in linear time.
+ * <p>
+ * The density is the number of substations sharing the cell of a substation, averaged over all the substations.
+ * Unlike a density over the global bounding box, distant clusters of substations (e.g. two regions far apart)
+ * are not diluted by the empty area between them. For substations spread evenly over their bounding box both
+ * estimates are close, so the calibration of the scaling factor is kept.
+ *
+ * @author agent <agent at local>
+ */
+public final class GeographicalDensityEstimator {
+
+    public static final double CELL_SIZE = 0.5;
+
+    private GeographicalDensityEstimator() {
+        // Utility class should not be instantiated
+    }
+
+    /**
+     * @return the average number of substations per cell seen from a substation, 0 if there are no coordinates
+     */
+    public static double estimateDensity(Collection<Coordinate> coordinates) {
+        if (coordinates.isEmpty()) {
+            return 0;
+        }
+        Map<Long, int[]> countByCell = HashMap.newHashMap(coordinates.size());
+        for (Coordinate coordinate : coordinates) {
+            countByCell.computeIfAbsent(cellKey(coordinate), key -> new int[1])[0]++;
+        }
+        long sumOfSquares = 0;
+        for (int[] count : countByCell.values()) {
+            sumOfSquares += (long) count[0] * count[0];
+        }
+        return (double) sumOfSquares / coordinates.size();
+    }
+
+    private static long cellKey(Coordinate coordinate) {
+        long row = (long) Math.floor(coordinate.getLat() / CELL_SIZE);
+        long column = (long) Math.floor(coordinate.getLon() / CELL_SIZE);
+        return (row << 32) ^ (column & 0xFFFFFFFFL);
+    }
+}
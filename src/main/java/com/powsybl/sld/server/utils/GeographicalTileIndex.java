@@ -0,0 +1,303 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.sld.server.utils;
+
+import com.powsybl.iidm.network.*;
+import com.powsybl.iidm.network.extensions.SubstationPosition;
+import com.powsybl.sld.server.dto.nad.BoundingBox;
+import com.powsybl.sld.server.dto.nad.NadSceneGraph;
+
+import java.util.*;
+import java.util.function.DoubleFunction;
+import java.util.function.IntConsumer;
+
+/**
+ * Immutable geographical layout of a whole network, cut into map tiles: the tile {@code (z, x, y)} covers {@code 1 / 2^z} of the
+ * Web Mercator world on each axis, as the tiles of the web maps.
+ * <p>
+ * The VLs are placed at the position of their substation, the VLs without position are left out. The edges are the branches and
+ * HVDC lines between positioned VLs, the three windings transformers being inside a substation they have no length on a map.
+ * The VLs and the edges are bucketed in a grid of {@code 2^}{@link #GRID_ZOOM} cells per axis, an edge only in the cells its
+ * segment crosses, so that a tile only looks at the cells it overlaps.
+ *
+ * @author agent <agent at local>
+ */
+public final class GeographicalTileIndex {
+
+    // Tile coordinates range from 0 to EXTENT, as in the vector tiles of the web maps
+    public static final int EXTENT = 4096;
+    public static final int MAX_ZOOM = 22;
+
+    static final int GRID_ZOOM = 8;
+    private static final int GRID_SIZE = 1 << GRID_ZOOM;
+    private static final double MAX_LATITUDE = 85.05112878;
+
+    private final String[] voltageLevelIds;
+    private final double[] nominalVoltages;
+    private final String[] styleClasses;
+    // World coordinates in [0, 1]
+    private final double[] xs;
+    private final double[] ys;
+
+    private final String[] edgeIds;
+    private final String[] edgeTypes;
+    private final int[] edgeNodes1;
+    private final int[] edgeNodes2;
+
+    // Compressed sparse rows of the VLs and edges by grid cell
+    private final int[] nodeCellStarts;
+    private final int[] nodeCells;
+    private final int[] edgeCellStarts;
+    private final int[] edgeCells;
+
+    private GeographicalTileIndex(List<VoltageLevel> voltageLevels, List<Substation> substations, List<Edge> edges, DoubleFunction<String> styleClassByNominalVoltage) {
+        int nbNodes = voltageLevels.size();
+        voltageLevelIds = new String[nbNodes];
+        nominalVoltages = new double[nbNodes];
+        styleClasses = new String[nbNodes];
+        xs = new double[nbNodes];
+        ys = new double[nbNodes];
+        for (int i = 0; i < nbNodes; i++) {
+            VoltageLevel voltageLevel = voltageLevels.get(i);
+            SubstationPosition position = substations.get(i).getExtension(SubstationPosition.class);
+            voltageLevelIds[i] = voltageLevel.getId();
+            nominalVoltages[i] = voltageLevel.getNominalV();
+            styleClasses[i] = styleClassByNominalVoltage.apply(voltageLevel.getNominalV());
+            xs[i] = (position.getCoordinate().getLongitude() + 180) / 360;
+            double latitude = Math.toRadians(Math.clamp(position.getCoordinate().getLatitude(), -MAX_LATITUDE, MAX_LATITUDE));
+            ys[i] = (1 - Math.log(Math.tan(latitude) + 1 / Math.cos(latitude)) / Math.PI) / 2;
+        }
+
+        int nbEdges = edges.size();
+        edgeIds = new String[nbEdges];
+        edgeTypes = new String[nbEdges];
+        edgeNodes1 = new int[nbEdges];
+        edgeNodes2 = new int[nbEdges];
+        for (int e = 0; e < nbEdges; e++) {
+            edgeIds[e] = edges.get(e).id();
+            edgeTypes[e] = edges.get(e).type();
+            edgeNodes1[e] = edges.get(e).node1();
+            edgeNodes2[e] = edges.get(e).node2();
+        }
+
+        // Counted then filled, a VL being in one cell and an edge in all the cells its segment crosses
+        nodeCellStarts = new int[GRID_SIZE * GRID_SIZE + 1];
+        for (int i = 0; i < nbNodes; i++) {
+            nodeCellStarts[cell(xs[i]) * GRID_SIZE + cell(ys[i]) + 1]++;
+        }
+        nodeCells = new int[nbNodes];
+        fill(nodeCellStarts, nodeCells, nbNodes, (i, consumer) -> consumer.accept(cell(xs[i]) * GRID_SIZE + cell(ys[i])));
+
+        edgeCellStarts = new int[GRID_SIZE * GRID_SIZE + 1];
+        forEachCellOfEdges(nbEdges, (e, cell) -> edgeCellStarts[cell + 1]++);
+        edgeCells = new int[Arrays.stream(edgeCellStarts).sum()];
+        fill(edgeCellStarts, edgeCells, nbEdges, (e, consumer) -> forEachEdgeCell(e, consumer));
+    }
+
+    private record Edge(String id, String type, int node1, int node2) {
+    }
+
+    @FunctionalInterface
+    private interface CellVisitor {
+        void visit(int item, IntConsumer cellConsumer);
+    }
+
+    @FunctionalInterface
+    private interface EdgeCellConsumer {
+        void accept(int edge, int cell);
+    }
+
+    /**
+     * @param network the network, whose substations have been given their {@link SubstationPosition}
+     * @param styleClassByNominalVoltage the style class of a VL from its nominal voltage, null if none
+     */
+    public static GeographicalTileIndex build(Network network, DoubleFunction<String> styleClassByNominalVoltage) {
+        List<VoltageLevel> voltageLevels = new ArrayList<>();
+        List<Substation> substations = new ArrayList<>();
+        Map<String, Integer> indexByVoltageLevelId = new HashMap<>();
+        network.getVoltageLevelStream().forEach(voltageLevel -> voltageLevel.getSubstation()
+            .filter(substation -> substation.getExtension(SubstationPosition.class) != null)
+            .ifPresent(substation -> {
+                indexByVoltageLevelId.put(voltageLevel.getId(), voltageLevels.size());
+                voltageLevels.add(voltageLevel);
+                substations.add(substation);
+            }));
+
+        Map<String, Edge> edgesById = new LinkedHashMap<>();
+        network.getBranchStream().forEach(branch -> addEdge(edgesById, indexByVoltageLevelId, branch.getId(), branch.getType().name(),
+            branch.getTerminal1(), branch.getTerminal2()));
+        network.getTieLineStream().forEach(tieLine -> addEdge(edgesById, indexByVoltageLevelId, tieLine.getId(), tieLine.getType().name(),
+            tieLine.getTerminal1(), tieLine.getTerminal2()));
+        network.getHvdcLineStream().forEach(hvdcLine -> addEdge(edgesById, indexByVoltageLevelId, hvdcLine.getId(), hvdcLine.getType().name(),
+            hvdcLine.getConverterStation1().getTerminal(), hvdcLine.getConverterStation2().getTerminal()));
+
+        return new GeographicalTileIndex(voltageLevels, substations, new ArrayList<>(edgesById.values()), styleClassByNominalVoltage);
+    }
+
+    private static void addEdge(Map<String, Edge> edgesById, Map<String, Integer> indexByVoltageLevelId, String id, String type,
+                                Terminal terminal1, Terminal terminal2) {
+        Integer node1 = indexByVoltageLevelId.get(terminal1.getVoltageLevel().getId());
+        Integer node2 = indexByVoltageLevelId.get(terminal2.getVoltageLevel().getId());
+        if (node1 != null && node2 != null) {
+            edgesById.putIfAbsent(id, new Edge(id, type, node1, node2));
+        }
+    }
+
+    public int getNbVoltageLevels() {
+        return voltageLevelIds.length;
+    }
+
+    public int getNbEdges() {
+        return edgeIds.length;
+    }
+
+    public static boolean isValidTile(int z, int x, int y) {
+        return z >= 0 && z <= MAX_ZOOM && x >= 0 && y >= 0 && x < (1L << z) && y < (1L << z);
+    }
+
+    /**
+     * The VLs of the tile and the edges crossing it, in tile coordinates. The VLs outside the tile at the end of these edges are
+     * also given, with coordinates out of the {@code [0, EXTENT]} range.
+     *
+     * @param minNominalVoltage the VLs below it and their edges are left out
+     */
+    public NadSceneGraph getTile(int z, int x, int y, double minNominalVoltage) {
+        double scale = 1L << z;
+        double minX = x / scale;
+        double maxX = (x + 1) / scale;
+        double minY = y / scale;
+        double maxY = (y + 1) / scale;
+        int minCellX = cell(minX);
+        int maxCellX = Math.min(GRID_SIZE - 1, (int) Math.ceil(maxX * GRID_SIZE) - 1);
+        int minCellY = cell(minY);
+        int maxCellY = Math.min(GRID_SIZE - 1, (int) Math.ceil(maxY * GRID_SIZE) - 1);
+
+        BoundingBox tileBox = new BoundingBox(minX, minY, maxX, maxY);
+        TileBuilder tile = new TileBuilder(scale, x, y);
+        for (int cellX = minCellX; cellX <= maxCellX; cellX++) {
+            for (int cellY = minCellY; cellY <= maxCellY; cellY++) {
+                int cell = cellX * GRID_SIZE + cellY;
+                for (int i = nodeCellStarts[cell]; i < nodeCellStarts[cell + 1]; i++) {
+                    int node = nodeCells[i];
+                    if (nominalVoltages[node] >= minNominalVoltage && xs[node] >= minX && xs[node] < maxX && ys[node] >= minY && ys[node] < maxY) {
+                        tile.addNode(node);
+                    }
+                }
+            }
+        }
+
+        BitSet visitedEdges = new BitSet(edgeIds.length);
+        for (int cellX = minCellX; cellX <= maxCellX; cellX++) {
+            for (int cellY = minCellY; cellY <= maxCellY; cellY++) {
+                int cell = cellX * GRID_SIZE + cellY;
+                for (int i = edgeCellStarts[cell]; i < edgeCellStarts[cell + 1]; i++) {
+                    int edge = edgeCells[i];
+                    if (visitedEdges.get(edge)) {
+                        continue;
+                    }
+                    visitedEdges.set(edge);
+                    int node1 = edgeNodes1[edge];
+                    int node2 = edgeNodes2[edge];
+                    if (nominalVoltages[node1] >= minNominalVoltage && nominalVoltages[node2] >= minNominalVoltage
+                        && tileBox.intersectsSegment(xs[node1], ys[node1], xs[node2], ys[node2])) {
+                        tile.addEdge(edge);
+                    }
+                }
+            }
+        }
+        return tile.sceneGraph;
+    }
+
+    private final class TileBuilder {
+
+        private final double scale;
+        private final int x;
+        private final int y;
+        private final NadSceneGraph sceneGraph = new NadSceneGraph();
+        private final Map<Integer, Integer> sceneNodeByNode = new HashMap<>();
+        private final Map<String, Integer> classIndexes = new HashMap<>();
+
+        private TileBuilder(double scale, int x, int y) {
+            this.scale = scale;
+            this.x = x;
+            this.y = y;
+        }
+
+        private int addNode(int node) {
+            return sceneNodeByNode.computeIfAbsent(node, key -> {
+                sceneGraph.getNodes().add(new NadSceneGraph.Node(voltageLevelIds[node], tileX(node), tileY(node), classes(node)));
+                return sceneGraph.getNodes().size() - 1;
+            });
+        }
+
+        private void addEdge(int edge) {
+            int node1 = edgeNodes1[edge];
+            int node2 = edgeNodes2[edge];
+            // A single straight side, the edges of a tile not being routed
+            NadSceneGraph.Side side = new NadSceneGraph.Side(new double[] {tileX(node1), tileY(node1), tileX(node2), tileY(node2)}, new int[0], new String[0]);
+            sceneGraph.getEdges().add(new NadSceneGraph.Edge(edgeIds[edge], edgeTypes[edge], addNode(node1), addNode(node2), classes(node1),
+                new String[0], List.of(side)));
+        }
+
+        private double tileX(int node) {
+            return (xs[node] * scale - x) * EXTENT;
+        }
+
+        private double tileY(int node) {
+            return (ys[node] * scale - y) * EXTENT;
+        }
+
+        private int[] classes(int node) {
+            if (styleClasses[node] == null) {
+                return new int[0];
+            }
+            return new int[] {classIndexes.computeIfAbsent(styleClasses[node], key -> {
+                sceneGraph.getStyleClasses().add(key);
+                return sceneGraph.getStyleClasses().size() - 1;
+            })};
+        }
+    }
+
+    private void forEachCellOfEdges(int nbEdges, EdgeCellConsumer consumer) {
+        for (int e = 0; e < nbEdges; e++) {
+            int edge = e;
+            forEachEdgeCell(e, cell -> consumer.accept(edge, cell));
+        }
+    }
+
+    private void forEachEdgeCell(int edge, IntConsumer consumer) {
+        int node1 = edgeNodes1[edge];
+        int node2 = edgeNodes2[edge];
+        int maxCellX = cell(Math.max(xs[node1], xs[node2]));
+        int maxCellY = cell(Math.max(ys[node1], ys[node2]));
+        for (int cellX = cell(Math.min(xs[node1], xs[node2])); cellX <= maxCellX; cellX++) {
+            for (int cellY = cell(Math.min(ys[node1], ys[node2])); cellY <= maxCellY; cellY++) {
+                // Only the cells of the bounding box the segment crosses, a diagonal edge missing most of them
+                BoundingBox cellBox = new BoundingBox((double) cellX / GRID_SIZE, (double) cellY / GRID_SIZE,
+                    (double) (cellX + 1) / GRID_SIZE, (double) (cellY + 1) / GRID_SIZE);
+                if (cellBox.intersectsSegment(xs[node1], ys[node1], xs[node2], ys[node2])) {
+                    consumer.accept(cellX * GRID_SIZE + cellY);
+                }
+            }
+        }
+    }
+
+    private static void fill(int[] cellStarts, int[] cellItems, int nbItems, CellVisitor visitor) {
+        for (int cell = 0; cell + 1 < cellStarts.length; cell++) {
+            cellStarts[cell + 1] += cellStarts[cell];
+        }
+        int[] next = Arrays.copyOf(cellStarts, cellStarts.length - 1);
+        for (int item = 0; item < nbItems; item++) {
+            int current = item;
+            visitor.visit(item, cell -> cellItems[next[cell]++] = current);
+        }
+    }
+
+    private static int cell(double worldCoordinate) {
+        return Math.clamp((long) Math.floor(worldCoordinate * GRID_SIZE), 0, GRID_SIZE - 1);
+    }
+}
@@ -0,0 +1,88 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.sld.server.utils;
+
+/**
+ * Linear model of the cost of a NAD generation: its duration and its output size grow with the number of drawn elements, the VLs
+ * and the edges between them. The model is fitted by least squares on the recorded generations, the older generations weighing
+ * less and less so that it follows the changes of the networks and of the server load. Until enough generations are recorded, the
+ * prior coefficients are used.
+ * <p>
+ * Thread safe.
+ *
+ * @author agent <agent at local>
+ */
+public final class NadCostModel {
+
+    public record Estimation(long durationMillis, long sizeBytes) {
+    }
+
+    static final int MIN_SAMPLES = 10;
+    // Weight kept by the previous generations at each new one, the last thousand or so generations being taken into account
+    private static final double DECAY = 0.999;
+    private static final double PRIOR_DURATION_MILLIS_BASE = 200;
+    private static final double PRIOR_DURATION_MILLIS_PER_ELEMENT = 2;
+    private static final double PRIOR_SIZE_BASE = 5000;
+    private static final double PRIOR_SIZE_PER_ELEMENT = 3000;
+
+    private final Regression duration = new Regression(PRIOR_DURATION_MILLIS_BASE, PRIOR_DURATION_MILLIS_PER_ELEMENT);
+    private final Regression size = new Regression(PRIOR_SIZE_BASE, PRIOR_SIZE_PER_ELEMENT);
+    private int nbSamples;
+
+    public synchronized void record(int nbVoltageLevels, int nbEdges, long durationMillis, long sizeBytes) {
+        double nbElements = (double) nbVoltageLevels + nbEdges;
+        duration.add(nbElements, durationMillis);
+        size.add(nbElements, sizeBytes);
+        nbSamples++;
+    }
+
+    public synchronized Estimation estimate(int nbVoltageLevels, int nbEdges) {
+        double nbElements = (double) nbVoltageLevels + nbEdges;
+        boolean fitted = nbSamples >= MIN_SAMPLES;
+        return new Estimation(Math.round(duration.predict(nbElements, fitted)), Math.round(size.predict(nbElements, fitted)));
+    }
+
+    /**
+     * Exponentially weighted simple linear regression, from its running sums.
+     */
+    private static final class Regression {
+
+        private final double priorIntercept;
+        private final double priorSlope;
+        private double sumWeights;
+        private double sumX;
+        private double sumY;
+        private double sumXX;
+        private double sumXY;
+
+        private Regression(double priorIntercept, double priorSlope) {
+            this.priorIntercept = priorIntercept;
+            this.priorSlope = priorSlope;
+        }
+
+        private void add(double x, double y) {
+            sumWeights = DECAY * sumWeights + 1;
+            sumX = DECAY * sumX + x;
+            sumY = DECAY * sumY + y;
+            sumXX = DECAY * sumXX + x * x;
+            sumXY = DECAY * sumXY + x * y;
+        }
+
+        private double predict(double x, boolean fitted) {
+            if (!fitted) {
+                return priorIntercept + priorSlope * x;
+            }
+            double variance = sumWeights * sumXX - sumX * sumX;
+            // All the recorded generations have about the same size: the prior slope is kept, through their mean
+            double slope = variance > 1e-9 * sumWeights * sumXX ? (sumWeights * sumXY - sumX * sumY) / variance : priorSlope;
+            // A cost never decreases with the size, a negative slope only comes from noise
+            slope = Math.max(slope, 0);
+            double intercept = (sumY - slope * sumX) / sumWeights;
+            return Math.max(intercept + slope * x, 0);
+        }
+    }
+}
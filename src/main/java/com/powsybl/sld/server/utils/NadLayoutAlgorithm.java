@@ -0,0 +1,19 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.sld.server.utils;
+
+/**
+ * Algorithm placing the VLs without position in the AUTOMATIC and CONFIGURED NADs.
+ *
+ * @author agent <agent at local>
+ */
+public enum NadLayoutAlgorithm {
+    // The single threaded force layout of the NAD library, in O(n²) per iteration
+    BASIC,
+    // Server side Barnes-Hut force layout, in O(n log n) per iteration and multithreaded, see BarnesHutForceLayout
+    BARNES_HUT
+}
@@ -0,0 +1,19 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.sld.server.utils;
+
+/**
+ * Output of the NAD generation.
+ *
+ * @author agent <agent at local>
+ */
+public enum NadOutputFormat {
+    // SVG with its metadata
+    SVG,
+    // Compact scene graph of the diagram for the clients drawing it themselves, without SVG
+    SCENE_GRAPH
+}
@@ -0,0 +1,367 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.sld.server.utils;
+
+import com.powsybl.sld.server.dto.nad.NadSceneGraph;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Compact binary encoding of a {@link NadSceneGraph}, for the clients drawing the NAD themselves.
+ * <p>
+ * The message starts with the {@link #MAGIC} bytes and the {@link #VERSION} byte, followed by length-prefixed sections:
+ * <ol>
+ *     <li>the string table: the ids of the nodes and edges, the edge types, the style classes, the edge infos and the label texts,
+ *     each string once</li>
+ *     <li>the style classes, as indexes in the string table</li>
+ *     <li>the nodes: id, coordinates, style classes</li>
+ *     <li>the edges: id, type (0 when none, string index + 1 otherwise), node indexes, style classes, info, then the sides: points,
+ *     style classes, info</li>
+ *     <li>the labels: node index, coordinates relative to the node, text</li>
+ *     <li>the additional metadata, as UTF-8 JSON</li>
+ * </ol>
+ * Integers are unsigned LEB128 varints, and lengths are varints too. The infos and texts are lists of string indexes. Coordinates are float32 deltas from the previous coordinate
+ * of the same section, which keeps them small and well compressed. The deltas are computed from the decoded values, so that the
+ * float32 rounding errors do not add up along a section.
+ *
+ * @author agent <agent at local>
+ */
+public final class NadSceneGraphBinaryFormat {
+
+    public static final String MEDIA_TYPE = "application/vnd.gridsuite.nad-scene-graph";
+
+    static final byte[] MAGIC = {'N', 'A', 'D', 'G'};
+    static final byte VERSION = 2;
+
+    public record Decoded(NadSceneGraph sceneGraph, String additionalMetadata) {
+    }
+
+    private NadSceneGraphBinaryFormat() {
+        // Utility class should not be instantiated
+    }
+
+    public static byte[] encode(NadSceneGraph sceneGraph, byte[] additionalMetadata) {
+        Map<String, Integer> stringIndexes = new LinkedHashMap<>();
+        sceneGraph.getStyleClasses().forEach(styleClass -> stringIndexes.putIfAbsent(styleClass, stringIndexes.size()));
+        sceneGraph.getNodes().forEach(node -> stringIndexes.putIfAbsent(node.getId(), stringIndexes.size()));
+        sceneGraph.getEdges().forEach(edge -> {
+            stringIndexes.putIfAbsent(edge.getId(), stringIndexes.size());
+            if (edge.getType() != null) {
+                stringIndexes.putIfAbsent(edge.getType(), stringIndexes.size());
+            }
+            addStrings(stringIndexes, edge.getInfo());
+            sides(edge).forEach(side -> addStrings(stringIndexes, side.getInfo()));
+        });
+        sceneGraph.getLabels().forEach(label -> addStrings(stringIndexes, label.getText()));
+
+        Buffer message = new Buffer(64 + 16 * (sceneGraph.getNodes().size() + 2 * sceneGraph.getEdges().size()) + additionalMetadata.length);
+        message.writeBytes(MAGIC, MAGIC.length);
+        message.writeByte(VERSION);
+        Buffer section = new Buffer(1024);
+
+        for (String string : stringIndexes.keySet()) {
+            byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+            section.writeVarint(bytes.length);
+            section.writeBytes(bytes, bytes.length);
+        }
+        message.writeSection(section, stringIndexes.size());
+
+        for (String styleClass : sceneGraph.getStyleClasses()) {
+            section.writeVarint(stringIndexes.get(styleClass));
+        }
+        message.writeSection(section, sceneGraph.getStyleClasses().size());
+
+        double[] previous = new double[2];
+        for (NadSceneGraph.Node node : sceneGraph.getNodes()) {
+            section.writeVarint(stringIndexes.get(node.getId()));
+            section.writeDelta(node.getX(), previous, 0);
+            section.writeDelta(node.getY(), previous, 1);
+            section.writeClasses(node.getClasses());
+        }
+        message.writeSection(section, sceneGraph.getNodes().size());
+
+        Arrays.fill(previous, 0);
+        for (NadSceneGraph.Edge edge : sceneGraph.getEdges()) {
+            section.writeVarint(stringIndexes.get(edge.getId()));
+            section.writeVarint(edge.getType() != null ? stringIndexes.get(edge.getType()) + 1 : 0);
+            section.writeVarint(edge.getNode1());
+            section.writeVarint(edge.getNode2());
+            section.writeClasses(edge.getClasses());
+            section.writeStrings(edge.getInfo(), stringIndexes);
+            List<NadSceneGraph.Side> sides = sides(edge);
+            section.writeVarint(sides.size());
+            for (NadSceneGraph.Side side : sides) {
+                double[] points = side.getPoints() != null ? side.getPoints() : new double[0];
+                section.writeVarint(points.length / 2);
+                for (int i = 0; i + 1 < points.length; i += 2) {
+                    section.writeDelta(points[i], previous, 0);
+                    section.writeDelta(points[i + 1], previous, 1);
+                }
+                section.writeClasses(side.getClasses());
+                section.writeStrings(side.getInfo(), stringIndexes);
+            }
+        }
+        message.writeSection(section, sceneGraph.getEdges().size());
+
+        for (NadSceneGraph.Label label : sceneGraph.getLabels()) {
+            NadSceneGraph.Node node = sceneGraph.getNodes().get(label.getNode());
+            section.writeVarint(label.getNode());
+            section.writeFloat((float) (label.getX() - node.getX()));
+            section.writeFloat((float) (label.getY() - node.getY()));
+            section.writeStrings(label.getText(), stringIndexes);
+        }
+        message.writeSection(section, sceneGraph.getLabels().size());
+
+        section.writeBytes(additionalMetadata, additionalMetadata.length);
+        message.writeSection(section, 1);
+
+        return message.toByteArray();
+    }
+
+    public static Decoded decode(byte[] bytes) {
+        Reader reader = new Reader(bytes);
+        for (byte magicByte : MAGIC) {
+            if (reader.readByte() != magicByte) {
+                throw new IllegalArgumentException("Not a NAD scene graph");
+            }
+        }
+        byte version = reader.readByte();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported NAD scene graph version " + version);
+        }
+
+        reader.readVarint(); // Section length
+        String[] strings = new String[reader.readVarint()];
+        for (int i = 0; i < strings.length; i++) {
+            int length = reader.readVarint();
+            strings[i] = new String(bytes, reader.skip(length), length, StandardCharsets.UTF_8);
+        }
+
+        NadSceneGraph sceneGraph = new NadSceneGraph();
+        reader.readVarint();
+        int nbStyleClasses = reader.readVarint();
+        for (int i = 0; i < nbStyleClasses; i++) {
+            sceneGraph.getStyleClasses().add(strings[reader.readVarint()]);
+        }
+
+        double[] previous = new double[2];
+        reader.readVarint();
+        int nbNodes = reader.readVarint();
+        for (int i = 0; i < nbNodes; i++) {
+            String id = strings[reader.readVarint()];
+            double x = reader.readDelta(previous, 0);
+            double y = reader.readDelta(previous, 1);
+            sceneGraph.getNodes().add(new NadSceneGraph.Node(id, x, y, reader.readClasses()));
+        }
+
+        Arrays.fill(previous, 0);
+        reader.readVarint();
+        int nbEdges = reader.readVarint();
+        for (int i = 0; i < nbEdges; i++) {
+            String id = strings[reader.readVarint()];
+            int typeIndex = reader.readVarint();
+            int node1 = reader.readVarint();
+            int node2 = reader.readVarint();
+            int[] classes = reader.readClasses();
+            String[] info = reader.readStrings(strings);
+            int nbSides = reader.readVarint();
+            List<NadSceneGraph.Side> sides = new ArrayList<>(nbSides);
+            for (int j = 0; j < nbSides; j++) {
+                double[] points = new double[2 * reader.readVarint()];
+                for (int k = 0; k < points.length; k += 2) {
+                    points[k] = reader.readDelta(previous, 0);
+                    points[k + 1] = reader.readDelta(previous, 1);
+                }
+                sides.add(new NadSceneGraph.Side(points, reader.readClasses(), reader.readStrings(strings)));
+            }
+            sceneGraph.getEdges().add(new NadSceneGraph.Edge(id, typeIndex > 0 ? strings[typeIndex - 1] : null, node1, node2, classes, info, sides));
+        }
+
+        reader.readVarint();
+        int nbLabels = reader.readVarint();
+        for (int i = 0; i < nbLabels; i++) {
+            int nodeIndex = reader.readVarint();
+            NadSceneGraph.Node node = sceneGraph.getNodes().get(nodeIndex);
+            double x = node.getX() + reader.readFloat();
+            double y = node.getY() + reader.readFloat();
+            sceneGraph.getLabels().add(new NadSceneGraph.Label(nodeIndex, x, y, reader.readStrings(strings)));
+        }
+
+        int length = reader.readVarint();
+        reader.readVarint();
+        int metadataLength = length - varintSize(1);
+        String additionalMetadata = new String(bytes, reader.skip(metadataLength), metadataLength, StandardCharsets.UTF_8);
+        return new Decoded(sceneGraph, additionalMetadata);
+    }
+
+    private static List<NadSceneGraph.Side> sides(NadSceneGraph.Edge edge) {
+        return edge.getSides() != null ? edge.getSides() : List.of();
+    }
+
+    private static void addStrings(Map<String, Integer> stringIndexes, String[] strings) {
+        if (strings != null) {
+            for (String string : strings) {
+                stringIndexes.putIfAbsent(string, stringIndexes.size());
+            }
+        }
+    }
+
+    private static int varintSize(int value) {
+        int size = 1;
+        while ((value & ~0x7F) != 0) {
+            value >>>= 7;
+            size++;
+        }
+        return size;
+    }
+
+    private static final class Buffer {
+
+        private byte[] bytes;
+        private int size;
+
+        private Buffer(int capacity) {
+            bytes = new byte[capacity];
+        }
+
+        private void ensureCapacity(int extra) {
+            if (size + extra > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(2 * bytes.length, size + extra));
+            }
+        }
+
+        private void writeByte(int value) {
+            ensureCapacity(1);
+            bytes[size++] = (byte) value;
+        }
+
+        private void writeBytes(byte[] values, int length) {
+            ensureCapacity(length);
+            System.arraycopy(values, 0, bytes, size, length);
+            size += length;
+        }
+
+        private void writeVarint(int value) {
+            ensureCapacity(5);
+            while ((value & ~0x7F) != 0) {
+                bytes[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            bytes[size++] = (byte) value;
+        }
+
+        private void writeFloat(float value) {
+            ensureCapacity(4);
+            int bits = Float.floatToRawIntBits(value);
+            bytes[size++] = (byte) bits;
+            bytes[size++] = (byte) (bits >>> 8);
+            bytes[size++] = (byte) (bits >>> 16);
+            bytes[size++] = (byte) (bits >>> 24);
+        }
+
+        private void writeDelta(double value, double[] previous, int axis) {
+            float delta = (float) (value - previous[axis]);
+            writeFloat(delta);
+            previous[axis] += delta;
+        }
+
+        private void writeClasses(int[] classes) {
+            int[] values = classes != null ? classes : new int[0];
+            writeVarint(values.length);
+            for (int value : values) {
+                writeVarint(value);
+            }
+        }
+
+        private void writeStrings(String[] strings, Map<String, Integer> stringIndexes) {
+            String[] values = strings != null ? strings : new String[0];
+            writeVarint(values.length);
+            for (String value : values) {
+                writeVarint(stringIndexes.get(value));
+            }
+        }
+
+        /**
+         * Appends the section prefixed by its length and its number of elements, and clears it for the next one.
+         */
+        private void writeSection(Buffer section, int count) {
+            writeVarint(varintSize(count) + section.size);
+            writeVarint(count);
+            writeBytes(section.bytes, section.size);
+            section.size = 0;
+        }
+
+        private byte[] toByteArray() {
+            return size == bytes.length ? bytes : Arrays.copyOf(bytes, size);
+        }
+    }
+
+    private static final class Reader {
+
+        private final byte[] bytes;
+        private int position;
+
+        private Reader(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        private byte readByte() {
+            if (position >= bytes.length) {
+                throw new IllegalArgumentException("Truncated NAD scene graph");
+            }
+            return bytes[position++];
+        }
+
+        private int skip(int length) {
+            if (length < 0 || position + length > bytes.length) {
+                throw new IllegalArgumentException("Truncated NAD scene graph");
+            }
+            int start = position;
+            position += length;
+            return start;
+        }
+
+        private int readVarint() {
+            int value = 0;
+            for (int shift = 0; shift < 35; shift += 7) {
+                byte b = readByte();
+                value |= (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException("Malformed varint in NAD scene graph");
+        }
+
+        private float readFloat() {
+            int bits = (readByte() & 0xFF) | (readByte() & 0xFF) << 8 | (readByte() & 0xFF) << 16 | (readByte() & 0xFF) << 24;
+            return Float.intBitsToFloat(bits);
+        }
+
+        private double readDelta(double[] previous, int axis) {
+            previous[axis] += readFloat();
+            return previous[axis];
+        }
+
+        private int[] readClasses() {
+            int[] classes = new int[readVarint()];
+            for (int i = 0; i < classes.length; i++) {
+                classes[i] = readVarint();
+            }
+            return classes;
+        }
+
+        private String[] readStrings(String[] strings) {
+            String[] values = new String[readVarint()];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = strings[readVarint()];
+            }
+            return values;
+        }
+    }
+}
@@ -0,0 +1,130 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.sld.server.utils;
+
+import com.powsybl.commons.config.BaseVoltagesConfig;
+import com.powsybl.nad.model.BranchEdge;
+import com.powsybl.nad.model.Graph;
+import com.powsybl.nad.model.Node;
+import com.powsybl.nad.model.Point;
+import com.powsybl.nad.model.TextNode;
+import com.powsybl.nad.model.ThreeWtEdge;
+import com.powsybl.nad.model.VoltageLevelNode;
+import com.powsybl.nad.svg.EdgeInfo;
+import com.powsybl.nad.svg.LabelProvider;
+import com.powsybl.nad.svg.StyleProvider;
+import com.powsybl.nad.svg.VoltageLevelLegend;
+import com.powsybl.sld.server.dto.nad.NadSceneGraph;
+
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * Builds the scene graph of a NAD from its laid out and routed graph model, without writing the SVG. The edges are the branches,
+ * the dangling lines towards their boundary nodes, the HVDC lines, and the legs of the three windings transformers towards their
+ * transformer nodes. The style classes, the labels of the VLs and the edge infos are the ones of the SVG, given by the style
+ * and label providers of the NAD parameters.
+ *
+ * @author agent <agent at local>
+ */
+public final class NadSceneGraphBuilder {
+
+    private final StyleProvider styleProvider;
+    private final LabelProvider labelProvider;
+
+    private final Map<String, Integer> classIndexes = new HashMap<>();
+    // By diagram id, the equipment ids of the nodes not being unique
+    private final Map<String, Integer> nodeIndexes = new HashMap<>();
+    private final NadSceneGraph sceneGraph = new NadSceneGraph();
+
+    private NadSceneGraphBuilder(StyleProvider styleProvider, LabelProvider labelProvider) {
+        this.styleProvider = styleProvider;
+        this.labelProvider = labelProvider;
+    }
+
+    /**
+     * @param graph graph of the NAD, once laid out and its edges routed
+     */
+    public static NadSceneGraph build(Graph graph, StyleProvider styleProvider, LabelProvider labelProvider) {
+        return new NadSceneGraphBuilder(styleProvider, labelProvider).build(graph);
+    }
+
+    private NadSceneGraph build(Graph graph) {
+        graph.getVoltageLevelNodesStream().forEach(this::getNodeIndex);
+        graph.getBranchEdgeStream().forEach(edge -> addBranchEdge(graph, edge));
+        graph.getThreeWtEdgesStream().forEach(edge -> addThreeWtEdge(graph, edge));
+        graph.getVoltageLevelTextPairs().forEach(pair -> addLabel(pair.getLeft(), pair.getRight()));
+        return sceneGraph;
+    }
+
+    /**
+     * Adds the node on first use, the boundary and transformer nodes only being reached through their edges.
+     */
+    private int getNodeIndex(Node node) {
+        return nodeIndexes.computeIfAbsent(node.getDiagramId(), diagramId -> {
+            sceneGraph.getNodes().add(new NadSceneGraph.Node(node.getEquipmentId(), node.getX(), node.getY(),
+                classes(styleProvider.getNodeStyleClasses(node))));
+            return sceneGraph.getNodes().size() - 1;
+        });
+    }
+
+    private void addBranchEdge(Graph graph, BranchEdge edge) {
+        List<NadSceneGraph.Side> sides = Stream.of(BranchEdge.Side.ONE, BranchEdge.Side.TWO)
+            .map(side -> new NadSceneGraph.Side(points(edge.getPoints(side)), classes(styleProvider.getSideEdgeStyleClasses(edge, side)),
+                info(labelProvider.getBranchEdgeInfo(edge.getEquipmentId(), side, edge.getType()))))
+            .toList();
+        sceneGraph.getEdges().add(new NadSceneGraph.Edge(edge.getEquipmentId(), edge.getType(), getNodeIndex(graph.getNode1(edge)),
+            getNodeIndex(graph.getNode2(edge)), classes(styleProvider.getBranchEdgeStyleClasses(edge)),
+            info(labelProvider.getBranchEdgeInfo(edge.getEquipmentId(), edge.getType())), sides));
+    }
+
+    private void addThreeWtEdge(Graph graph, ThreeWtEdge edge) {
+        NadSceneGraph.Side side = new NadSceneGraph.Side(points(edge.getPoints()), new int[0],
+            info(labelProvider.getThreeWindingTransformerEdgeInfo(edge.getEquipmentId(), edge.getSide())));
+        sceneGraph.getEdges().add(new NadSceneGraph.Edge(edge.getEquipmentId(), edge.getType(), getNodeIndex(graph.getNode1(edge)),
+            getNodeIndex(graph.getNode2(edge)), classes(styleProvider.getThreeWtEdgeStyleClasses(edge)), new String[0], List.of(side)));
+    }
+
+    private void addLabel(VoltageLevelNode voltageLevelNode, TextNode textNode) {
+        VoltageLevelLegend legend = labelProvider.getVoltageLevelLegend(voltageLevelNode.getEquipmentId());
+        String[] text = Stream.concat(legend.legendHeader().stream(), legend.legendFooter().stream()).toArray(String[]::new);
+        sceneGraph.getLabels().add(new NadSceneGraph.Label(getNodeIndex(voltageLevelNode), textNode.getX(), textNode.getY(), text));
+    }
+
+    private static double[] points(List<Point> points) {
+        double[] coordinates = new double[2 * points.size()];
+        for (int i = 0; i < points.size(); i++) {
+            coordinates[2 * i] = points.get(i).getX();
+            coordinates[2 * i + 1] = points.get(i).getY();
+        }
+        return coordinates;
+    }
+
+    private static String[] info(Optional<EdgeInfo> edgeInfo) {
+        return edgeInfo
+            .map(info -> Stream.of(info.getLabelA(), info.getLabelB()).flatMap(Optional::stream).toArray(String[]::new))
+            .orElseGet(() -> new String[0]);
+    }
+
+    /**
+     * @return the base voltage class of the NAD style provider for the nominal voltage, null if it has no base voltage
+     */
+    public static String getBaseVoltageClass(BaseVoltagesConfig baseVoltagesConfig, double nominalVoltage) {
+        return baseVoltagesConfig.getBaseVoltageName(nominalVoltage, DiagramConstants.BASE_VOLTAGES_DEFAULT_PROFILE)
+            .map(name -> StyleProvider.CLASSES_PREFIX + name)
+            .orElse(null);
+    }
+
+    private int[] classes(List<String> styleClasses) {
+        return styleClasses.stream()
+            .mapToInt(styleClass -> classIndexes.computeIfAbsent(styleClass, key -> {
+                sceneGraph.getStyleClasses().add(key);
+                return sceneGraph.getStyleClasses().size() - 1;
+            }))
+            .toArray();
+    }
+}
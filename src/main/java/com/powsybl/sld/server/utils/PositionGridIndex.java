@@ -0,0 +1,152 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.sld.server.utils;
+
+import com.powsybl.sld.server.dto.nad.BoundingBox;
+import com.powsybl.sld.server.dto.nad.NadVoltageLevelPositionInfos;
+
+import java.util.*;
+
+/**
+ * Immutable uniform grid over voltage level positions, answering bounding box queries in time proportional
+ * to the number of cells overlapped instead of the number of positions.
+ * The positions are stored cell by cell in flat arrays, cell {@code c} spanning {@code [cellStarts[c], cellStarts[c + 1])}.
+ * Positions without coordinates are not indexed.
+ *
+ * @author agent <agent at local>
+ */
+public final class PositionGridIndex {
+
+    private static final PositionGridIndex EMPTY = new PositionGridIndex(0, 0, 1, 1, 1, new int[] {0, 0}, new String[0], new double[0], new double[0]);
+
+    // Average number of positions per cell, a few positions per cell keeps the grid small without scanning long cells
+    private static final int POSITIONS_PER_CELL = 4;
+    private static final int MAX_CELLS_PER_AXIS = 1024;
+
+    private final double minX;
+    private final double minY;
+    private final double cellSize;
+    private final int nbColumns;
+    private final int nbRows;
+    private final int[] cellStarts;
+    private final String[] voltageLevelIds;
+    private final double[] xs;
+    private final double[] ys;
+
+    private PositionGridIndex(double minX, double minY, double cellSize, int nbColumns, int nbRows,
+                              int[] cellStarts, String[] voltageLevelIds, double[] xs, double[] ys) {
+        this.minX = minX;
+        this.minY = minY;
+        this.cellSize = cellSize;
+        this.nbColumns = nbColumns;
+        this.nbRows = nbRows;
+        this.cellStarts = cellStarts;
+        this.voltageLevelIds = voltageLevelIds;
+        this.xs = xs;
+        this.ys = ys;
+    }
+
+    public static PositionGridIndex build(Collection<NadVoltageLevelPositionInfos> positions) {
+        List<NadVoltageLevelPositionInfos> located = positions.stream()
+            .filter(position -> position.getXPosition() != null && position.getYPosition() != null)
+            .toList();
+        if (located.isEmpty()) {
+            return EMPTY;
+        }
+
+        double minX = Double.POSITIVE_INFINITY;
+        double minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY;
+        double maxY = Double.NEGATIVE_INFINITY;
+        for (NadVoltageLevelPositionInfos position : located) {
+            minX = Math.min(minX, position.getXPosition());
+            minY = Math.min(minY, position.getYPosition());
+            maxX = Math.max(maxX, position.getXPosition());
+            maxY = Math.max(maxY, position.getYPosition());
+        }
+        double width = maxX - minX;
+        double height = maxY - minY;
+        int nbCells = Math.max(1, located.size() / POSITIONS_PER_CELL);
+        double area = Math.max(width, Double.MIN_NORMAL) * Math.max(height, Double.MIN_NORMAL);
+        double cellSize = Math.max(Math.sqrt(area / nbCells), Math.max(width, height) / MAX_CELLS_PER_AXIS);
+        if (cellSize <= 0 || !Double.isFinite(cellSize)) {
+            // All the positions are on the same point
+            cellSize = 1;
+        }
+        int nbColumns = Math.min(MAX_CELLS_PER_AXIS, (int) (width / cellSize) + 1);
+        int nbRows = Math.min(MAX_CELLS_PER_AXIS, (int) (height / cellSize) + 1);
+
+        // Counting sort of the positions by cell
+        int[] cells = new int[located.size()];
+        int[] cellStarts = new int[nbColumns * nbRows + 1];
+        for (int i = 0; i < located.size(); i++) {
+            NadVoltageLevelPositionInfos position = located.get(i);
+            cells[i] = cell(column(position.getXPosition(), minX, cellSize, nbColumns), row(position.getYPosition(), minY, cellSize, nbRows), nbColumns);
+            cellStarts[cells[i] + 1]++;
+        }
+        for (int c = 0; c < nbColumns * nbRows; c++) {
+            cellStarts[c + 1] += cellStarts[c];
+        }
+        int[] next = Arrays.copyOf(cellStarts, cellStarts.length - 1);
+        String[] voltageLevelIds = new String[located.size()];
+        double[] xs = new double[located.size()];
+        double[] ys = new double[located.size()];
+        for (int i = 0; i < located.size(); i++) {
+            NadVoltageLevelPositionInfos position = located.get(i);
+            int index = next[cells[i]]++;
+            voltageLevelIds[index] = position.getVoltageLevelId();
+            xs[index] = position.getXPosition();
+            ys[index] = position.getYPosition();
+        }
+        return new PositionGridIndex(minX, minY, cellSize, nbColumns, nbRows, cellStarts, voltageLevelIds, xs, ys);
+    }
+
+    public int size() {
+        return voltageLevelIds.length;
+    }
+
+    /**
+     * @return the ids of the voltage levels positioned inside the bounding box
+     */
+    public List<String> findVoltageLevelIds(BoundingBox boundingBox) {
+        List<String> result = new ArrayList<>();
+        if (size() == 0 || !boundingBox.isValid()) {
+            return result;
+        }
+        int minColumn = column(boundingBox.getMinX(), minX, cellSize, nbColumns);
+        int maxColumn = column(boundingBox.getMaxX(), minX, cellSize, nbColumns);
+        int minRow = row(boundingBox.getMinY(), minY, cellSize, nbRows);
+        int maxRow = row(boundingBox.getMaxY(), minY, cellSize, nbRows);
+        for (int row = minRow; row <= maxRow; row++) {
+            for (int column = minColumn; column <= maxColumn; column++) {
+                int cell = cell(column, row, nbColumns);
+                for (int i = cellStarts[cell]; i < cellStarts[cell + 1]; i++) {
+                    if (boundingBox.contains(xs[i], ys[i])) {
+                        result.add(voltageLevelIds[i]);
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    private static int column(double x, double minX, double cellSize, int nbColumns) {
+        return clamp((int) Math.floor((x - minX) / cellSize), nbColumns);
+    }
+
+    private static int row(double y, double minY, double cellSize, int nbRows) {
+        return clamp((int) Math.floor((y - minY) / cellSize), nbRows);
+    }
+
+    private static int clamp(int index, int size) {
+        return Math.max(0, Math.min(size - 1, index));
+    }
+
+    private static int cell(int column, int row, int nbColumns) {
+        return row * nbColumns + column;
+    }
+}
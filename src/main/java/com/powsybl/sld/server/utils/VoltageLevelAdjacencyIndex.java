@@ -0,0 +1,300 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.sld.server.utils;
+
+import com.powsybl.iidm.network.*;
+
+import java.util.*;
+
+/**
+ * Immutable voltage level adjacency of a network, built once and reused for all the neighbour lookups.
+ * The voltage levels are numbered with dense indices, the neighbours of the voltage level {@code i} being
+ * {@code neighbours[neighbourStarts[i]]} to {@code neighbours[neighbourStarts[i + 1] - 1]} (compressed sparse row).
+ * Two voltage levels are adjacent when they are connected by a branch, a three windings transformer or an HVDC line,
+ * whatever the connection status, as in {@link com.powsybl.nad.build.iidm.VoltageLevelFilter}.
+ *
+ * @author agent <agent at local>
+ */
+public final class VoltageLevelAdjacencyIndex {
+
+    private static final int NO_SUBSTATION = -1;
+
+    private final String[] voltageLevelIds;
+    private final Map<String, Integer> indexByVoltageLevelId;
+    private final int[] neighbourStarts;
+    private final int[] neighbours;
+    private final int[] substationIndices;
+    private final String[] substationIds;
+
+    private VoltageLevelAdjacencyIndex(String[] voltageLevelIds, Map<String, Integer> indexByVoltageLevelId, int[] neighbourStarts, int[] neighbours,
+                                       int[] substationIndices, String[] substationIds) {
+        this.voltageLevelIds = voltageLevelIds;
+        this.indexByVoltageLevelId = indexByVoltageLevelId;
+        this.neighbourStarts = neighbourStarts;
+        this.neighbours = neighbours;
+        this.substationIndices = substationIndices;
+        this.substationIds = substationIds;
+    }
+
+    public static VoltageLevelAdjacencyIndex build(Network network) {
+        List<VoltageLevel> voltageLevels = network.getVoltageLevelStream().toList();
+        int nbVoltageLevels = voltageLevels.size();
+        String[] voltageLevelIds = new String[nbVoltageLevels];
+        Map<String, Integer> indexByVoltageLevelId = HashMap.newHashMap(nbVoltageLevels);
+        int[] substationIndices = new int[nbVoltageLevels];
+        Map<String, Integer> indexBySubstationId = new LinkedHashMap<>();
+        for (int i = 0; i < nbVoltageLevels; i++) {
+            VoltageLevel voltageLevel = voltageLevels.get(i);
+            voltageLevelIds[i] = voltageLevel.getId();
+            indexByVoltageLevelId.put(voltageLevel.getId(), i);
+            substationIndices[i] = voltageLevel.getSubstation()
+                .map(substation -> indexBySubstationId.computeIfAbsent(substation.getId(), id -> indexBySubstationId.size()))
+                .orElse(NO_SUBSTATION);
+        }
+
+        EdgeList edges = new EdgeList();
+        network.getBranchStream().forEach(branch -> edges.add(indexByVoltageLevelId, branch.getTerminal1(), branch.getTerminal2()));
+        network.getTieLineStream().forEach(tieLine -> edges.add(indexByVoltageLevelId, tieLine.getTerminal1(), tieLine.getTerminal2()));
+        network.getThreeWindingsTransformerStream().forEach(transformer -> {
+            edges.add(indexByVoltageLevelId, transformer.getLeg1().getTerminal(), transformer.getLeg2().getTerminal());
+            edges.add(indexByVoltageLevelId, transformer.getLeg1().getTerminal(), transformer.getLeg3().getTerminal());
+            edges.add(indexByVoltageLevelId, transformer.getLeg2().getTerminal(), transformer.getLeg3().getTerminal());
+        });
+        network.getHvdcLineStream().forEach(hvdcLine -> edges.add(indexByVoltageLevelId,
+            hvdcLine.getConverterStation1().getTerminal(), hvdcLine.getConverterStation2().getTerminal()));
+
+        // Each edge is stored in both directions, then the parallel edges are merged
+        int[] degrees = new int[nbVoltageLevels + 1];
+        for (int e = 0; e < edges.size; e++) {
+            degrees[edges.sources[e] + 1]++;
+            degrees[edges.targets[e] + 1]++;
+        }
+        for (int i = 0; i < nbVoltageLevels; i++) {
+            degrees[i + 1] += degrees[i];
+        }
+        int[] rawNeighbours = new int[degrees[nbVoltageLevels]];
+        int[] next = Arrays.copyOf(degrees, nbVoltageLevels);
+        for (int e = 0; e < edges.size; e++) {
+            rawNeighbours[next[edges.sources[e]]++] = edges.targets[e];
+            rawNeighbours[next[edges.targets[e]]++] = edges.sources[e];
+        }
+        int[] neighbourStarts = new int[nbVoltageLevels + 1];
+        int nbNeighbours = 0;
+        for (int i = 0; i < nbVoltageLevels; i++) {
+            neighbourStarts[i] = nbNeighbours;
+            Arrays.sort(rawNeighbours, degrees[i], degrees[i + 1]);
+            int previous = -1;
+            for (int k = degrees[i]; k < degrees[i + 1]; k++) {
+                if (rawNeighbours[k] != previous) {
+                    previous = rawNeighbours[k];
+                    rawNeighbours[nbNeighbours++] = previous;
+                }
+            }
+        }
+        neighbourStarts[nbVoltageLevels] = nbNeighbours;
+
+        return new VoltageLevelAdjacencyIndex(voltageLevelIds, Collections.unmodifiableMap(indexByVoltageLevelId), neighbourStarts,
+            Arrays.copyOf(rawNeighbours, nbNeighbours), substationIndices, indexBySubstationId.keySet().toArray(String[]::new));
+    }
+
+    public int size() {
+        return voltageLevelIds.length;
+    }
+
+    /**
+     * @return the dense index of the voltage level, -1 if it is not in the network
+     */
+    public int getIndex(String voltageLevelId) {
+        return indexByVoltageLevelId.getOrDefault(voltageLevelId, -1);
+    }
+
+    public String getVoltageLevelId(int index) {
+        return voltageLevelIds[index];
+    }
+
+    /**
+     * @return the position of the first neighbour of the voltage level in {@link #getNeighbour(int)}
+     */
+    public int getNeighbourStart(int index) {
+        return neighbourStarts[index];
+    }
+
+    /**
+     * @return the position after the last neighbour of the voltage level in {@link #getNeighbour(int)}
+     */
+    public int getNeighbourEnd(int index) {
+        return neighbourStarts[index + 1];
+    }
+
+    public int getNeighbour(int position) {
+        return neighbours[position];
+    }
+
+    /**
+     * @return the id of the substation of the voltage level, null if it has no substation
+     */
+    public String getSubstationId(int index) {
+        return substationIndices[index] == NO_SUBSTATION ? null : substationIds[substationIndices[index]];
+    }
+
+    /**
+     * @return the given voltage levels and the voltage levels reachable from them through at most {@code depth} edges,
+     * the voltage levels not in the network being ignored
+     */
+    public Set<String> getVoltageLevelIdsWithinDepth(Collection<String> voltageLevelIds, int depth) {
+        Map<String, Integer> depthByVoltageLevelId = HashMap.newHashMap(voltageLevelIds.size());
+        voltageLevelIds.forEach(voltageLevelId -> depthByVoltageLevelId.put(voltageLevelId, depth));
+        return getVoltageLevelIdsWithinDepths(depthByVoltageLevelId, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Expands each given voltage level up to its own depth, the voltage levels not in the network being ignored.
+     * The traversal goes from the largest remaining depth to the smallest, so that the nearest voltage levels are added first
+     * and the expansion stops once {@code maxVoltageLevels} voltage levels are reached. The given voltage levels are always kept.
+     *
+     * @return the given voltage levels and the voltage levels reached by their expansion
+     */
+    public Set<String> getVoltageLevelIdsWithinDepths(Map<String, Integer> depthByVoltageLevelId, int maxVoltageLevels) {
+        return toVoltageLevelIds(getVoltageLevelsWithinDepths(depthByVoltageLevelId, maxVoltageLevels));
+    }
+
+    /**
+     * Same as {@link #getVoltageLevelIdsWithinDepths(Map, int)}, the result being the set of the dense indices of the voltage levels.
+     */
+    public BitSet getVoltageLevelsWithinDepths(Map<String, Integer> depthByVoltageLevelId, int maxVoltageLevels) {
+        // A depth larger than the number of voltage levels does not reach anything more
+        int maxDepth = Math.clamp(depthByVoltageLevelId.values().stream().mapToInt(Integer::intValue).max().orElse(0), 0, size());
+        // Remaining depth of each reached voltage level, -1 when not reached
+        int[] remainingDepths = new int[size()];
+        Arrays.fill(remainingDepths, -1);
+        IntList[] buckets = new IntList[maxDepth + 1];
+        Arrays.setAll(buckets, depth -> new IntList());
+        BitSet reached = new BitSet(size());
+        depthByVoltageLevelId.forEach((voltageLevelId, requestedDepth) -> {
+            int index = getIndex(voltageLevelId);
+            int depth = Math.min(requestedDepth, maxDepth);
+            if (index >= 0 && depth >= 0) {
+                reached.set(index);
+                if (depth > remainingDepths[index]) {
+                    remainingDepths[index] = depth;
+                    buckets[depth].add(index);
+                }
+            }
+        });
+        int nbReached = reached.cardinality();
+
+        for (int depth = maxDepth; depth > 0 && nbReached < maxVoltageLevels; depth--) {
+            IntList bucket = buckets[depth];
+            for (int b = 0; b < bucket.size; b++) {
+                int index = bucket.values[b];
+                // Skip the entries superseded by a larger remaining depth
+                if (remainingDepths[index] != depth) {
+                    continue;
+                }
+                for (int k = neighbourStarts[index]; k < neighbourStarts[index + 1]; k++) {
+                    int neighbour = neighbours[k];
+                    if (remainingDepths[neighbour] < depth - 1) {
+                        if (remainingDepths[neighbour] < 0) {
+                            if (nbReached >= maxVoltageLevels) {
+                                return reached;
+                            }
+                            reached.set(neighbour);
+                            nbReached++;
+                        }
+                        remainingDepths[neighbour] = depth - 1;
+                        buckets[depth - 1].add(neighbour);
+                    }
+                }
+            }
+        }
+        return reached;
+    }
+
+    /**
+     * @return the set of the dense indices of the given voltage levels, the voltage levels not in the network being ignored
+     */
+    public BitSet toBitSet(Collection<String> voltageLevelIds) {
+        BitSet result = new BitSet(size());
+        for (String voltageLevelId : voltageLevelIds) {
+            int index = getIndex(voltageLevelId);
+            if (index >= 0) {
+                result.set(index);
+            }
+        }
+        return result;
+    }
+
+    public Set<String> toVoltageLevelIds(BitSet voltageLevels) {
+        Set<String> result = HashSet.newHashSet(voltageLevels.cardinality());
+        voltageLevels.stream().forEach(index -> result.add(voltageLevelIds[index]));
+        return result;
+    }
+
+    /**
+     * @return the number of pairs of adjacent voltage levels with at least one of them in the given voltage levels, the parallel
+     * edges counting once. The edges towards the other voltage levels are counted, as they are drawn too.
+     */
+    public int countEdges(BitSet voltageLevels) {
+        int nbEdges = 0;
+        for (int i = voltageLevels.nextSetBit(0); i >= 0; i = voltageLevels.nextSetBit(i + 1)) {
+            for (int k = neighbourStarts[i]; k < neighbourStarts[i + 1]; k++) {
+                // An edge between two given voltage levels is counted from its lowest end only
+                if (neighbours[k] > i || !voltageLevels.get(neighbours[k])) {
+                    nbEdges++;
+                }
+            }
+        }
+        return nbEdges;
+    }
+
+    /**
+     * @return the distinct ids of the substations of the given voltage levels
+     */
+    public Set<String> getSubstationIds(Collection<String> voltageLevelIds) {
+        Set<String> result = new LinkedHashSet<>();
+        for (String voltageLevelId : voltageLevelIds) {
+            int index = getIndex(voltageLevelId);
+            if (index >= 0 && substationIndices[index] != NO_SUBSTATION) {
+                result.add(substationIds[substationIndices[index]]);
+            }
+        }
+        return result;
+    }
+
+    private static final class IntList {
+        private int[] values = new int[16];
+        private int size;
+
+        private void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+    }
+
+    private static final class EdgeList {
+        private int[] sources = new int[16];
+        private int[] targets = new int[16];
+        private int size;
+
+        private void add(Map<String, Integer> indexByVoltageLevelId, Terminal terminal1, Terminal terminal2) {
+            Integer source = indexByVoltageLevelId.get(terminal1.getVoltageLevel().getId());
+            Integer target = indexByVoltageLevelId.get(terminal2.getVoltageLevel().getId());
+            if (source == null || target == null || source.equals(target)) {
+                return;
+            }
+            if (size == sources.length) {
+                sources = Arrays.copyOf(sources, size * 2);
+                targets = Arrays.copyOf(targets, size * 2);
+            }
+            sources[size] = source;
+            targets[size] = target;
+            size++;
+        }
+    }
+}
@@ -19,6 +19,7 @@ import org.springframework.boot.test.context.SpringBootTest;
 import java.util.*;
 
 import static com.powsybl.sld.server.TestUtils.assertRequestsCount;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 
 /**
  * @author Charly Boutier <charly.boutier at rte-france.com>
@@ -78,4 +79,31 @@ class DiagramConfigRepositoryTest {
         nadConfigRepository.delete(entity);
         assertRequestsCount(5, 0, 1, 4);
     }
+
+    @Test
+    void testDeleteNadConfigsQueryCount() {
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            ids.add(nadConfigRepository.save(createNadConfigEntity()).getId());
+        }
+        ids.add(UUID.randomUUID());
+
+        SQLStatementCountValidator.reset();
+        assertEquals(10, nadConfigRepository.deleteAllWithChildrenById(ids));
+        // One set-based statement per table, whatever the number of configs
+        assertRequestsCount(0, 0, 0, 3);
+        assertEquals(0, nadConfigRepository.count());
+    }
+
+    @Test
+    void testDuplicateNadConfigsQueryCount() {
+        NadConfigEntity entity = createNadConfigEntity();
+        nadConfigRepository.save(entity);
+
+        SQLStatementCountValidator.reset();
+        nadConfigRepository.duplicateAll(Map.of(entity.getId(), UUID.randomUUID()));
+        // One set-based statement per table, whatever the number of positions and voltage levels
+        assertRequestsCount(0, 3, 0, 0);
+        assertEquals(2, nadConfigRepository.count());
+    }
 }
@@ -0,0 +1,163 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.sld.server;
+
+import com.powsybl.sld.server.dto.nad.BoundingBox;
+import com.powsybl.sld.server.dto.nad.NadVoltageLevelPositionInfos;
+import com.powsybl.sld.server.error.DiagramBusinessErrorCode;
+import com.powsybl.sld.server.error.DiagramBusinessException;
+import com.powsybl.sld.server.repository.NadVoltageLevelConfiguredPositionRepository;
+import com.powsybl.sld.server.utils.ConfiguredPositionsIndex;
+import com.powsybl.sld.server.utils.FixedLayoutPositions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class NadConfiguredPositionServiceTest {
+
+    @Mock
+    private NadVoltageLevelConfiguredPositionRepository nadVoltageLevelConfiguredPositionRepository;
+
+    @Mock
+    private NadResultCacheService nadResultCacheService;
+
+    private NadConfiguredPositionService nadConfiguredPositionService;
+
+    private AutoCloseable mocks;
+
+    @BeforeEach
+    void setUp() {
+        mocks = MockitoAnnotations.openMocks(this);
+        nadConfiguredPositionService = new NadConfiguredPositionService(nadVoltageLevelConfiguredPositionRepository, nadResultCacheService, 2, Duration.ofMinutes(30));
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        mocks.close();
+    }
+
+    private static NadVoltageLevelPositionInfos createPosition(String voltageLevelId, double x) {
+        return NadVoltageLevelPositionInfos.builder()
+            .voltageLevelId(voltageLevelId)
+            .xPosition(x)
+            .yPosition(x)
+            .xLabelPosition(x)
+            .yLabelPosition(x)
+            .build();
+    }
+
+    private UUID mockActiveGeneration(UUID positionsConfigId, List<NadVoltageLevelPositionInfos> positions) {
+        UUID generationId = UUID.randomUUID();
+        if (positionsConfigId == null) {
+            when(nadVoltageLevelConfiguredPositionRepository.findActiveGenerationId()).thenReturn(Optional.of(generationId));
+        } else {
+            when(nadVoltageLevelConfiguredPositionRepository.findActiveGenerationId(positionsConfigId)).thenReturn(Optional.of(generationId));
+        }
+        when(nadVoltageLevelConfiguredPositionRepository.findAllByGenerationId(generationId))
+            .thenReturn(positions.stream().map(NadVoltageLevelPositionInfos::toConfiguredPositionEntity).toList());
+        return generationId;
+    }
+
+    @Test
+    void testIndexLoadedOnce() {
+        UUID generationId = mockActiveGeneration(null, List.of(createPosition("VL1", 1.0), createPosition("VL2", 2.0)));
+
+        ConfiguredPositionsIndex index = nadConfiguredPositionService.getIndex(null);
+        assertFalse(index.isEmpty());
+        assertEquals(generationId, index.generationId());
+        List<NadVoltageLevelPositionInfos> positions = index.getPositions(List.of("VL2", "unknownVL"));
+        assertEquals(1, positions.size());
+        assertEquals("VL2", positions.getFirst().getVoltageLevelId());
+        assertEquals(2.0, positions.getFirst().getXPosition(), 0.001);
+
+        // The index of the active generation is shared
+        assertSame(index, nadConfiguredPositionService.getIndex(null));
+        verify(nadVoltageLevelConfiguredPositionRepository, times(1)).findAllByGenerationId(generationId);
+    }
+
+    @Test
+    void testNewActiveGeneration() {
+        // No positions uploaded yet
+        assertTrue(nadConfiguredPositionService.getIndex(null).isEmpty());
+        assertNull(nadConfiguredPositionService.getIndex(null).generationId());
+
+        mockActiveGeneration(null, List.of());
+        assertTrue(nadConfiguredPositionService.getIndex(null).isEmpty());
+
+        // A generation activated by another server instance is seen without any reload
+        UUID generationId = mockActiveGeneration(null, List.of(createPosition("VL1", 1.0)));
+        ConfiguredPositionsIndex index = nadConfiguredPositionService.getIndex(null);
+        assertEquals(generationId, index.generationId());
+        assertEquals(1, index.getPositions(List.of("VL1", "VL2")).size());
+    }
+
+    @Test
+    void testNamedPositionsConfigs() {
+        UUID positionsConfigUuid1 = UUID.randomUUID();
+        UUID positionsConfigUuid2 = UUID.randomUUID();
+        mockActiveGeneration(null, List.of(createPosition("VL1", 0.0)));
+        UUID generationId1 = mockActiveGeneration(positionsConfigUuid1, List.of(createPosition("VL1", 1.0)));
+        mockActiveGeneration(positionsConfigUuid2, List.of());
+
+        // Each positions config has its own index
+        assertEquals(0.0, nadConfiguredPositionService.getIndex(null).getPositions(List.of("VL1")).getFirst().getXPosition(), 0.001);
+        assertEquals(1.0, nadConfiguredPositionService.getIndex(positionsConfigUuid1).getPositions(List.of("VL1")).getFirst().getXPosition(), 0.001);
+        assertTrue(nadConfiguredPositionService.getIndex(positionsConfigUuid2).isEmpty());
+
+        nadConfiguredPositionService.getIndex(positionsConfigUuid1);
+        verify(nadVoltageLevelConfiguredPositionRepository, times(1)).findAllByGenerationId(generationId1);
+
+        // An invalidated index is read again from the database on next use
+        nadConfiguredPositionService.invalidate(positionsConfigUuid1);
+        // The NADs generated from it are invalidated
+        verify(nadResultCacheService).invalidatePositionsConfig(positionsConfigUuid1);
+        nadConfiguredPositionService.getIndex(positionsConfigUuid1);
+        verify(nadVoltageLevelConfiguredPositionRepository, times(2)).findAllByGenerationId(generationId1);
+    }
+
+    @Test
+    void testUnknownPositionsConfig() {
+        UUID positionsConfigUuid = UUID.randomUUID();
+        DiagramBusinessException exception = assertThrows(DiagramBusinessException.class,
+            () -> nadConfiguredPositionService.getIndex(positionsConfigUuid));
+        assertEquals(DiagramBusinessErrorCode.POSITIONS_CONFIG_NOT_FOUND, exception.getBusinessErrorCode());
+
+        // The miss is not cached
+        mockActiveGeneration(positionsConfigUuid, List.of(createPosition("VL1", 1.0)));
+        assertEquals(1, nadConfiguredPositionService.getIndex(positionsConfigUuid).getPositions(List.of("VL1")).size());
+    }
+
+    @Test
+    void testFixedLayoutPositionsShared() {
+        mockActiveGeneration(null, List.of(createPosition("VL1", 1.0)));
+
+        FixedLayoutPositions fixedLayoutPositions = nadConfiguredPositionService.getIndex(null).fixedLayoutPositions();
+        assertEquals(1.0, fixedLayoutPositions.positions().get("VL1").getX(), 0.001);
+        // Prepared once per generation
+        assertSame(fixedLayoutPositions, nadConfiguredPositionService.getIndex(null).fixedLayoutPositions());
+        mockActiveGeneration(null, List.of(createPosition("VL1", 1.0)));
+        assertNotSame(fixedLayoutPositions, nadConfiguredPositionService.getIndex(null).fixedLayoutPositions());
+    }
+
+    @Test
+    void testGetVoltageLevelIdsInBoundingBox() {
+        mockActiveGeneration(null, List.of(createPosition("VL1", 1.0), createPosition("VL2", 2.0), createPosition("VL3", 10.0)));
+
+        assertEquals(List.of("VL2"), nadConfiguredPositionService.getVoltageLevelIds(null, new BoundingBox(1.5, 1.5, 5, 5)));
+        assertEquals(3, nadConfiguredPositionService.getVoltageLevelIds(null, new BoundingBox(1.5, 1.5, 5, 5).withMargin(5)).size());
+    }
+}
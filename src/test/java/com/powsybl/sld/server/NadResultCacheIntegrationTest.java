@@ -0,0 +1,197 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.sld.server;
+
+import com.powsybl.iidm.network.Network;
+import com.powsybl.iidm.network.VariantManagerConstants;
+import com.powsybl.iidm.network.test.FourSubstationsNodeBreakerFactory;
+import com.powsybl.network.store.client.NetworkStoreService;
+import com.powsybl.network.store.client.PreloadingStrategy;
+import com.powsybl.sld.server.dto.nad.NadConfigInfos;
+import com.powsybl.sld.server.dto.nad.NadRequestInfos;
+import com.powsybl.sld.server.dto.nad.NadVoltageLevelPositionInfos;
+import com.powsybl.sld.server.utils.NadPositionsGenerationMode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * The NADs generated through the service with the result cache enabled, a NAD being stored in the cache on each generation.
+ */
+@SpringBootTest(properties = "diagram-server.nad.result-cache.max-size=1MB")
+class NadResultCacheIntegrationTest {
+
+    private static final String VARIANT_ID = "variant_1";
+
+    @Autowired
+    private NetworkAreaDiagramService networkAreaDiagramService;
+
+    @MockitoSpyBean
+    private NadResultCacheService nadResultCacheService;
+
+    @MockitoBean
+    private NetworkStoreService networkStoreService;
+    @MockitoBean
+    private GeoDataService geoDataService;
+    @MockitoBean
+    private FilterService filterService;
+
+    private final UUID networkUuid = UUID.randomUUID();
+    private Network network;
+
+    @BeforeEach
+    void setUp() {
+        network = FourSubstationsNodeBreakerFactory.create();
+        network.getVariantManager().cloneVariant(VariantManagerConstants.INITIAL_VARIANT_ID, VARIANT_ID);
+        given(networkStoreService.getNetwork(networkUuid, PreloadingStrategy.COLLECTION)).willReturn(network);
+        clearInvocations(nadResultCacheService);
+    }
+
+    private String generate(String variantId, NadRequestInfos nadRequestInfos) {
+        return networkAreaDiagramService.generateNetworkAreaDiagramSvg(networkUuid, variantId, nadRequestInfos);
+    }
+
+    private void assertGenerations(int nbGenerations) {
+        verify(nadResultCacheService, times(nbGenerations)).put(any(NadResultCacheService.Key.class), anyString());
+    }
+
+    private static NadRequestInfos createRequest() {
+        return NadRequestInfos.builder()
+            .voltageLevelIds(Set.of("S1VL2"))
+            .nadPositionsGenerationMode(NadPositionsGenerationMode.AUTOMATIC)
+            .build();
+    }
+
+    private static NadVoltageLevelPositionInfos createPosition(String voltageLevelId, double x) {
+        return NadVoltageLevelPositionInfos.builder()
+            .voltageLevelId(voltageLevelId)
+            .xPosition(x)
+            .yPosition(0.0)
+            .xLabelPosition(x)
+            .yLabelPosition(0.0)
+            .build();
+    }
+
+    private static MockMultipartFile createPositionsCsv(double x) {
+        String csv = "voltageLevelId;xPosition;yPosition;xLabelPosition;yLabelPosition\n"
+            + "S1VL2;" + x + ";0;" + x + ";0\n"
+            + "S2VL1;100;0;100;0\n";
+        return new MockMultipartFile("file", "vl-positions.csv", "text/csv", csv.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testHitAndMiss() {
+        String result = generate(VARIANT_ID, createRequest());
+        assertGenerations(1);
+
+        // Same request on the same state of the network
+        assertEquals(result, generate(VARIANT_ID, createRequest()));
+        assertGenerations(1);
+
+        // Another request
+        generate(VARIANT_ID, NadRequestInfos.builder()
+            .voltageLevelIds(Set.of("S1VL2", "S2VL1"))
+            .nadPositionsGenerationMode(NadPositionsGenerationMode.AUTOMATIC)
+            .build());
+        assertGenerations(2);
+
+        // A change of the state of the equipments of the NAD
+        network.getVariantManager().setWorkingVariant(VARIANT_ID);
+        network.getGenerator("GH1").getTerminal().setP(-50.0);
+        generate(VARIANT_ID, createRequest());
+        assertGenerations(3);
+        generate(VARIANT_ID, createRequest());
+        assertGenerations(3);
+    }
+
+    @Test
+    void testSceneGraphBinary() {
+        generate(VARIANT_ID, createRequest());
+        byte[] result = networkAreaDiagramService.generateNetworkAreaDiagramSceneGraphBinary(networkUuid, VARIANT_ID, createRequest());
+        assertArrayEquals(result, networkAreaDiagramService.generateNetworkAreaDiagramSceneGraphBinary(networkUuid, VARIANT_ID, createRequest()));
+        assertGenerations(1);
+        verify(nadResultCacheService, times(1)).putBinary(argThat(NadResultCacheService.Key::binary), any(byte[].class));
+    }
+
+    @Test
+    void testVariantChange() {
+        generate(VARIANT_ID, createRequest());
+        generate(VariantManagerConstants.INITIAL_VARIANT_ID, createRequest());
+        assertGenerations(2);
+
+        // A change in a variant does not invalidate the NADs of the other variants
+        network.getVariantManager().setWorkingVariant(VARIANT_ID);
+        network.getGenerator("GH1").getTerminal().disconnect();
+        generate(VARIANT_ID, createRequest());
+        assertGenerations(3);
+        generate(VariantManagerConstants.INITIAL_VARIANT_ID, createRequest());
+        assertGenerations(3);
+    }
+
+    @Test
+    void testNadConfigUpdate() {
+        UUID nadConfigUuid = networkAreaDiagramService.createNetworkAreaDiagramConfig(NadConfigInfos.builder()
+            .voltageLevelIds(Set.of("S1VL2", "S2VL1"))
+            .positions(List.of(createPosition("S1VL2", 0.0), createPosition("S2VL1", 100.0)))
+            .build());
+        NadRequestInfos nadRequestInfos = NadRequestInfos.builder().nadConfigUuid(nadConfigUuid).build();
+
+        generate(VARIANT_ID, nadRequestInfos);
+        generate(VARIANT_ID, nadRequestInfos);
+        assertGenerations(1);
+
+        networkAreaDiagramService.updateNetworkAreaDiagramConfig(nadConfigUuid, NadConfigInfos.builder()
+            .positions(List.of(createPosition("S2VL1", 200.0)))
+            .build());
+        generate(VARIANT_ID, nadRequestInfos);
+        assertGenerations(2);
+        generate(VARIANT_ID, nadRequestInfos);
+        assertGenerations(2);
+    }
+
+    @Test
+    void testPositionsCsvUpload() {
+        UUID positionsConfigUuid = UUID.randomUUID();
+        networkAreaDiagramService.createNadPositionsConfigFromCsv(positionsConfigUuid, createPositionsCsv(0.0));
+        NadRequestInfos nadRequestInfos = NadRequestInfos.builder()
+            .voltageLevelIds(Set.of("S1VL2", "S2VL1"))
+            .nadPositionsGenerationMode(NadPositionsGenerationMode.CONFIGURED)
+            .nadPositionsConfigUuid(positionsConfigUuid)
+            .build();
+
+        generate(VARIANT_ID, nadRequestInfos);
+        generate(VARIANT_ID, nadRequestInfos);
+        assertGenerations(1);
+
+        networkAreaDiagramService.createNadPositionsConfigFromCsv(positionsConfigUuid, createPositionsCsv(50.0));
+        generate(VARIANT_ID, nadRequestInfos);
+        assertGenerations(2);
+        generate(VARIANT_ID, nadRequestInfos);
+        assertGenerations(2);
+
+        networkAreaDiagramService.deleteNadPositionsConfig(positionsConfigUuid);
+    }
+}
@@ -0,0 +1,166 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.sld.server;
+
+import com.powsybl.sld.server.dto.nad.NadRequestInfos;
+import com.powsybl.sld.server.utils.NadPositionsGenerationMode;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NadResultCacheServiceTest {
+
+    private static final String RESULT = "{\"svg\":\"" + "<g/>".repeat(1000) + "\"}";
+
+    private final NadResultCacheService nadResultCacheService = new NadResultCacheService(DataSize.ofMegabytes(1), Duration.ofMinutes(10));
+
+    private final AtomicInteger nbGenerations = new AtomicInteger();
+
+    private static final String REVISION = NadResultCacheService.digest("revision");
+
+    private String generate(UUID networkUuid, NadRequestInfos nadRequestInfos) {
+        return generate(networkUuid, nadRequestInfos, REVISION);
+    }
+
+    private String generate(UUID networkUuid, NadRequestInfos nadRequestInfos, String revision) {
+        return nadResultCacheService.get(networkUuid, null, nadRequestInfos, revision, () -> {
+            nbGenerations.incrementAndGet();
+            return RESULT;
+        });
+    }
+
+    @Test
+    void testCanonicalHash() {
+        Set<String> voltageLevelIds = new LinkedHashSet<>(List.of("VL1", "VL2", "VL3"));
+        Set<String> reversedVoltageLevelIds = new LinkedHashSet<>(List.of("VL3", "VL2", "VL1"));
+        Map<String, Integer> depths = new LinkedHashMap<>(Map.of("VL1", 1));
+        depths.put("VL2", 2);
+        Map<String, Integer> reversedDepths = new LinkedHashMap<>(Map.of("VL2", 2));
+        reversedDepths.put("VL1", 1);
+
+        NadRequestInfos nadRequestInfos = NadRequestInfos.builder().voltageLevelIds(voltageLevelIds).voltageLevelToExpandDepths(depths).build();
+        NadRequestInfos sameNadRequestInfos = NadRequestInfos.builder().voltageLevelIds(reversedVoltageLevelIds).voltageLevelToExpandDepths(reversedDepths).build();
+        assertEquals(NadResultCacheService.hash(nadRequestInfos), NadResultCacheService.hash(sameNadRequestInfos));
+
+        sameNadRequestInfos.setLanguage("fr");
+        assertNotEquals(NadResultCacheService.hash(nadRequestInfos), NadResultCacheService.hash(sameNadRequestInfos));
+    }
+
+    @Test
+    void testCachedResult() {
+        UUID networkUuid = UUID.randomUUID();
+        NadRequestInfos nadRequestInfos = NadRequestInfos.builder().voltageLevelIds(Set.of("VL1")).build();
+        assertEquals(RESULT, generate(networkUuid, nadRequestInfos));
+        assertEquals(RESULT, generate(networkUuid, NadRequestInfos.builder().voltageLevelIds(Set.of("VL1")).build()));
+        assertEquals(1, nbGenerations.get());
+
+        // Another variant, or another network
+        nadResultCacheService.get(networkUuid, "variant", nadRequestInfos, REVISION, () -> {
+            nbGenerations.incrementAndGet();
+            return RESULT;
+        });
+        generate(UUID.randomUUID(), nadRequestInfos);
+        assertEquals(3, nbGenerations.get());
+
+        nadResultCacheService.evict(networkUuid);
+        generate(networkUuid, nadRequestInfos);
+        assertEquals(4, nbGenerations.get());
+    }
+
+    @Test
+    void testBinaryResult() {
+        UUID networkUuid = UUID.randomUUID();
+        NadRequestInfos nadRequestInfos = NadRequestInfos.builder().voltageLevelIds(Set.of("VL1")).build();
+        byte[] binaryResult = {0, 1, 2, (byte) 0xFF};
+        generate(networkUuid, nadRequestInfos);
+        for (int i = 0; i < 2; i++) {
+            // Cached apart from the SVG result of the same request
+            assertArrayEquals(binaryResult, nadResultCacheService.getBinary(networkUuid, null, nadRequestInfos, REVISION, () -> {
+                nbGenerations.incrementAndGet();
+                return binaryResult;
+            }));
+        }
+        assertEquals(2, nbGenerations.get());
+        assertEquals(RESULT, nadResultCacheService.getIfPresent(networkUuid, null, nadRequestInfos, REVISION));
+
+        nadResultCacheService.evict(networkUuid);
+        nadResultCacheService.getBinary(networkUuid, null, nadRequestInfos, REVISION, () -> {
+            nbGenerations.incrementAndGet();
+            return binaryResult;
+        });
+        assertEquals(3, nbGenerations.get());
+    }
+
+    @Test
+    void testRevision() {
+        UUID networkUuid = UUID.randomUUID();
+        NadRequestInfos nadRequestInfos = NadRequestInfos.builder().voltageLevelIds(Set.of("VL1")).build();
+        generate(networkUuid, nadRequestInfos);
+        assertEquals(RESULT, nadResultCacheService.getIfPresent(networkUuid, null, nadRequestInfos, REVISION));
+
+        // The network or the configs changed since the NAD was generated
+        String otherRevision = NadResultCacheService.digest("other revision");
+        assertNull(nadResultCacheService.getIfPresent(networkUuid, null, nadRequestInfos, otherRevision));
+        generate(networkUuid, nadRequestInfos, otherRevision);
+        assertEquals(2, nbGenerations.get());
+
+        nadResultCacheService.put(networkUuid, null, nadRequestInfos, NadResultCacheService.digest("third revision"), RESULT);
+        generate(networkUuid, nadRequestInfos, NadResultCacheService.digest("third revision"));
+        assertEquals(2, nbGenerations.get());
+    }
+
+    @Test
+    void testInvalidation() {
+        UUID networkUuid = UUID.randomUUID();
+        UUID nadConfigUuid = UUID.randomUUID();
+        UUID positionsConfigUuid = UUID.randomUUID();
+        NadRequestInfos fromNadConfig = NadRequestInfos.builder().nadConfigUuid(nadConfigUuid).build();
+        NadRequestInfos fromPositionsConfig = NadRequestInfos.builder().voltageLevelIds(Set.of("VL1"))
+            .nadPositionsGenerationMode(NadPositionsGenerationMode.CONFIGURED).nadPositionsConfigUuid(positionsConfigUuid).build();
+        NadRequestInfos fromDefaultPositionsConfig = NadRequestInfos.builder().voltageLevelIds(Set.of("VL1"))
+            .nadPositionsGenerationMode(NadPositionsGenerationMode.CONFIGURED).build();
+        generate(networkUuid, fromNadConfig);
+        generate(networkUuid, fromPositionsConfig);
+        generate(networkUuid, fromDefaultPositionsConfig);
+        assertEquals(3, nbGenerations.get());
+
+        nadResultCacheService.invalidateNadConfigs(List.of(nadConfigUuid));
+        generate(networkUuid, fromNadConfig);
+        generate(networkUuid, fromPositionsConfig);
+        generate(networkUuid, fromDefaultPositionsConfig);
+        assertEquals(4, nbGenerations.get());
+
+        nadResultCacheService.invalidatePositionsConfig(positionsConfigUuid);
+        generate(networkUuid, fromPositionsConfig);
+        generate(networkUuid, fromDefaultPositionsConfig);
+        assertEquals(5, nbGenerations.get());
+
+        nadResultCacheService.invalidatePositionsConfig(null);
+        generate(networkUuid, fromPositionsConfig);
+        generate(networkUuid, fromDefaultPositionsConfig);
+        assertEquals(6, nbGenerations.get());
+    }
+
+    @Test
+    void testDisabled() {
+        NadResultCacheService disabledCache = new NadResultCacheService(DataSize.ofBytes(0), Duration.ofMinutes(10));
+        NadRequestInfos nadRequestInfos = NadRequestInfos.builder().voltageLevelIds(Set.of("VL1")).build();
+        UUID networkUuid = UUID.randomUUID();
+        for (int i = 0; i < 2; i++) {
+            assertEquals(RESULT, disabledCache.get(networkUuid, null, nadRequestInfos, REVISION, () -> {
+                nbGenerations.incrementAndGet();
+                return RESULT;
+            }));
+        }
+        assertEquals(2, nbGenerations.get());
+    }
+}
@@ -6,11 +6,14 @@
  */
 package com.powsybl.sld.server;
 
+import com.powsybl.sld.server.dto.nad.BoundingBox;
 import com.powsybl.sld.server.dto.nad.NadConfigInfos;
 import com.powsybl.sld.server.dto.nad.NadVoltageLevelPositionInfos;
 import com.powsybl.sld.server.entities.nad.NadConfigEntity;
 import com.powsybl.sld.server.error.DiagramBusinessException;
 import com.powsybl.sld.server.repository.NadConfigRepository;
+import com.powsybl.sld.server.repository.NadVoltageLevelConfiguredPositionRepository;
+import com.powsybl.sld.server.utils.ConfiguredPositionsIndex;
 import jakarta.transaction.Transactional;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Tag;
@@ -18,6 +21,12 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.util.ResourceUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.FileInputStream;
+import java.io.IOException;
 import java.util.*;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.*;
@@ -37,6 +46,12 @@ class NetworkAreaDiagramServiceTest {
     @Autowired
     private NetworkAreaDiagramService networkAreaDiagramService;
 
+    @Autowired
+    private NadVoltageLevelConfiguredPositionRepository nadVoltageLevelConfiguredPositionRepository;
+
+    @Autowired
+    private NadConfiguredPositionService nadConfiguredPositionService;
+
     @BeforeEach
     void setUp() {
         nadConfigRepository.deleteAll();
@@ -125,6 +140,46 @@ class NetworkAreaDiagramServiceTest {
         assertEquals(0, nadConfigRepository.count());
     }
 
+    @Test
+    void testDuplicateNadConfigs() {
+        UUID originNadConfigId1 = networkAreaDiagramService.createNetworkAreaDiagramConfig(createNadConfigDto());
+        NadConfigInfos nadConfig2 = createNadConfigDto();
+        nadConfig2.setVoltageLevelIds(Set.of("VL1", "VL2"));
+        UUID originNadConfigId2 = networkAreaDiagramService.createNetworkAreaDiagramConfig(nadConfig2);
+
+        Map<UUID, UUID> duplicateIds = networkAreaDiagramService.duplicateNetworkAreaDiagramConfigs(List.of(originNadConfigId1, originNadConfigId2));
+
+        assertEquals(Set.of(originNadConfigId1, originNadConfigId2), duplicateIds.keySet());
+        assertEquals(4, nadConfigRepository.count());
+        for (Map.Entry<UUID, UUID> entry : duplicateIds.entrySet()) {
+            NadConfigInfos originNadConfigInfos = networkAreaDiagramService.getNetworkAreaDiagramConfig(entry.getKey());
+            NadConfigInfos duplicateNadConfigInfos = networkAreaDiagramService.getNetworkAreaDiagramConfig(entry.getValue());
+
+            assertNotEquals(originNadConfigInfos.getId(), duplicateNadConfigInfos.getId());
+            Set<UUID> originPositionIds = originNadConfigInfos.getPositions().stream().map(NadVoltageLevelPositionInfos::getId).collect(java.util.stream.Collectors.toSet());
+            assertTrue(duplicateNadConfigInfos.getPositions().stream().map(NadVoltageLevelPositionInfos::getId).noneMatch(originPositionIds::contains));
+            assertThat(duplicateNadConfigInfos).usingRecursiveComparison()
+                .ignoringFieldsMatchingRegexes(".*\\.id$|id")
+                .ignoringCollectionOrder()
+                .isEqualTo(originNadConfigInfos);
+        }
+    }
+
+    @Test
+    void testDuplicateNadConfigsNotFound() {
+        UUID originNadConfigId = networkAreaDiagramService.createNetworkAreaDiagramConfig(createNadConfigDto());
+        List<UUID> originNadConfigIds = List.of(originNadConfigId, UUID.randomUUID());
+
+        assertThrows(RuntimeException.class, () -> networkAreaDiagramService.duplicateNetworkAreaDiagramConfigs(originNadConfigIds), HttpStatus.NOT_FOUND.toString());
+        // Nothing is duplicated if one of the configs is missing
+        assertEquals(1, nadConfigRepository.count());
+    }
+
+    @Test
+    void testDuplicateNadConfigsEmptyList() {
+        assertTrue(networkAreaDiagramService.duplicateNetworkAreaDiagramConfigs(List.of()).isEmpty());
+    }
+
     @Test
     void testUpdateNadConfig() {
         UUID nadConfigId = networkAreaDiagramService.createNetworkAreaDiagramConfig(createNadConfigDto());
@@ -412,4 +467,88 @@ class NetworkAreaDiagramServiceTest {
         assertEquals(0, nadConfigRepository.count());
         assertThrows(RuntimeException.class, () -> networkAreaDiagramService.getNetworkAreaDiagramConfig(existingConfigId));
     }
+
+    @Test
+    void testCreateNadPositionsConfigFromCsvReplacesActiveGeneration() throws IOException {
+        MockMultipartFile file;
+        try (FileInputStream inputStream = new FileInputStream(ResourceUtils.getFile("classpath:voltage-level-positions.csv"))) {
+            file = new MockMultipartFile("file", "vl-positions.csv", "text/csv", inputStream);
+        }
+
+        networkAreaDiagramService.createNadPositionsConfigFromCsv(file);
+        ConfiguredPositionsIndex firstGeneration = nadConfiguredPositionService.getIndex(null);
+        assertEquals(5, firstGeneration.positionsByVoltageLevelId().size());
+
+        networkAreaDiagramService.createNadPositionsConfigFromCsv(file);
+        ConfiguredPositionsIndex secondGeneration = nadConfiguredPositionService.getIndex(null);
+        assertEquals(5, secondGeneration.positionsByVoltageLevelId().size());
+        // The previous generation has been removed
+        assertEquals(5, nadVoltageLevelConfiguredPositionRepository.count());
+        assertNotEquals(firstGeneration.generationId(), secondGeneration.generationId());
+        assertEquals(176187, secondGeneration.positionsByVoltageLevelId().get("AAR 6").getXPosition(), 0.001);
+    }
+
+    @Test
+    void testCreateNadPositionsConfigFromEmptyCsvKeepsActiveGeneration() throws IOException {
+        MockMultipartFile file;
+        try (FileInputStream inputStream = new FileInputStream(ResourceUtils.getFile("classpath:voltage-level-positions.csv"))) {
+            file = new MockMultipartFile("file", "vl-positions.csv", "text/csv", inputStream);
+        }
+        MockMultipartFile emptyFile;
+        try (FileInputStream inputStream = new FileInputStream(ResourceUtils.getFile("classpath:voltage-level-positions-empty.csv"))) {
+            emptyFile = new MockMultipartFile("file", "vl-positions.csv", "text/csv", inputStream);
+        }
+
+        networkAreaDiagramService.createNadPositionsConfigFromCsv(file);
+        assertThrows(ResponseStatusException.class, () -> networkAreaDiagramService.createNadPositionsConfigFromCsv(emptyFile));
+        // The failed import is rolled back, the previous positions are still active
+        assertEquals(5, nadConfiguredPositionService.getIndex(null).positionsByVoltageLevelId().size());
+    }
+
+    @Test
+    void testNamedPositionsConfigsAreIsolated() throws IOException {
+        MockMultipartFile file;
+        try (FileInputStream inputStream = new FileInputStream(ResourceUtils.getFile("classpath:voltage-level-positions.csv"))) {
+            file = new MockMultipartFile("file", "vl-positions.csv", "text/csv", inputStream);
+        }
+        UUID positionsConfigUuid = UUID.randomUUID();
+
+        networkAreaDiagramService.createNadPositionsConfigFromCsv(file);
+        networkAreaDiagramService.createNadPositionsConfigFromCsv(positionsConfigUuid, file);
+        networkAreaDiagramService.createNadPositionsConfigFromCsv(positionsConfigUuid, file);
+        // Replacing the named positions config does not touch the default one
+        assertEquals(5, nadConfiguredPositionService.getIndex(null).positionsByVoltageLevelId().size());
+        assertEquals(5, nadConfiguredPositionService.getIndex(positionsConfigUuid).positionsByVoltageLevelId().size());
+        assertEquals(10, nadVoltageLevelConfiguredPositionRepository.count());
+
+        networkAreaDiagramService.deleteNadPositionsConfig(positionsConfigUuid);
+        assertThrows(DiagramBusinessException.class, () -> nadConfiguredPositionService.getIndex(positionsConfigUuid));
+        assertEquals(5, nadConfiguredPositionService.getIndex(null).positionsByVoltageLevelId().size());
+        assertThrows(ResponseStatusException.class, () -> networkAreaDiagramService.deleteNadPositionsConfig(positionsConfigUuid));
+    }
+
+    @Test
+    void testGetNadConfigVoltageLevelIdsInBoundingBox() {
+        UUID nadConfigId = networkAreaDiagramService.createNetworkAreaDiagramConfig(createNadConfigDto());
+
+        assertEquals(List.of("VL1"), networkAreaDiagramService.getNetworkAreaDiagramConfigVoltageLevelIds(nadConfigId, new BoundingBox(0, 0, 1.5, 1.5)));
+        assertEquals(Set.of("VL1", "VL2"), new HashSet<>(networkAreaDiagramService.getNetworkAreaDiagramConfigVoltageLevelIds(nadConfigId, new BoundingBox(0, 0, 1.5, 1.5).withMargin(1))));
+
+        // The spatial index follows the updates of the config, even of the positions only
+        Long version = networkAreaDiagramService.getNetworkAreaDiagramConfig(nadConfigId).getVersion();
+        networkAreaDiagramService.updateNetworkAreaDiagramConfig(nadConfigId, NadConfigInfos.builder()
+            .positions(List.of(NadVoltageLevelPositionInfos.builder().voltageLevelId("VL2").xPosition(0.5).yPosition(0.5).build()))
+            .build());
+        assertNotEquals(version, networkAreaDiagramService.getNetworkAreaDiagramConfig(nadConfigId).getVersion());
+        assertEquals(Set.of("VL1", "VL2"), new HashSet<>(networkAreaDiagramService.getNetworkAreaDiagramConfigVoltageLevelIds(nadConfigId, new BoundingBox(0, 0, 1.5, 1.5))));
+
+        BoundingBox invalidBoundingBox = new BoundingBox(1, 1, 0, 0);
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class, () -> networkAreaDiagramService.getNetworkAreaDiagramConfigVoltageLevelIds(nadConfigId, invalidBoundingBox));
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
+
+        networkAreaDiagramService.deleteNetworkAreaDiagramConfig(nadConfigId);
+        BoundingBox boundingBox = new BoundingBox(0, 0, 1.5, 1.5);
+        exception = assertThrows(ResponseStatusException.class, () -> networkAreaDiagramService.getNetworkAreaDiagramConfigVoltageLevelIds(nadConfigId, boundingBox));
+        assertEquals(HttpStatus.NOT_FOUND, exception.getStatusCode());
+    }
 }
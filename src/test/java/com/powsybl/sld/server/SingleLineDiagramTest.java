@@ -7,6 +7,7 @@
 package com.powsybl.sld.server;
 
 import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.io.ByteStreams;
 import com.powsybl.commons.PowsyblException;
@@ -31,16 +32,23 @@ import com.powsybl.sld.model.graphs.VoltageLevelGraph;
 import com.powsybl.sld.model.nodes.FeederNode;
 import com.powsybl.sld.server.dto.CurrentLimitViolationInfos;
 import com.powsybl.sld.server.dto.IdentifiableAttributes;
+import com.powsybl.sld.server.dto.SldBatchRequestInfos;
 import com.powsybl.sld.server.dto.SldRequestInfos;
 import com.powsybl.sld.server.dto.SvgAndMetadata;
+import com.powsybl.sld.server.dto.nad.BoundingBox;
 import com.powsybl.sld.server.dto.nad.NadConfigInfos;
+import com.powsybl.sld.server.dto.nad.NadCostEstimation;
 import com.powsybl.sld.server.dto.nad.NadGenerationContext;
 import com.powsybl.sld.server.dto.nad.NadRequestInfos;
+import com.powsybl.sld.server.dto.nad.NadSceneGraph;
 import com.powsybl.sld.server.dto.nad.NadVoltageLevelPositionInfos;
 import com.powsybl.sld.server.repository.NadConfigRepository;
 import com.powsybl.sld.server.repository.NadVoltageLevelConfiguredPositionRepository;
 import com.powsybl.sld.server.utils.DiagramConstants;
+import com.powsybl.sld.server.utils.NadLayoutAlgorithm;
+import com.powsybl.sld.server.utils.NadOutputFormat;
 import com.powsybl.sld.server.utils.NadPositionsGenerationMode;
+import com.powsybl.sld.server.utils.NadSceneGraphBinaryFormat;
 import com.powsybl.sld.server.utils.SldDisplayMode;
 import com.powsybl.sld.svg.FeederInfo;
 import com.powsybl.sld.svg.SvgParameters;
@@ -67,6 +75,7 @@ import java.io.IOException;
 import java.io.StringWriter;
 import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.stream.Collectors;
 
 import static com.powsybl.sld.library.SldComponentTypeName.ARROW_ACTIVE;
 import static com.powsybl.sld.library.SldComponentTypeName.ARROW_REACTIVE;
@@ -75,6 +84,7 @@ import static com.powsybl.sld.svg.styles.StyleClassConstants.STYLE_PREFIX;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -360,6 +370,41 @@ class SingleLineDiagramTest {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    void testSingleLineDiagramBatch() throws Exception {
+        UUID testNetworkId = UUID.randomUUID();
+        given(networkStoreService.getNetwork(testNetworkId, PreloadingStrategy.ALL_COLLECTIONS_NEEDED_FOR_BUS_VIEW)).willReturn(createNetwork());
+
+        SldBatchRequestInfos sldBatchRequestInfos = new SldBatchRequestInfos(List.of("vlFr1A", "subFr2", "notFound"), sldRequestInfos);
+        ResultActions mockMvcResultActions = mvc.perform(post("/v1/batch/svg-and-metadata/{networkUuid}", testNetworkId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(sldBatchRequestInfos)))
+                .andExpect(request().asyncStarted());
+        String result = mvc.perform(asyncDispatch(mockMvcResultActions.andReturn()))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        Map<Integer, JsonNode> resultsByIndex = new HashMap<>();
+        for (String line : result.lines().toList()) {
+            JsonNode diagramResult = objectMapper.readTree(line);
+            resultsByIndex.put(diagramResult.get("index").asInt(), diagramResult);
+        }
+        assertEquals(Set.of(0, 1, 2), resultsByIndex.keySet());
+        for (int index = 0; index < 2; index++) {
+            assertTrue(resultsByIndex.get(index).get("result").get("svg").asText().contains("<?xml"));
+            assertNotNull(resultsByIndex.get(index).get("result").get("metadata"));
+            assertNull(resultsByIndex.get(index).get("error"));
+        }
+        assertEquals("subFr2", resultsByIndex.get(1).get("id").asText());
+        // The unknown equipment does not fail the other diagrams
+        JsonNode error = resultsByIndex.get(2).get("error");
+        assertEquals(404, error.get("status").asInt());
+        assertEquals("diagram.equipmentNotFound", error.get("businessErrorCode").asText());
+
+        verify(networkStoreService, times(1)).getNetwork(testNetworkId, PreloadingStrategy.ALL_COLLECTIONS_NEEDED_FOR_BUS_VIEW);
+    }
+
     @Test
     void testComponentLibraries() throws Exception {
         MvcResult result = mvc.perform(get("/v1/svg-component-libraries"))
@@ -454,6 +499,153 @@ class SingleLineDiagramTest {
                 .andExpect(status().isBadRequest()).andReturn();
     }
 
+    @Test
+    void testNetworkAreaDiagramWithMissingGeoData() {
+        UUID testNetworkId = UUID.randomUUID();
+        Network network = createNetworkWithDepth();
+        given(networkStoreService.getNetwork(testNetworkId, PreloadingStrategy.COLLECTION)).willReturn(network);
+        // Only subFr1 is known to the geo data server
+        given(geoDataService.getSubstationsGraphics(any(), any(), any())).willReturn(toString(GEO_DATA_SUBSTATIONS));
+
+        NadRequestInfos nadRequestInfos = NadRequestInfos.builder()
+                .voltageLevelIds(Set.of("vlFr1A", "vlFr2A"))
+                .nadPositionsGenerationMode(NadPositionsGenerationMode.GEOGRAPHICAL_COORDINATES)
+                .build();
+        String result = networkAreaDiagramService.generateNetworkAreaDiagramSvg(testNetworkId, null, nadRequestInfos);
+        assertTrue(result.contains("\"nbVoltageLevels\":2"));
+
+        // subFr2 is placed next to its only positioned neighbour, then subEs1 next to subFr2
+        SubstationPosition subFr2Position = network.getSubstation("subFr2").getExtension(SubstationPosition.class);
+        assertNotNull(subFr2Position);
+        assertEquals(53.20624, subFr2Position.getCoordinate().getLatitude(), 1e-9);
+        assertEquals(6.61964, subFr2Position.getCoordinate().getLongitude(), 1e-9);
+        SubstationPosition subEs1Position = network.getSubstation("subEs1").getExtension(SubstationPosition.class);
+        assertNotNull(subEs1Position);
+        assertEquals(53.21624, subEs1Position.getCoordinate().getLatitude(), 1e-9);
+        // Not connected to the diagram
+        assertNull(network.getSubstation("subFr3").getExtension(SubstationPosition.class));
+    }
+
+    @Test
+    void testNetworkAreaDiagramTiles() throws Exception {
+        UUID testNetworkId = UUID.randomUUID();
+        given(networkStoreService.getNetwork(testNetworkId, PreloadingStrategy.COLLECTION)).willReturn(createNetworkWithDepth());
+        // Only subFr1 is known to the geo data server, subFr2 and subEs1 are placed from it
+        given(geoDataService.getSubstationsGraphics(any(), any(), any())).willReturn(toString(GEO_DATA_SUBSTATIONS));
+
+        // The whole world, with the highest voltages only
+        ResultActions mockMvcResultActions = mvc.perform(get("/v1/network-area-diagram/{networkUuid}/tiles/{z}/{x}/{y}", testNetworkId, 0, 0, 0))
+                .andExpect(request().asyncStarted());
+        String result = mvc.perform(asyncDispatch(mockMvcResultActions.andReturn()))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON_VALUE))
+                .andReturn().getResponse().getContentAsString();
+        NadSceneGraph tile = objectMapper.readValue(result, NadSceneGraph.class);
+        assertEquals(Set.of("vlFr1A", "vlFr2A", "vlEs1A", "vlEs1B"), tile.getNodes().stream().map(NadSceneGraph.Node::getId).collect(Collectors.toSet()));
+        assertEquals(Set.of("l1", "l2"), tile.getEdges().stream().map(NadSceneGraph.Edge::getId).collect(Collectors.toSet()));
+        assertTrue(tile.getNodes().stream().allMatch(node -> node.getX() >= 0 && node.getX() <= 4096 && node.getY() >= 0 && node.getY() <= 4096));
+
+        // The tile of subFr1 at a high zoom level, with all the VLs
+        int z = 12;
+        double latitude = Math.toRadians(53.19624);
+        int x = (int) Math.floor((6.60964 + 180) / 360 * (1 << z));
+        int y = (int) Math.floor((1 - Math.log(Math.tan(latitude) + 1 / Math.cos(latitude)) / Math.PI) / 2 * (1 << z));
+        mockMvcResultActions = mvc.perform(get("/v1/network-area-diagram/{networkUuid}/tiles/{z}/{x}/{y}", testNetworkId, z, x, y)
+                        .accept(NadSceneGraphBinaryFormat.MEDIA_TYPE))
+                .andExpect(request().asyncStarted());
+        byte[] binaryResult = mvc.perform(asyncDispatch(mockMvcResultActions.andReturn()))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(NadSceneGraphBinaryFormat.MEDIA_TYPE))
+                .andReturn().getResponse().getContentAsByteArray();
+        tile = NadSceneGraphBinaryFormat.decode(binaryResult).sceneGraph();
+        assertTrue(tile.getNodes().stream().map(NadSceneGraph.Node::getId).toList().containsAll(List.of("vlFr1A", "vlFr1B")));
+        assertTrue(tile.getEdges().stream().anyMatch(edge -> "l1".equals(edge.getId())));
+        // The geographical layout is built once for all the tiles
+        verify(networkStoreService, times(1)).getNetwork(testNetworkId, PreloadingStrategy.COLLECTION);
+
+        mockMvcResultActions = mvc.perform(get("/v1/network-area-diagram/{networkUuid}/tiles/{z}/{x}/{y}", testNetworkId, 1, 2, 0))
+                .andExpect(request().asyncStarted());
+        mvc.perform(asyncDispatch(mockMvcResultActions.andReturn()))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testNetworkAreaDiagramCostEstimation() throws Exception {
+        UUID testNetworkId = UUID.randomUUID();
+        given(networkStoreService.getNetwork(testNetworkId, PreloadingStrategy.COLLECTION)).willReturn(createNetworkWithDepth());
+
+        // The unknown VL is ignored, the expansion of vlFr1A adds vlFr2A, l2 towards vlEs1B is drawn too
+        NadRequestInfos nadRequestInfos = NadRequestInfos.builder()
+                .voltageLevelIds(Set.of("vlFr1A", "unknownVL"))
+                .voltageLevelToExpandIds(Set.of("vlFr1A"))
+                .nadPositionsGenerationMode(NadPositionsGenerationMode.GEOGRAPHICAL_COORDINATES)
+                .build();
+        String result = mvc.perform(post("/v1/network-area-diagram/{networkUuid}/cost-estimation", testNetworkId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(nadRequestInfos)))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON_VALUE))
+                .andReturn().getResponse().getContentAsString();
+        NadCostEstimation estimation = objectMapper.readValue(result, NadCostEstimation.class);
+        assertEquals(2, estimation.getNbVoltageLevels());
+        assertEquals(2, estimation.getNbBranches());
+        assertFalse(estimation.isMaxVoltageLevelsExceeded());
+        assertTrue(estimation.getEstimatedDurationMillis() > 0);
+        assertTrue(estimation.getEstimatedSizeBytes() > 0);
+        // Nothing is drawn
+        verify(geoDataService, never()).getSubstationsGraphics(any(), any(), any());
+
+        int maxVoltageLevels = (int) ReflectionTestUtils.getField(networkAreaDiagramService, "maxVoltageLevels");
+        ReflectionTestUtils.setField(networkAreaDiagramService, "maxVoltageLevels", 1);
+        try {
+            estimation = networkAreaDiagramService.estimateNetworkAreaDiagram(testNetworkId, null, nadRequestInfos);
+            assertTrue(estimation.isMaxVoltageLevelsExceeded());
+            assertEquals(1, estimation.getMaxVoltageLevels());
+        } finally {
+            ReflectionTestUtils.setField(networkAreaDiagramService, "maxVoltageLevels", maxVoltageLevels);
+        }
+    }
+
+    @Test
+    void testNetworkAreaDiagramBatch() throws Exception {
+        UUID testNetworkId = UUID.randomUUID();
+        given(networkStoreService.getNetwork(testNetworkId, PreloadingStrategy.ALL_COLLECTIONS_NEEDED_FOR_BUS_VIEW)).willReturn(createNetworkWithDepth());
+        given(geoDataService.getSubstationsGraphics(any(), any(), any())).willReturn(toString(GEO_DATA_SUBSTATIONS));
+
+        List<NadRequestInfos> nadRequestInfos = List.of(
+            NadRequestInfos.builder().voltageLevelIds(Set.of("vlFr1A")).nadPositionsGenerationMode(NadPositionsGenerationMode.AUTOMATIC).build(),
+            NadRequestInfos.builder().voltageLevelIds(Set.of("vlFr1A", "vlFr2A")).nadPositionsGenerationMode(NadPositionsGenerationMode.GEOGRAPHICAL_COORDINATES).build(),
+            NadRequestInfos.builder().voltageLevelIds(Set.of("vlEs1B")).nadPositionsGenerationMode(NadPositionsGenerationMode.GEOGRAPHICAL_COORDINATES).build(),
+            NadRequestInfos.builder().nadConfigUuid(UUID.randomUUID()).build());
+
+        ResultActions mockMvcResultActions = mvc.perform(post("/v1/network-area-diagram/{networkUuid}/batch", testNetworkId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(nadRequestInfos)))
+                .andExpect(request().asyncStarted());
+        String result = mvc.perform(asyncDispatch(mockMvcResultActions.andReturn()))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        Map<Integer, JsonNode> resultsByIndex = new HashMap<>();
+        for (String line : result.lines().toList()) {
+            JsonNode diagramResult = objectMapper.readTree(line);
+            resultsByIndex.put(diagramResult.get("index").asInt(), diagramResult);
+        }
+        assertEquals(Set.of(0, 1, 2, 3), resultsByIndex.keySet());
+        for (int index = 0; index < 3; index++) {
+            assertTrue(resultsByIndex.get(index).get("result").get("svg").asText().contains("<?xml"));
+            assertNull(resultsByIndex.get(index).get("error"));
+        }
+        assertEquals(2, resultsByIndex.get(1).get("result").get("additionalMetadata").get("nbVoltageLevels").asInt());
+        // The unknown NAD config does not fail the other diagrams
+        assertEquals(404, resultsByIndex.get(3).get("error").get("status").asInt());
+
+        // The network is loaded once, and the geo data of both geographical diagrams are fetched at once
+        verify(networkStoreService, times(1)).getNetwork(testNetworkId, PreloadingStrategy.ALL_COLLECTIONS_NEEDED_FOR_BUS_VIEW);
+        verify(geoDataService, times(1)).getSubstationsGraphics(any(), any(), any());
+    }
+
     @Test
     void testNetworkAreaDiagramFromFilter() throws Exception {
         UUID testNetworkId = UUID.randomUUID();
@@ -770,7 +962,9 @@ class SingleLineDiagramTest {
                 .build();
 
         given(nadConfigRepository.findById(any())).willReturn(Optional.of(validConfig.toEntity()));
-        given(nadVoltageLevelConfiguredPositionRepository.findAll()).willReturn(List.of(vlPositionInfos.toConfiguredPositionEntity()));
+        UUID generationId = UUID.randomUUID();
+        given(nadVoltageLevelConfiguredPositionRepository.findActiveGenerationId()).willReturn(Optional.of(generationId));
+        given(nadVoltageLevelConfiguredPositionRepository.findAllByGenerationId(generationId)).willReturn(List.of(vlPositionInfos.toConfiguredPositionEntity()));
 
         NadRequestInfos nadRequestInfos = NadRequestInfos.builder()
                 .filterUuid(null)
@@ -840,10 +1034,259 @@ class SingleLineDiagramTest {
         assertTrue(stringResult.contains("\"voltageLevels\":[{\"id\":\"vlFr1A\",\"name\":\"vlFr1A\",\"substationId\":\"subFr1\""));
     }
 
+    private String generateNetworkAreaDiagramInBoundingBox(UUID networkUuid, BoundingBox boundingBox) throws Exception {
+        NadRequestInfos nadRequestInfos = NadRequestInfos.builder()
+                .voltageLevelIds(Set.of("vlFr1A", "vlFr2A", "vlEs1B"))
+                .positions(List.of(
+                    NadVoltageLevelPositionInfos.builder().voltageLevelId("vlFr1A").xPosition(0.0).yPosition(0.0).xLabelPosition(0.0).yLabelPosition(0.0).build(),
+                    NadVoltageLevelPositionInfos.builder().voltageLevelId("vlFr2A").xPosition(100.0).yPosition(0.0).xLabelPosition(100.0).yLabelPosition(0.0).build(),
+                    NadVoltageLevelPositionInfos.builder().voltageLevelId("vlEs1B").xPosition(200.0).yPosition(0.0).xLabelPosition(200.0).yLabelPosition(0.0).build()))
+                .boundingBox(boundingBox)
+                .build();
+
+        ResultActions mockMvcResultActions = mvc.perform(post("/v1/network-area-diagram/{networkUuid}", networkUuid)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(nadRequestInfos)))
+                .andExpect(request().asyncStarted());
+        return mvc.perform(asyncDispatch(mockMvcResultActions.andReturn()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+    }
+
+    @Test
+    void testNetworkAreaDiagramClippedToBoundingBox() throws Exception {
+        UUID testNetworkId = UUID.randomUUID();
+        given(networkStoreService.getNetwork(testNetworkId, PreloadingStrategy.COLLECTION)).willReturn(createNetworkWithDepth());
+
+        // Only the VL inside the bounding box is rendered
+        String result = generateNetworkAreaDiagramInBoundingBox(testNetworkId, new BoundingBox(-10, -10, 10, 10));
+        assertTrue(result.contains("\"additionalMetadata\":{\"nbVoltageLevels\":1"));
+        assertTrue(result.contains("\"voltageLevels\":[{\"id\":\"vlFr1A\""));
+
+        // The line vlFr2A - vlEs1B crosses the bounding box, its ends are kept
+        result = generateNetworkAreaDiagramInBoundingBox(testNetworkId, new BoundingBox(140, -10, 160, 10));
+        assertTrue(result.contains("\"additionalMetadata\":{\"nbVoltageLevels\":2"));
+        assertFalse(result.contains("{\"id\":\"vlFr1A\""));
+    }
+
+    @Test
+    void testNetworkAreaDiagramNominalVoltageFilter() throws Exception {
+        UUID testNetworkId = UUID.randomUUID();
+        given(networkStoreService.getNetwork(testNetworkId, PreloadingStrategy.COLLECTION)).willReturn(createNetwork());
+
+        // Only the VLs above the nominal voltage threshold
+        NadRequestInfos nominalVoltageRequest = NadRequestInfos.builder()
+                .voltageLevelIds(Set.of("vlFr1A", "vlFr1B", "vlFr2A"))
+                .nadPositionsGenerationMode(NadPositionsGenerationMode.AUTOMATIC)
+                .minNominalVoltage(300.0)
+                .build();
+        String result = networkAreaDiagramService.generateNetworkAreaDiagramSvg(testNetworkId, null, nominalVoltageRequest);
+        assertTrue(result.contains("\"nbVoltageLevels\":2"));
+        assertTrue(result.contains("\"nbHiddenVoltageLevels\":1"));
+        assertFalse(result.contains("{\"id\":\"vlFr1B\""));
+
+        // No filter without threshold
+        nominalVoltageRequest.setMinNominalVoltage(null);
+        result = networkAreaDiagramService.generateNetworkAreaDiagramSvg(testNetworkId, null, nominalVoltageRequest);
+        assertTrue(result.contains("\"nbVoltageLevels\":3"));
+        assertFalse(result.contains("nbHiddenVoltageLevels"));
+    }
+
+    @Test
+    void testNetworkAreaDiagramExpansionDepth() {
+        UUID testNetworkId = UUID.randomUUID();
+        given(networkStoreService.getNetwork(testNetworkId, PreloadingStrategy.COLLECTION)).willReturn(createNetworkWithDepth());
+
+        NadRequestInfos nadRequestInfos = NadRequestInfos.builder()
+                .voltageLevelToExpandDepths(Map.of("vlFr1A", 2))
+                .nadPositionsGenerationMode(NadPositionsGenerationMode.AUTOMATIC)
+                .build();
+        String result = networkAreaDiagramService.generateNetworkAreaDiagramSvg(testNetworkId, null, nadRequestInfos);
+        assertTrue(result.contains("\"nbVoltageLevels\":3"));
+        assertTrue(result.contains("{\"id\":\"vlEs1B\""));
+
+        // The budget stops the expansion before the second depth
+        nadRequestInfos.setMaxExpandedVoltageLevels(2);
+        result = networkAreaDiagramService.generateNetworkAreaDiagramSvg(testNetworkId, null, nadRequestInfos);
+        assertTrue(result.contains("\"nbVoltageLevels\":2"));
+        assertFalse(result.contains("{\"id\":\"vlEs1B\""));
+
+        nadRequestInfos.setVoltageLevelToExpandDepths(Map.of("vlFr1A", -1));
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+            () -> networkAreaDiagramService.generateNetworkAreaDiagramSvg(testNetworkId, null, nadRequestInfos));
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
+    }
+
+    @Test
+    void testNetworkAreaDiagramWithRemovedVoltageLevel() {
+        UUID testNetworkId = UUID.randomUUID();
+        Network network = createNetworkWithDepth();
+        given(networkStoreService.getNetwork(testNetworkId, PreloadingStrategy.COLLECTION)).willReturn(network);
+
+        NadRequestInfos nadRequestInfos = NadRequestInfos.builder()
+                .voltageLevelToExpandDepths(Map.of("vlFr1A", 2))
+                .nadPositionsGenerationMode(NadPositionsGenerationMode.AUTOMATIC)
+                .build();
+        String result = networkAreaDiagramService.generateNetworkAreaDiagramSvg(testNetworkId, null, nadRequestInfos);
+        assertTrue(result.contains("\"nbVoltageLevels\":3"));
+
+        // The VL reached by the expansion is removed from the network after the adjacency index has been cached
+        network.getLine("l2").remove();
+        network.getVoltageLevel("vlEs1B").remove();
+        result = networkAreaDiagramService.generateNetworkAreaDiagramSvg(testNetworkId, null, nadRequestInfos);
+        assertTrue(result.contains("\"nbVoltageLevels\":2"));
+        assertFalse(result.contains("{\"id\":\"vlEs1B\""));
+
+        // A requested VL removed from the network is ignored as the other unknown VLs
+        NadRequestInfos removedVoltageLevelRequest = NadRequestInfos.builder()
+                .voltageLevelIds(Set.of("vlFr1A", "vlEs1B"))
+                .nadPositionsGenerationMode(NadPositionsGenerationMode.AUTOMATIC)
+                .build();
+        result = networkAreaDiagramService.generateNetworkAreaDiagramSvg(testNetworkId, null, removedVoltageLevelRequest);
+        assertTrue(result.contains("\"nbVoltageLevels\":1"));
+    }
+
+    @Test
+    void testNetworkAreaDiagramBarnesHutLayout() {
+        UUID testNetworkId = UUID.randomUUID();
+        given(networkStoreService.getNetwork(testNetworkId, PreloadingStrategy.COLLECTION)).willReturn(createNetworkWithDepth());
+
+        // The positioned VL is kept, the others are placed around it
+        NadRequestInfos nadRequestInfos = NadRequestInfos.builder()
+                .voltageLevelIds(Set.of("vlFr1A", "vlFr2A", "vlEs1B"))
+                .positions(List.of(NadVoltageLevelPositionInfos.builder()
+                    .voltageLevelId("vlFr1A").xPosition(0.0).yPosition(0.0).xLabelPosition(10.0).yLabelPosition(10.0).build()))
+                .layoutAlgorithm(NadLayoutAlgorithm.BARNES_HUT)
+                .build();
+        String result = networkAreaDiagramService.generateNetworkAreaDiagramSvg(testNetworkId, null, nadRequestInfos);
+        assertTrue(result.contains("\"nbVoltageLevels\":3"));
+        assertTrue(result.contains("{\"id\":\"vlFr2A\""));
+        assertTrue(result.contains("{\"id\":\"vlEs1B\""));
+
+        // Without any position
+        nadRequestInfos.setPositions(List.of());
+        nadRequestInfos.setNadPositionsGenerationMode(NadPositionsGenerationMode.AUTOMATIC);
+        result = networkAreaDiagramService.generateNetworkAreaDiagramSvg(testNetworkId, null, nadRequestInfos);
+        assertTrue(result.contains("\"nbVoltageLevels\":3"));
+
+        // The layout stops when its budget is exhausted
+        nadRequestInfos.setLayoutMaxIterations(2);
+        result = networkAreaDiagramService.generateNetworkAreaDiagramSvg(testNetworkId, null, nadRequestInfos);
+        assertTrue(result.contains("\"layoutIterations\":2"));
+        assertTrue(result.contains("\"layoutConverged\":false"));
+        nadRequestInfos.setLayoutMaxIterations(-1);
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+            () -> networkAreaDiagramService.generateNetworkAreaDiagramSvg(testNetworkId, null, nadRequestInfos));
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
+        nadRequestInfos.setLayoutMaxIterations(null);
+
+        // A time budget is only honoured by the server side layout, whatever the layout algorithm
+        nadRequestInfos.setLayoutAlgorithm(NadLayoutAlgorithm.BASIC);
+        nadRequestInfos.setLayoutTimeoutMillis(10_000L);
+        result = networkAreaDiagramService.generateNetworkAreaDiagramSvg(testNetworkId, null, nadRequestInfos);
+        assertTrue(result.contains("\"layoutConverged\""));
+        nadRequestInfos.setLayoutTimeoutMillis(null);
+
+        // Warm started from the positions of a previous diagram, whatever the layout algorithm
+        nadRequestInfos.setLayoutAlgorithm(NadLayoutAlgorithm.BASIC);
+        nadRequestInfos.setSeedPositions(List.of(
+            NadVoltageLevelPositionInfos.builder().voltageLevelId("vlFr1A").xPosition(0.0).yPosition(0.0).build(),
+            NadVoltageLevelPositionInfos.builder().voltageLevelId("vlFr2A").xPosition(100.0).yPosition(0.0).build()));
+        result = networkAreaDiagramService.generateNetworkAreaDiagramSvg(testNetworkId, null, nadRequestInfos);
+        assertTrue(result.contains("\"nbVoltageLevels\":3"));
+        assertTrue(result.contains("{\"id\":\"vlEs1B\""));
+    }
+
+    @Test
+    void testNetworkAreaDiagramSceneGraph() throws Exception {
+        UUID testNetworkId = UUID.randomUUID();
+        given(networkStoreService.getNetwork(testNetworkId, PreloadingStrategy.COLLECTION)).willReturn(createNetworkWithDepth());
+
+        NadRequestInfos nadRequestInfos = NadRequestInfos.builder()
+                .voltageLevelIds(Set.of("vlFr1A", "vlFr2A", "vlEs1B"))
+                .outputFormat(NadOutputFormat.SCENE_GRAPH)
+                .build();
+        String result = networkAreaDiagramService.generateNetworkAreaDiagramSvg(testNetworkId, null, nadRequestInfos);
+        assertFalse(result.contains("\"svg\""));
+        assertTrue(result.contains("\"nbVoltageLevels\":3"));
+
+        NadSceneGraph sceneGraph = objectMapper.treeToValue(objectMapper.readTree(result).get("sceneGraph"), NadSceneGraph.class);
+        assertTrue(sceneGraph.getNodes().stream().map(NadSceneGraph.Node::getId).toList().containsAll(List.of("vlFr1A", "vlFr2A", "vlEs1B")));
+        // The edges and labels refer to the nodes by their index, with the style classes
+        NadSceneGraph.Edge edge = sceneGraph.getEdges().stream().filter(e -> "l1".equals(e.getId())).findFirst().orElseThrow();
+        Set<String> edgeNodes = Set.of(sceneGraph.getNodes().get(edge.getNode1()).getId(), sceneGraph.getNodes().get(edge.getNode2()).getId());
+        assertEquals(Set.of("vlFr1A", "vlFr2A"), edgeNodes);
+        // Routed as in the SVG, each side going from its node to the middle of the edge
+        assertEquals(2, edge.getSides().size());
+        NadSceneGraph.Node node1 = sceneGraph.getNodes().get(edge.getNode1());
+        double[] points1 = edge.getSides().getFirst().getPoints();
+        assertEquals(node1.getX(), points1[0], 0.001);
+        assertEquals(node1.getY(), points1[1], 0.001);
+        double[] points2 = edge.getSides().getLast().getPoints();
+        assertEquals(points1[points1.length - 2], points2[points2.length - 2], 0.001);
+        assertEquals(points1[points1.length - 1], points2[points2.length - 1], 0.001);
+        assertTrue(Arrays.stream(edge.getClasses()).allMatch(index -> index < sceneGraph.getStyleClasses().size()));
+        assertTrue(sceneGraph.getLabels().stream().allMatch(label -> label.getNode() < sceneGraph.getNodes().size()));
+        // The texts of the SVG labels
+        assertTrue(sceneGraph.getLabels().stream().anyMatch(label -> Arrays.asList(label.getText()).contains("vlFr1A")));
+        assertTrue(sceneGraph.getStyleClasses().stream().allMatch(styleClass -> styleClass.startsWith("nad-")));
+
+        // The legs of the three windings transformers go to their transformer node
+        UUID threeWindingsNetworkId = UUID.randomUUID();
+        given(networkStoreService.getNetwork(threeWindingsNetworkId, PreloadingStrategy.COLLECTION)).willReturn(createNetworkWithTwoInjectionAndOneBranchAndOne3twt());
+        NadRequestInfos threeWindingsRequestInfos = NadRequestInfos.builder()
+                .voltageLevelIds(Set.of("vl1", "vl2", "vl3"))
+                .outputFormat(NadOutputFormat.SCENE_GRAPH)
+                .build();
+        result = networkAreaDiagramService.generateNetworkAreaDiagramSvg(threeWindingsNetworkId, null, threeWindingsRequestInfos);
+        NadSceneGraph threeWindingsSceneGraph = objectMapper.treeToValue(objectMapper.readTree(result).get("sceneGraph"), NadSceneGraph.class);
+        List<NadSceneGraph.Edge> legs = threeWindingsSceneGraph.getEdges().stream().filter(e -> "trf2".equals(e.getId())).toList();
+        assertEquals(3, legs.size());
+        assertTrue(legs.stream().allMatch(leg -> "trf2".equals(threeWindingsSceneGraph.getNodes().get(leg.getNode2()).getId())
+            || "trf2".equals(threeWindingsSceneGraph.getNodes().get(leg.getNode1()).getId())));
+    }
+
+    @Test
+    void testNetworkAreaDiagramSceneGraphBinary() throws Exception {
+        UUID testNetworkId = UUID.randomUUID();
+        given(networkStoreService.getNetwork(testNetworkId, PreloadingStrategy.COLLECTION)).willReturn(createNetworkWithDepth());
+
+        NadRequestInfos nadRequestInfos = NadRequestInfos.builder()
+                .voltageLevelIds(Set.of("vlFr1A", "vlFr2A", "vlEs1B"))
+                .nadPositionsGenerationMode(NadPositionsGenerationMode.AUTOMATIC)
+                .build();
+
+        // The binary format is negotiated from the Accept header
+        ResultActions mockMvcResultActions = mvc.perform(post("/v1/network-area-diagram/{networkUuid}", testNetworkId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(NadSceneGraphBinaryFormat.MEDIA_TYPE)
+                        .content(objectMapper.writeValueAsString(nadRequestInfos)))
+                .andExpect(request().asyncStarted());
+        MvcResult result = mvc.perform(asyncDispatch(mockMvcResultActions.andReturn()))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(NadSceneGraphBinaryFormat.MEDIA_TYPE))
+                .andReturn();
+        NadSceneGraphBinaryFormat.Decoded decoded = NadSceneGraphBinaryFormat.decode(result.getResponse().getContentAsByteArray());
+        assertTrue(decoded.additionalMetadata().contains("\"nbVoltageLevels\":3"));
+        assertTrue(decoded.sceneGraph().getNodes().stream().map(NadSceneGraph.Node::getId).toList().containsAll(List.of("vlFr1A", "vlFr2A", "vlEs1B")));
+        assertTrue(decoded.sceneGraph().getEdges().stream().anyMatch(edge -> "l1".equals(edge.getId())));
+
+        // JSON is still the default
+        mockMvcResultActions = mvc.perform(post("/v1/network-area-diagram/{networkUuid}", testNetworkId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(nadRequestInfos)))
+                .andExpect(request().asyncStarted());
+        mvc.perform(asyncDispatch(mockMvcResultActions.andReturn()))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON_VALUE));
+    }
+
     @Test
     void testNetworkAreaDiagramGenerationWithEmptyVoltageLevelPositions() throws Exception {
         UUID testNetworkId = UUID.randomUUID();
         given(networkStoreService.getNetwork(testNetworkId, PreloadingStrategy.COLLECTION)).willReturn(createNetworkWithDepth());
+        // No positions uploaded in the default positions config
+        given(nadVoltageLevelConfiguredPositionRepository.findActiveGenerationId()).willReturn(Optional.empty());
 
         NadRequestInfos nadRequestInfos = NadRequestInfos.builder()
                 .nadConfigUuid(null)
@@ -863,6 +1306,42 @@ class SingleLineDiagramTest {
                 .andExpect(status().isBadRequest())
                 .andReturn();
 
+        // An unknown named positions config is not found
+        nadRequestInfos.setNadPositionsConfigUuid(UUID.randomUUID());
+        mockMvcResultActions = mvc.perform(post("/v1/network-area-diagram/{networkUuid}", testNetworkId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(nadRequestInfos)))
+                .andExpect(request().asyncStarted());
+        mvc.perform(asyncDispatch(mockMvcResultActions.andReturn()))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testConfiguredPositionsVoltageLevelIdsUnknownPositionsConfig() throws Exception {
+        UUID positionsConfigUuid = UUID.randomUUID();
+        mvc.perform(get("/v1/network-area-diagram/configured-positions/voltage-levels")
+                        .param("positionsConfigUuid", positionsConfigUuid.toString())
+                        .param("minX", "0")
+                        .param("minY", "0")
+                        .param("maxX", "10")
+                        .param("maxY", "10"))
+                .andExpect(status().isNotFound());
+        // The miss is not cached, the positions config is found once uploaded
+        UUID generationId = UUID.randomUUID();
+        given(nadVoltageLevelConfiguredPositionRepository.findActiveGenerationId(positionsConfigUuid)).willReturn(Optional.of(generationId));
+        given(nadVoltageLevelConfiguredPositionRepository.findAllByGenerationId(generationId)).willReturn(List.of(NadVoltageLevelPositionInfos.builder()
+                .voltageLevelId("vlFr1A")
+                .xPosition(1.0)
+                .yPosition(1.0)
+                .build().toConfiguredPositionEntity()));
+        mvc.perform(get("/v1/network-area-diagram/configured-positions/voltage-levels")
+                        .param("positionsConfigUuid", positionsConfigUuid.toString())
+                        .param("minX", "0")
+                        .param("minY", "0")
+                        .param("maxX", "10")
+                        .param("maxY", "10"))
+                .andExpect(status().isOk())
+                .andExpect(content().json("[\"vlFr1A\"]"));
     }
 
     @Test
@@ -1266,6 +1745,31 @@ class SingleLineDiagramTest {
             });
     }
 
+    @Test
+    void testNetworkAreaDiagramTooManyVoltageLevelsDegradedMode() {
+        int maxVoltageLevels = (int) ReflectionTestUtils.getField(networkAreaDiagramService, "maxVoltageLevels");
+        ReflectionTestUtils.setField(networkAreaDiagramService, "maxVoltageLevels", 2);
+        ReflectionTestUtils.setField(networkAreaDiagramService, "maxVoltageLevelsDegradedMode", true);
+        try {
+            UUID testNetworkId = UUID.randomUUID();
+            given(networkStoreService.getNetwork(testNetworkId, PreloadingStrategy.COLLECTION)).willReturn(createNetwork());
+
+            NadRequestInfos nadRequestInfos = NadRequestInfos.builder()
+                .voltageLevelIds(Set.of("vlFr1A", "vlFr1B", "vlFr2A"))
+                .nadPositionsGenerationMode(NadPositionsGenerationMode.AUTOMATIC)
+                .build();
+
+            // The lowest voltage VL is dropped instead of rejecting the request
+            String result = networkAreaDiagramService.generateNetworkAreaDiagramSvg(testNetworkId, null, nadRequestInfos);
+            assertTrue(result.contains("\"nbVoltageLevels\":2"));
+            assertTrue(result.contains("\"nbDroppedVoltageLevels\":1"));
+            assertTrue(result.contains("\"droppedVoltageLevels\":[\"vlFr1B\"]"));
+        } finally {
+            ReflectionTestUtils.setField(networkAreaDiagramService, "maxVoltageLevels", maxVoltageLevels);
+            ReflectionTestUtils.setField(networkAreaDiagramService, "maxVoltageLevelsDegradedMode", false);
+        }
+    }
+
     @Test
     void testVoltageLevelSingleLineDiagramAdditionalMetadata() {
         UUID testNetworkId = UUID.fromString("7928181c-7977-4592-ba19-88027e4254e4");
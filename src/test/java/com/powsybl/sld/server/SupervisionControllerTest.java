@@ -7,7 +7,8 @@
 package com.powsybl.sld.server;
 
 import com.powsybl.sld.server.dto.nad.NadVoltageLevelPositionInfos;
-import com.powsybl.sld.server.entities.nad.NadVoltageLevelConfiguredPositionEntity;
+import com.powsybl.sld.server.error.DiagramBusinessErrorCode;
+import com.powsybl.sld.server.error.DiagramBusinessException;
 import com.powsybl.sld.server.repository.NadVoltageLevelConfiguredPositionRepository;
 import com.powsybl.ws.commons.error.BaseExceptionHandler;
 import org.apache.commons.io.IOUtils;
@@ -16,6 +17,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
@@ -27,10 +29,11 @@ import org.springframework.web.server.ResponseStatusException;
 import java.io.FileInputStream;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertNotNull;
-import static org.mockito.ArgumentMatchers.anyList;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -43,10 +46,13 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 class SupervisionControllerTest {
 
     public static final String SUPERVISION_CONFIG_POSITIONS_URL = "/v1/supervision/network-area-diagram/config/positions";
+    public static final String SUPERVISION_POSITIONS_CONFIGS_URL = "/v1/supervision/network-area-diagram/positions-configs";
     @Autowired
     private MockMvc mvc;
     @MockitoBean
     private NadVoltageLevelConfiguredPositionRepository nadVoltageLevelConfiguredPositionRepository;
+    @Autowired
+    private NadConfiguredPositionService nadConfiguredPositionService;
     private List<NadVoltageLevelPositionInfos> positions;
 
     @Test
@@ -109,19 +115,22 @@ class SupervisionControllerTest {
     void testCreatingPositionsFromCsvMultipleTimes() throws Exception {
 
         positions = new ArrayList<>();
+        List<NadVoltageLevelPositionInfos> stagingPositions = new ArrayList<>();
+        UUID generationId = UUID.randomUUID();
         when(nadVoltageLevelConfiguredPositionRepository.count()).thenAnswer(invocation -> (long) positions.size());
+        when(nadVoltageLevelConfiguredPositionRepository.createStagingGeneration(null)).thenAnswer(invocation -> {
+            stagingPositions.clear();
+            return generationId;
+        });
         doAnswer(invocation -> {
-            positions.clear();
+            stagingPositions.addAll(invocation.getArgument(1));
             return null;
-        }).when(nadVoltageLevelConfiguredPositionRepository).deleteAll();
-
+        }).when(nadVoltageLevelConfiguredPositionRepository).insertAll(eq(generationId), anyList());
         doAnswer(invocation -> {
-            List<NadVoltageLevelConfiguredPositionEntity> entities = invocation.getArgument(0);
-            positions.addAll(entities.stream()
-                    .map(NadVoltageLevelConfiguredPositionEntity::toDto)
-                    .toList());
-            return entities;
-        }).when(nadVoltageLevelConfiguredPositionRepository).saveAll(anyList());
+            positions.clear();
+            positions.addAll(stagingPositions);
+            return null;
+        }).when(nadVoltageLevelConfiguredPositionRepository).activateGeneration(null, generationId);
 
         byte[] voltageLevelBytes = IOUtils.toByteArray(new FileInputStream(ResourceUtils.getFile("classpath:voltage-level-positions.csv")));
         MockMultipartFile file = new MockMultipartFile("file", "vl-positions.csv", "text/csv", voltageLevelBytes);
@@ -132,15 +141,17 @@ class SupervisionControllerTest {
                 .andExpect(status().isOk());
 
         // Verify the mock repository methods were called as expected
-        verify(nadVoltageLevelConfiguredPositionRepository, times(1)).deleteAll();
-        verify(nadVoltageLevelConfiguredPositionRepository, times(1)).saveAll(anyList());
+        verify(nadVoltageLevelConfiguredPositionRepository, times(1)).createStagingGeneration(null);
+        verify(nadVoltageLevelConfiguredPositionRepository, times(1)).insertAll(eq(generationId), anyList());
+        verify(nadVoltageLevelConfiguredPositionRepository, times(1)).activateGeneration(null, generationId);
+        verify(nadVoltageLevelConfiguredPositionRepository, never()).deleteAll();
 
         // Verify the number of rows after the first call
         var actualRowCount = nadVoltageLevelConfiguredPositionRepository.count();
         assertEquals(expectedRowCount, actualRowCount);
 
         // Verify the number of rows after the second call.
-        // It should still be the same as the first call because the table is cleared.
+        // It should still be the same as the first call because the previous generation is replaced.
         mvc.perform(MockMvcRequestBuilders.multipart(SUPERVISION_CONFIG_POSITIONS_URL)
                         .file(file)
                         .contentType(MediaType.MULTIPART_FORM_DATA_VALUE))
@@ -148,4 +159,90 @@ class SupervisionControllerTest {
         actualRowCount = nadVoltageLevelConfiguredPositionRepository.count();
         assertEquals(expectedRowCount, actualRowCount);
     }
+
+    @Test
+    void testCreatePositionsFromCsvReloadsIndex() throws Exception {
+        UUID generationId = UUID.randomUUID();
+        when(nadVoltageLevelConfiguredPositionRepository.findActiveGenerationId()).thenReturn(Optional.of(generationId));
+        when(nadVoltageLevelConfiguredPositionRepository.findAllByGenerationId(generationId)).thenReturn(List.of());
+        assertTrue(nadConfiguredPositionService.getIndex(null).isEmpty());
+
+        NadVoltageLevelPositionInfos position = NadVoltageLevelPositionInfos.builder()
+                .voltageLevelId("VL1")
+                .xPosition(1.0)
+                .yPosition(1.0)
+                .xLabelPosition(1.0)
+                .yLabelPosition(1.0)
+                .build();
+        UUID newGenerationId = UUID.randomUUID();
+        when(nadVoltageLevelConfiguredPositionRepository.createStagingGeneration(isNull())).thenReturn(newGenerationId);
+        when(nadVoltageLevelConfiguredPositionRepository.findAllByGenerationId(newGenerationId)).thenReturn(List.of(position.toConfiguredPositionEntity()));
+
+        byte[] voltageLevelBytes = IOUtils.toByteArray(new FileInputStream(ResourceUtils.getFile("classpath:voltage-level-positions.csv")));
+        MockMultipartFile file = new MockMultipartFile("file", "vl-positions.csv", "text/csv", voltageLevelBytes);
+        mvc.perform(MockMvcRequestBuilders.multipart(SUPERVISION_CONFIG_POSITIONS_URL)
+                        .file(file)
+                        .contentType(MediaType.MULTIPART_FORM_DATA_VALUE))
+                .andExpect(status().isOk());
+        when(nadVoltageLevelConfiguredPositionRepository.findActiveGenerationId()).thenReturn(Optional.of(newGenerationId));
+
+        // The index of the new active generation is used after the upload
+        assertFalse(nadConfiguredPositionService.getIndex(null).isEmpty());
+        assertEquals(1, nadConfiguredPositionService.getIndex(null).getPositions(List.of("VL1")).size());
+    }
+
+    @Test
+    void testNamedPositionsConfigLifecycle() throws Exception {
+        UUID generationId = UUID.randomUUID();
+        when(nadVoltageLevelConfiguredPositionRepository.createStagingGeneration(any(UUID.class))).thenReturn(generationId);
+
+        byte[] voltageLevelBytes = IOUtils.toByteArray(new FileInputStream(ResourceUtils.getFile("classpath:voltage-level-positions.csv")));
+        MockMultipartFile file = new MockMultipartFile("file", "vl-positions.csv", "text/csv", voltageLevelBytes);
+        String result = mvc.perform(MockMvcRequestBuilders.multipart(SUPERVISION_POSITIONS_CONFIGS_URL)
+                        .file(file)
+                        .contentType(MediaType.MULTIPART_FORM_DATA_VALUE))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        UUID positionsConfigUuid = UUID.fromString(result.replace("\"", ""));
+        verify(nadVoltageLevelConfiguredPositionRepository, times(1)).createStagingGeneration(positionsConfigUuid);
+        verify(nadVoltageLevelConfiguredPositionRepository, times(1)).activateGeneration(positionsConfigUuid, generationId);
+        // The default positions config is left untouched
+        verify(nadVoltageLevelConfiguredPositionRepository, never()).activateGeneration(isNull(), any());
+
+        NadVoltageLevelPositionInfos position = NadVoltageLevelPositionInfos.builder()
+                .voltageLevelId("VL1")
+                .xPosition(1.0)
+                .yPosition(1.0)
+                .xLabelPosition(1.0)
+                .yLabelPosition(1.0)
+                .build();
+        when(nadVoltageLevelConfiguredPositionRepository.findActiveGenerationId(positionsConfigUuid)).thenReturn(Optional.of(generationId));
+        when(nadVoltageLevelConfiguredPositionRepository.findAllByGenerationId(generationId)).thenReturn(List.of(position.toConfiguredPositionEntity()));
+        mvc.perform(MockMvcRequestBuilders.multipart(HttpMethod.PUT, SUPERVISION_POSITIONS_CONFIGS_URL + "/" + positionsConfigUuid)
+                        .file(file)
+                        .contentType(MediaType.MULTIPART_FORM_DATA_VALUE))
+                .andExpect(status().isOk());
+        assertEquals(1, nadConfiguredPositionService.getIndex(positionsConfigUuid).getPositions(List.of("VL1")).size());
+
+        when(nadVoltageLevelConfiguredPositionRepository.deletePositionsConfig(positionsConfigUuid)).thenReturn(1);
+        when(nadVoltageLevelConfiguredPositionRepository.findActiveGenerationId(positionsConfigUuid)).thenReturn(Optional.empty());
+        mvc.perform(MockMvcRequestBuilders.delete(SUPERVISION_POSITIONS_CONFIGS_URL + "/" + positionsConfigUuid))
+                .andExpect(status().isOk());
+        // The deleted positions config is not found anymore
+        DiagramBusinessException exception = assertThrows(DiagramBusinessException.class, () -> nadConfiguredPositionService.getIndex(positionsConfigUuid));
+        assertEquals(DiagramBusinessErrorCode.POSITIONS_CONFIG_NOT_FOUND, exception.getBusinessErrorCode());
+    }
+
+    @Test
+    void testDeleteNonExistentPositionsConfig() throws Exception {
+        when(nadVoltageLevelConfiguredPositionRepository.deletePositionsConfig(any(UUID.class))).thenReturn(0);
+        mvc.perform(MockMvcRequestBuilders.delete(SUPERVISION_POSITIONS_CONFIGS_URL + "/" + UUID.randomUUID()))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testEvictNetworkCaches() throws Exception {
+        mvc.perform(MockMvcRequestBuilders.delete("/v1/supervision/network-area-diagram/networks/" + UUID.randomUUID() + "/caches"))
+                .andExpect(status().isOk());
+    }
 }
@@ -0,0 +1,149 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.sld.server.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BarnesHutForceLayoutTest {
+
+    private static final double SPRING_LENGTH = 100;
+
+    @Test
+    void testGridLayout() {
+        int side = 30;
+        BarnesHutForceLayout layout = createGridLayout(side);
+        double[] xs = new double[side * side];
+        double[] ys = new double[side * side];
+        Arrays.fill(xs, Double.NaN);
+        Arrays.fill(ys, Double.NaN);
+        xs[0] = 1000;
+        ys[0] = -1000;
+        BitSet fixedNodes = new BitSet();
+        fixedNodes.set(0);
+
+        BarnesHutForceLayout.Result result = layout.layout(xs, ys, fixedNodes, 1000);
+        assertTrue(result.converged());
+        assertTrue(result.nbIterations() < 1000);
+        // The fixed node keeps its position, the input arrays are left unchanged
+        assertEquals(1000, result.xs()[0]);
+        assertEquals(-1000, result.ys()[0]);
+        assertTrue(Double.isNaN(xs[1]));
+        assertTrue(Arrays.stream(result.xs()).allMatch(Double::isFinite));
+        assertTrue(Arrays.stream(result.ys()).allMatch(Double::isFinite));
+
+        // The neighbours are much closer than the nodes on average
+        double neighboursDistance = 0;
+        double nodesDistance = 0;
+        for (int node = 0; node < side * side - 1; node++) {
+            neighboursDistance += distance(result, node, node % side < side - 1 ? node + 1 : node - 1);
+            nodesDistance += distance(result, node, (node * 7919) % (side * side));
+        }
+        assertTrue(nodesDistance > 5 * neighboursDistance);
+
+        // Same result from the same input
+        BarnesHutForceLayout.Result sameResult = layout.layout(xs, ys, fixedNodes, 1000);
+        assertArrayEquals(result.xs(), sameResult.xs());
+        assertArrayEquals(result.ys(), sameResult.ys());
+    }
+
+    @Test
+    void testIterationLimitAndFixedNodes() {
+        BarnesHutForceLayout layout = createGridLayout(10);
+        double[] xs = new double[100];
+        double[] ys = new double[100];
+        Arrays.fill(xs, Double.NaN);
+        Arrays.fill(ys, Double.NaN);
+
+        BarnesHutForceLayout.Result result = layout.layout(xs, ys, new BitSet(), 3);
+        assertEquals(3, result.nbIterations());
+        assertFalse(result.converged());
+
+        // No time left
+        BarnesHutForceLayout.Result timedOutResult = layout.layout(xs, ys, new BitSet(), new BitSet(), 1000, Duration.ZERO);
+        assertEquals(0, timedOutResult.nbIterations());
+        assertFalse(timedOutResult.converged());
+        assertTrue(Arrays.stream(timedOutResult.xs()).allMatch(Double::isFinite));
+
+        // Nothing to place
+        BitSet allFixed = new BitSet();
+        allFixed.set(0, 100);
+        BarnesHutForceLayout.Result fixedResult = layout.layout(result.xs(), result.ys(), allFixed, 1000);
+        assertEquals(0, fixedResult.nbIterations());
+        assertTrue(fixedResult.converged());
+        assertArrayEquals(result.xs(), fixedResult.xs());
+    }
+
+    @Test
+    void testWarmStart() {
+        int side = 30;
+        int nbNodes = side * side;
+        BarnesHutForceLayout layout = createGridLayout(side);
+        double[] xs = new double[nbNodes];
+        double[] ys = new double[nbNodes];
+        Arrays.fill(xs, Double.NaN);
+        Arrays.fill(ys, Double.NaN);
+        BarnesHutForceLayout.Result previous = layout.layout(xs, ys, new BitSet(), 1000);
+
+        // The last row is new, the others are seeded with their previous positions
+        double[] seedXs = previous.xs().clone();
+        double[] seedYs = previous.ys().clone();
+        Arrays.fill(seedXs, nbNodes - side, nbNodes, Double.NaN);
+        Arrays.fill(seedYs, nbNodes - side, nbNodes, Double.NaN);
+        BitSet seededNodes = new BitSet();
+        seededNodes.set(0, nbNodes - side);
+
+        BarnesHutForceLayout.Result result = layout.layout(seedXs, seedYs, new BitSet(), seededNodes, 1000);
+        assertTrue(result.converged());
+        for (int node = 0; node < nbNodes - side; node++) {
+            assertTrue(distance(previous, result, node) < SPRING_LENGTH);
+        }
+        for (int node = nbNodes - side; node < nbNodes; node++) {
+            assertTrue(Double.isFinite(result.xs()[node]) && Double.isFinite(result.ys()[node]));
+        }
+    }
+
+    private static BarnesHutForceLayout createGridLayout(int side) {
+        int nbNodes = side * side;
+        int[] neighbourStarts = new int[nbNodes + 1];
+        int[] neighbours = new int[4 * nbNodes];
+        int nbNeighbours = 0;
+        for (int node = 0; node < nbNodes; node++) {
+            neighbourStarts[node] = nbNeighbours;
+            int row = node / side;
+            int column = node % side;
+            if (column > 0) {
+                neighbours[nbNeighbours++] = node - 1;
+            }
+            if (column < side - 1) {
+                neighbours[nbNeighbours++] = node + 1;
+            }
+            if (row > 0) {
+                neighbours[nbNeighbours++] = node - side;
+            }
+            if (row < side - 1) {
+                neighbours[nbNeighbours++] = node + side;
+            }
+        }
+        neighbourStarts[nbNodes] = nbNeighbours;
+        return new BarnesHutForceLayout(neighbourStarts, neighbours, SPRING_LENGTH, ForkJoinPool.commonPool());
+    }
+
+    private static double distance(BarnesHutForceLayout.Result result, int node1, int node2) {
+        return Math.hypot(result.xs()[node1] - result.xs()[node2], result.ys()[node1] - result.ys()[node2]);
+    }
+
+    private static double distance(BarnesHutForceLayout.Result result1, BarnesHutForceLayout.Result result2, int node) {
+        return Math.hypot(result1.xs()[node] - result2.xs()[node], result1.ys()[node] - result2.ys()[node]);
+    }
+}
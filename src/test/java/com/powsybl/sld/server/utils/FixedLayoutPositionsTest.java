@@ -0,0 +1,58 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.sld.server.utils;
+
+import com.powsybl.nad.model.Point;
+import com.powsybl.sld.server.dto.nad.NadVoltageLevelPositionInfos;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FixedLayoutPositionsTest {
+
+    @Test
+    void testPreparedPositions() {
+        FixedLayoutPositions fixedLayoutPositions = FixedLayoutPositions.of(List.of(
+            NadVoltageLevelPositionInfos.builder().voltageLevelId("VL1").xPosition(1.0).yPosition(2.0).xLabelPosition(3.0).yLabelPosition(4.0).build(),
+            NadVoltageLevelPositionInfos.builder().voltageLevelId("VL2").xPosition(5.0).yPosition(6.0).build(),
+            NadVoltageLevelPositionInfos.builder().voltageLevelId("VL3").build()));
+
+        // The positions and labels without coordinates are left to the layout
+        assertEquals(2, fixedLayoutPositions.positions().size());
+        assertEquals(1.0, fixedLayoutPositions.positions().get("VL1").getX());
+        assertEquals(6.0, fixedLayoutPositions.positions().get("VL2").getY());
+        assertEquals(1, fixedLayoutPositions.textPositions().size());
+        assertTrue(fixedLayoutPositions.textPositions().containsKey("VL1"));
+        // Shared, so not modifiable
+        Point point = new Point(0, 0);
+        assertThrows(UnsupportedOperationException.class, () -> fixedLayoutPositions.positions().put("VL4", point));
+
+        // Already prepared positions are not copied
+        assertSame(fixedLayoutPositions, fixedLayoutPositions.with(List.of(
+            NadVoltageLevelPositionInfos.builder().voltageLevelId("VL2").xPosition(5.0).yPosition(6.0).build(),
+            NadVoltageLevelPositionInfos.builder().voltageLevelId("VL3").build())));
+
+        FixedLayoutPositions completedPositions = fixedLayoutPositions.with(List.of(
+            NadVoltageLevelPositionInfos.builder().voltageLevelId("VL3").xPosition(7.0).yPosition(8.0).build()));
+        assertEquals(3, completedPositions.positions().size());
+        assertEquals(7.0, completedPositions.positions().get("VL3").getX());
+        assertEquals(2, fixedLayoutPositions.positions().size());
+
+        // Positions moved since they were prepared replace the prepared ones
+        FixedLayoutPositions movedPositions = fixedLayoutPositions.with(List.of(
+            NadVoltageLevelPositionInfos.builder().voltageLevelId("VL1").xPosition(1.0).yPosition(2.0).build(),
+            NadVoltageLevelPositionInfos.builder().voltageLevelId("VL2").xPosition(9.0).yPosition(6.0).build()));
+        assertNotSame(fixedLayoutPositions, movedPositions);
+        assertEquals(9.0, movedPositions.positions().get("VL2").getX());
+        assertFalse(movedPositions.textPositions().containsKey("VL1"));
+        assertEquals(5.0, fixedLayoutPositions.positions().get("VL2").getX());
+        assertNotSame(fixedLayoutPositions, fixedLayoutPositions.with(List.of(
+            NadVoltageLevelPositionInfos.builder().voltageLevelId("VL1").xPosition(1.0).yPosition(2.0).xLabelPosition(3.0).yLabelPosition(5.0).build())));
+    }
+}
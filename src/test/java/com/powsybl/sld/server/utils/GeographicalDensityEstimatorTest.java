@@ -0,0 +1,69 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.sld.server.utils;
+
+import com.powsybl.sld.server.dto.Coordinate;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GeographicalDensityEstimatorTest {
+
+    @Test
+    void testSmallSets() {
+        assertEquals(0, GeographicalDensityEstimator.estimateDensity(List.of()));
+        assertEquals(1, GeographicalDensityEstimator.estimateDensity(List.of(new Coordinate(45.1, 2.1))));
+        // Two substations in the same cell, the third one alone: (2 * 2 + 1 * 1) / 3
+        assertEquals(5.0 / 3, GeographicalDensityEstimator.estimateDensity(List.of(
+            new Coordinate(45.1, 2.1), new Coordinate(45.2, 2.2), new Coordinate(-45.1, -2.1))), 1e-9);
+    }
+
+    @Test
+    void testUniformSetCloseToBoundingBoxDensity() {
+        // 200 000 substations evenly spread over 10 x 10 degrees
+        List<Coordinate> coordinates = randomCoordinates(new Random(1), 200_000, 40, 0, 10);
+        double density = GeographicalDensityEstimator.estimateDensity(coordinates);
+        double boundingBoxDensity = boundingBoxDensity(coordinates);
+        assertEquals(boundingBoxDensity, density, boundingBoxDensity * 0.1);
+    }
+
+    @Test
+    void testClustersNotDilutedByEmptyArea() {
+        // Two dense regions far apart, the global bounding box is mostly empty
+        Random random = new Random(2);
+        List<Coordinate> coordinates = new ArrayList<>(randomCoordinates(random, 50_000, 40, 0, 2));
+        coordinates.addAll(randomCoordinates(random, 50_000, 50, 20, 2));
+        double density = GeographicalDensityEstimator.estimateDensity(coordinates);
+        assertEquals(50_000.0 / 16, density, 50_000.0 / 16 * 0.1);
+        assertTrue(density > 10 * boundingBoxDensity(coordinates));
+    }
+
+    private static List<Coordinate> randomCoordinates(Random random, int count, double minLat, double minLon, double size) {
+        List<Coordinate> coordinates = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            coordinates.add(new Coordinate(minLat + random.nextDouble() * size, minLon + random.nextDouble() * size));
+        }
+        return coordinates;
+    }
+
+    // Density over the global bounding box, as previously computed for the scaling factor
+    private static double boundingBoxDensity(Collection<Coordinate> coordinates) {
+        double gridSize = GeographicalDensityEstimator.CELL_SIZE;
+        double minLat = coordinates.stream().mapToDouble(Coordinate::getLat).min().orElseThrow();
+        double maxLat = coordinates.stream().mapToDouble(Coordinate::getLat).max().orElseThrow();
+        double minLon = coordinates.stream().mapToDouble(Coordinate::getLon).min().orElseThrow();
+        double maxLon = coordinates.stream().mapToDouble(Coordinate::getLon).max().orElseThrow();
+        double width = Math.floor(maxLat / gridSize) - Math.floor(minLat / gridSize) + gridSize;
+        double height = Math.floor(maxLon / gridSize) - Math.floor(minLon / gridSize) + gridSize;
+        return coordinates.size() / (width * height);
+    }
+}
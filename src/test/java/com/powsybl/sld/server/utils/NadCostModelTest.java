@@ -0,0 +1,45 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.sld.server.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NadCostModelTest {
+
+    @Test
+    void testPriorThenFitted() {
+        NadCostModel model = new NadCostModel();
+        NadCostModel.Estimation prior = model.estimate(10, 20);
+        assertTrue(prior.durationMillis() > 0);
+        assertTrue(prior.sizeBytes() > model.estimate(1, 0).sizeBytes());
+
+        // Generations costing 50 ms + 3 ms per element, and 1000 B + 2000 B per element
+        for (int i = 0; i < NadCostModel.MIN_SAMPLES; i++) {
+            int nbVoltageLevels = 10 * (i + 1);
+            int nbEdges = 2 * nbVoltageLevels;
+            model.record(nbVoltageLevels, nbEdges, 50 + 3L * (nbVoltageLevels + nbEdges), 1000 + 2000L * (nbVoltageLevels + nbEdges));
+        }
+        NadCostModel.Estimation fitted = model.estimate(200, 300);
+        assertEquals(50 + 3 * 500, fitted.durationMillis());
+        assertEquals(1000 + 2000 * 500, fitted.sizeBytes());
+    }
+
+    @Test
+    void testSameSizeGenerations() {
+        NadCostModel model = new NadCostModel();
+        for (int i = 0; i < NadCostModel.MIN_SAMPLES; i++) {
+            model.record(10, 10, 100, 40000);
+        }
+        // Without spread, the estimation goes through the mean of the recorded generations
+        NadCostModel.Estimation estimation = model.estimate(10, 10);
+        assertEquals(100, estimation.durationMillis());
+        assertEquals(40000, estimation.sizeBytes());
+        assertTrue(model.estimate(100, 100).durationMillis() > 100);
+    }
+}
@@ -0,0 +1,99 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.sld.server.utils;
+
+import com.powsybl.sld.server.dto.nad.NadSceneGraph;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NadSceneGraphBinaryFormatTest {
+
+    @Test
+    void testRoundTrip() {
+        NadSceneGraph sceneGraph = NadSceneGraph.builder()
+            .styleClasses(new ArrayList<>(List.of("nad-vl300to500", "nad-overload")))
+            .nodes(new ArrayList<>(List.of(
+                new NadSceneGraph.Node("vlFr1A", 0.0, 0.0, new int[] {0}),
+                new NadSceneGraph.Node("vlFr2A", 123456.789, -98765.4321, new int[] {0}),
+                new NadSceneGraph.Node("vlÉs1B", -0.5, 1e-3, new int[0]))))
+            .edges(new ArrayList<>(List.of(
+                new NadSceneGraph.Edge("l1", "LineEdge", 0, 1, new int[] {0, 1}, new String[] {"12"}, List.of(
+                    new NadSceneGraph.Side(new double[] {0.0, 0.0, 50.0, 10.0, 61728.39, -49382.7}, new int[] {0}, new String[] {"12", "3"}),
+                    new NadSceneGraph.Side(new double[] {123456.789, -98765.4321, 61728.39, -49382.7}, new int[0], new String[0]))),
+                new NadSceneGraph.Edge("l2", null, 1, 2, new int[0], new String[0], List.of(
+                    new NadSceneGraph.Side(new double[] {123456.789, -98765.4321, -0.5, 1e-3}, new int[0], new String[0]))))))
+            .labels(new ArrayList<>(List.of(new NadSceneGraph.Label(1, 123466.789, -98755.4321, new String[] {"vlFr2A", "400 kV"}))))
+            .build();
+
+        byte[] bytes = NadSceneGraphBinaryFormat.encode(sceneGraph, "{\"nbVoltageLevels\":3}".getBytes(StandardCharsets.UTF_8));
+        NadSceneGraphBinaryFormat.Decoded decoded = NadSceneGraphBinaryFormat.decode(bytes);
+
+        assertEquals("{\"nbVoltageLevels\":3}", decoded.additionalMetadata());
+        NadSceneGraph result = decoded.sceneGraph();
+        assertEquals(sceneGraph.getStyleClasses(), result.getStyleClasses());
+        assertEquals(3, result.getNodes().size());
+        for (int i = 0; i < 3; i++) {
+            NadSceneGraph.Node expected = sceneGraph.getNodes().get(i);
+            NadSceneGraph.Node node = result.getNodes().get(i);
+            assertEquals(expected.getId(), node.getId());
+            assertEquals(expected.getX(), node.getX(), 0.01);
+            assertEquals(expected.getY(), node.getY(), 0.01);
+            assertArrayEquals(expected.getClasses(), node.getClasses());
+        }
+        assertEquals(2, result.getEdges().size());
+        for (int i = 0; i < 2; i++) {
+            NadSceneGraph.Edge expected = sceneGraph.getEdges().get(i);
+            NadSceneGraph.Edge edge = result.getEdges().get(i);
+            assertEquals(expected.getId(), edge.getId());
+            assertEquals(expected.getType(), edge.getType());
+            assertEquals(expected.getNode1(), edge.getNode1());
+            assertEquals(expected.getNode2(), edge.getNode2());
+            assertArrayEquals(expected.getClasses(), edge.getClasses());
+            assertArrayEquals(expected.getInfo(), edge.getInfo());
+            assertEquals(expected.getSides().size(), edge.getSides().size());
+            for (int j = 0; j < expected.getSides().size(); j++) {
+                assertArrayEquals(expected.getSides().get(j).getPoints(), edge.getSides().get(j).getPoints(), 0.01);
+                assertArrayEquals(expected.getSides().get(j).getClasses(), edge.getSides().get(j).getClasses());
+                assertArrayEquals(expected.getSides().get(j).getInfo(), edge.getSides().get(j).getInfo());
+            }
+        }
+        assertEquals(1, result.getLabels().size());
+        assertEquals(1, result.getLabels().getFirst().getNode());
+        assertEquals(123466.789, result.getLabels().getFirst().getX(), 0.01);
+        assertEquals(-98755.4321, result.getLabels().getFirst().getY(), 0.01);
+        assertArrayEquals(new String[] {"vlFr2A", "400 kV"}, result.getLabels().getFirst().getText());
+    }
+
+    @Test
+    void testRoundingErrorsDoNotAccumulate() {
+        // A long walk of small steps far from the origin
+        NadSceneGraph sceneGraph = new NadSceneGraph();
+        for (int i = 0; i < 100_000; i++) {
+            sceneGraph.getNodes().add(new NadSceneGraph.Node("vl" + i, 1e6 + i * 0.1, -1e6 - i * 0.3, new int[0]));
+        }
+        NadSceneGraph result = NadSceneGraphBinaryFormat.decode(NadSceneGraphBinaryFormat.encode(sceneGraph, new byte[0])).sceneGraph();
+        NadSceneGraph.Node last = result.getNodes().getLast();
+        assertEquals(1e6 + 99_999 * 0.1, last.getX(), 0.1);
+        assertEquals(-1e6 - 99_999 * 0.3, last.getY(), 0.1);
+    }
+
+    @Test
+    void testInvalidMessages() {
+        assertThrows(IllegalArgumentException.class, () -> NadSceneGraphBinaryFormat.decode(new byte[] {'S', 'V', 'G', ' ', 1}));
+        byte[] bytes = NadSceneGraphBinaryFormat.encode(new NadSceneGraph(), new byte[0]);
+        bytes[4] = 2;
+        assertThrows(IllegalArgumentException.class, () -> NadSceneGraphBinaryFormat.decode(bytes));
+        byte[] truncated = NadSceneGraphBinaryFormat.encode(new NadSceneGraph(), new byte[0]);
+        assertThrows(IllegalArgumentException.class, () -> NadSceneGraphBinaryFormat.decode(Arrays.copyOf(truncated, truncated.length - 2)));
+    }
+}
@@ -0,0 +1,75 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.sld.server.utils;
+
+import com.powsybl.sld.server.dto.nad.BoundingBox;
+import com.powsybl.sld.server.dto.nad.NadVoltageLevelPositionInfos;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PositionGridIndexTest {
+
+    private static NadVoltageLevelPositionInfos createPosition(String voltageLevelId, Double x, Double y) {
+        return NadVoltageLevelPositionInfos.builder()
+            .voltageLevelId(voltageLevelId)
+            .xPosition(x)
+            .yPosition(y)
+            .build();
+    }
+
+    @Test
+    void testSameResultAsFullScan() {
+        Random random = new Random(42);
+        List<NadVoltageLevelPositionInfos> positions = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            positions.add(createPosition("VL" + i, random.nextDouble() * 10000 - 5000, random.nextDouble() * 2000));
+        }
+        PositionGridIndex index = PositionGridIndex.build(positions);
+        assertEquals(5000, index.size());
+
+        for (int i = 0; i < 50; i++) {
+            double x = random.nextDouble() * 12000 - 6000;
+            double y = random.nextDouble() * 2400 - 200;
+            BoundingBox boundingBox = new BoundingBox(x, y, x + random.nextDouble() * 3000, y + random.nextDouble() * 800);
+            Set<String> expected = positions.stream()
+                .filter(position -> boundingBox.contains(position.getXPosition(), position.getYPosition()))
+                .map(NadVoltageLevelPositionInfos::getVoltageLevelId)
+                .collect(Collectors.toSet());
+            List<String> actual = index.findVoltageLevelIds(boundingBox);
+            assertEquals(expected.size(), actual.size());
+            assertEquals(expected, new HashSet<>(actual));
+        }
+    }
+
+    @Test
+    void testDegenerateExtents() {
+        PositionGridIndex index = PositionGridIndex.build(List.of(
+            createPosition("VL1", 1.0, 1.0),
+            createPosition("VL2", 1.0, 1.0),
+            createPosition("VL3", null, 1.0)));
+        // Positions without coordinates are not indexed
+        assertEquals(2, index.size());
+        assertEquals(Set.of("VL1", "VL2"), new HashSet<>(index.findVoltageLevelIds(new BoundingBox(1, 1, 1, 1))));
+        assertTrue(index.findVoltageLevelIds(new BoundingBox(2, 2, 3, 3)).isEmpty());
+
+        PositionGridIndex lineIndex = PositionGridIndex.build(List.of(
+            createPosition("VL1", 0.0, 0.0),
+            createPosition("VL2", 0.0, 10.0)));
+        assertEquals(List.of("VL2"), lineIndex.findVoltageLevelIds(new BoundingBox(-1, 5, 1, 20)));
+    }
+
+    @Test
+    void testEmptyIndex() {
+        PositionGridIndex index = PositionGridIndex.build(List.of());
+        assertEquals(0, index.size());
+        assertTrue(index.findVoltageLevelIds(new BoundingBox(-1, -1, 1, 1)).isEmpty());
+    }
+}
@@ -0,0 +1,117 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.sld.server.utils;
+
+import com.powsybl.iidm.network.Identifiable;
+import com.powsybl.iidm.network.Network;
+import com.powsybl.iidm.network.test.FourSubstationsNodeBreakerFactory;
+import com.powsybl.nad.build.iidm.VoltageLevelFilter;
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VoltageLevelAdjacencyIndexTest {
+
+    @Test
+    void testSameNeighboursAsVoltageLevelFilter() {
+        Network network = FourSubstationsNodeBreakerFactory.create();
+        VoltageLevelAdjacencyIndex index = VoltageLevelAdjacencyIndex.build(network);
+        assertEquals(network.getVoltageLevelCount(), index.size());
+
+        for (String voltageLevelId : network.getVoltageLevelStream().map(Identifiable::getId).toList()) {
+            for (int depth = 0; depth <= 3; depth++) {
+                Set<String> expected = VoltageLevelFilter.createVoltageLevelsDepthFilter(network, List.of(voltageLevelId), depth).voltageLevels().stream()
+                    .map(Identifiable::getId)
+                    .collect(Collectors.toSet());
+                assertEquals(expected, index.getVoltageLevelIdsWithinDepth(List.of(voltageLevelId), depth), voltageLevelId + " at depth " + depth);
+            }
+        }
+    }
+
+    @Test
+    void testNeighboursAndSubstations() {
+        Network network = FourSubstationsNodeBreakerFactory.create();
+        VoltageLevelAdjacencyIndex index = VoltageLevelAdjacencyIndex.build(network);
+
+        int s1vl1 = index.getIndex("S1VL1");
+        assertEquals("S1VL1", index.getVoltageLevelId(s1vl1));
+        assertEquals("S1", index.getSubstationId(s1vl1));
+        assertEquals(-1, index.getIndex("unknownVL"));
+        // The neighbours are sorted and without duplicates
+        for (int i = 0; i < index.size(); i++) {
+            for (int k = index.getNeighbourStart(i) + 1; k < index.getNeighbourEnd(i); k++) {
+                assertTrue(index.getNeighbour(k - 1) < index.getNeighbour(k));
+            }
+        }
+
+        assertEquals(Set.of("S1", "S2"), index.getSubstationIds(List.of("S1VL1", "S1VL2", "S2VL1", "unknownVL")));
+        // Unknown voltage levels are ignored
+        assertEquals(Set.of("S1VL1"), index.getVoltageLevelIdsWithinDepth(List.of("S1VL1", "unknownVL"), 0));
+    }
+
+    @Test
+    void testExpansionDepthsAndBudget() {
+        Network network = FourSubstationsNodeBreakerFactory.create();
+        VoltageLevelAdjacencyIndex index = VoltageLevelAdjacencyIndex.build(network);
+        Set<String> depth1 = index.getVoltageLevelIdsWithinDepth(List.of("S1VL2"), 1);
+        Set<String> depth2 = index.getVoltageLevelIdsWithinDepth(List.of("S1VL2"), 2);
+
+        // Each voltage level has its own depth
+        Set<String> expanded = index.getVoltageLevelIdsWithinDepths(Map.of("S1VL2", 2, "S1VL1", 0), Integer.MAX_VALUE);
+        assertEquals(depth2, expanded);
+        assertTrue(expanded.contains("S1VL1"));
+        // A huge depth reaches the whole connected component
+        assertEquals(index.getVoltageLevelIdsWithinDepth(List.of("S1VL2"), index.size()),
+            index.getVoltageLevelIdsWithinDepths(Map.of("S1VL2", Integer.MAX_VALUE), Integer.MAX_VALUE));
+
+        // The budget stops the expansion, the nearest voltage levels first
+        Set<String> limited = index.getVoltageLevelIdsWithinDepths(Map.of("S1VL2", 2), depth1.size());
+        assertEquals(depth1, limited);
+        // The expanded voltage levels are kept whatever the budget
+        assertEquals(Set.of("S1VL2", "S2VL1"), index.getVoltageLevelIdsWithinDepths(Map.of("S1VL2", 2, "S2VL1", 1), 0));
+    }
+
+    @Test
+    void testBitSetSelection() {
+        Network network = FourSubstationsNodeBreakerFactory.create();
+        VoltageLevelAdjacencyIndex index = VoltageLevelAdjacencyIndex.build(network);
+
+        // Unknown voltage levels are ignored
+        BitSet selection = index.toBitSet(List.of("S1VL1", "S1VL2", "unknownVL"));
+        assertEquals(2, selection.cardinality());
+        selection.andNot(index.toBitSet(List.of("S1VL1")));
+        selection.or(index.toBitSet(Set.of("S3VL1")));
+        assertEquals(Set.of("S1VL2", "S3VL1"), index.toVoltageLevelIds(selection));
+        assertEquals(Set.of(), index.toVoltageLevelIds(new BitSet()));
+
+        assertEquals(index.getVoltageLevelIdsWithinDepth(List.of("S1VL2"), 1),
+            index.toVoltageLevelIds(index.getVoltageLevelsWithinDepths(Map.of("S1VL2", 1), Integer.MAX_VALUE)));
+    }
+
+    @Test
+    void testCountEdges() {
+        Network network = FourSubstationsNodeBreakerFactory.create();
+        VoltageLevelAdjacencyIndex index = VoltageLevelAdjacencyIndex.build(network);
+
+        int s1vl2 = index.getIndex("S1VL2");
+        int degree = index.getNeighbourEnd(s1vl2) - index.getNeighbourStart(s1vl2);
+        assertEquals(degree, index.countEdges(index.toBitSet(List.of("S1VL2"))));
+
+        // Each pair of adjacent voltage levels is counted once
+        BitSet all = new BitSet();
+        all.set(0, index.size());
+        int nbNeighbours = index.getNeighbourEnd(index.size() - 1);
+        assertEquals(nbNeighbours / 2, index.countEdges(all));
+        assertEquals(0, index.countEdges(new BitSet()));
+    }
+}